@@ -209,6 +209,11 @@ public class HunterGame extends JavaPlugin {
                 sidebarManager.shutdown();
             }
             
+            // 关闭世界管理器
+            if (worldManager != null) {
+                worldManager.shutdown();
+            }
+            
             // 保存所有玩家数据(同步保存,避免异步任务问题)
             if (statsManager != null) {
                 statsManager.saveAllSync();
@@ -322,8 +327,8 @@ public class HunterGame extends JavaPlugin {
                 return false;
             }
             
-            // 创建数据表
-            databaseManager.createTables();
+            // 初始化存储（创建数据表或加载数据文件）
+            databaseManager.initializeStorage();
             
             // 初始化玩家数据仓库
             playerRepository = new PlayerRepository(this, databaseManager);
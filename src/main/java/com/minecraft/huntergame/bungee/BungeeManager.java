@@ -59,6 +59,9 @@ public class BungeeManager {
             return;
         }
         
+        // 先把段位数据写入Redis，目标服务器登录时即可读取
+        plugin.getStatsManager().publishPlayerCache(player.getUniqueId());
+        
         try {
             ByteArrayDataOutput out = ByteStreams.newDataOutput();
             out.writeUTF("Connect");
@@ -1,13 +1,18 @@
 package com.minecraft.huntergame.bungee;
 
 import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.models.PlayerData;
+import com.minecraft.huntergame.rank.Rank;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Redis管理器
@@ -23,6 +28,16 @@ public class RedisManager {
     private final String serverName;
     private final String keyPrefix = "huntergame:";
     
+    // 仅在版本号更新时写入玩家数据缓存，避免较旧的数据覆盖较新的数据
+    private static final String PLAYER_CACHE_SCRIPT =
+        "local current = redis.call('HGET', KEYS[1], 'version') " +
+        "if current and tonumber(current) > tonumber(ARGV[1]) then return 0 end " +
+        "redis.call('HSET', KEYS[1], 'version', ARGV[1], 'name', ARGV[2], 'score', ARGV[3], " +
+        "'current_rank', ARGV[4], 'highest_rank', ARGV[5], 'season_id', ARGV[6], " +
+        "'created_at', ARGV[7], 'updated_at', ARGV[8], 'server', ARGV[9]) " +
+        "redis.call('EXPIRE', KEYS[1], ARGV[10]) " +
+        "return 1";
+    
     public RedisManager(HunterGame plugin) {
         this.plugin = plugin;
         this.serverName = plugin.getMainConfig().getRedisServerName();
@@ -295,6 +310,67 @@ public class RedisManager {
         return keyPrefix;
     }
     
+    // ==================== 玩家数据缓存 ====================
+    
+    /**
+     * 写入玩家段位数据缓存
+     * 
+     * @param data 玩家数据（调用方提供的副本）
+     * @param version 版本号，旧版本不会覆盖新版本
+     * @param ttlSeconds 过期时间(秒)
+     * @return 是否写入
+     */
+    public boolean savePlayerDataCache(PlayerData data, long version, int ttlSeconds) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object result = jedis.eval(PLAYER_CACHE_SCRIPT,
+                Collections.singletonList(keyPrefix + "player:data:" + data.getUuid()),
+                Arrays.asList(
+                    String.valueOf(version),
+                    data.getName(),
+                    String.valueOf(data.getScore()),
+                    data.getCurrentRank().name(),
+                    data.getHighestRank().name(),
+                    String.valueOf(data.getSeasonId()),
+                    String.valueOf(data.getCreatedAt()),
+                    String.valueOf(data.getUpdatedAt()),
+                    serverName,
+                    String.valueOf(ttlSeconds)));
+            
+            return Long.valueOf(1L).equals(result);
+            
+        } catch (Exception ex) {
+            plugin.getLogger().warning("写入玩家数据缓存失败: " + ex.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 读取玩家段位数据缓存
+     * 
+     * @return 玩家数据，不存在或已过期返回null
+     */
+    public PlayerData loadPlayerDataCache(UUID uuid) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Map<String, String> fields = jedis.hgetAll(keyPrefix + "player:data:" + uuid);
+            if (fields == null || fields.isEmpty()) {
+                return null;
+            }
+            
+            PlayerData data = new PlayerData(uuid, fields.get("name"));
+            data.setScore(Integer.parseInt(fields.get("score")));
+            data.setCurrentRank(Rank.valueOf(fields.get("current_rank")));
+            data.setHighestRank(Rank.valueOf(fields.get("highest_rank")));
+            data.setSeasonId(Integer.parseInt(fields.get("season_id")));
+            data.setCreatedAt(Long.parseLong(fields.get("created_at")));
+            data.setUpdatedAt(Long.parseLong(fields.get("updated_at")));
+            return data;
+            
+        } catch (Exception ex) {
+            plugin.getLogger().warning("读取玩家数据缓存失败: " + ex.getMessage());
+            return null;
+        }
+    }
+    
     // ==================== Bungee 模式增强方法 ====================
     
     /**
@@ -369,6 +445,9 @@ public class RedisManager {
             serverData.put("maxPlayers", String.valueOf(plugin.getManhuntConfig().getMaxPlayers()));
             serverData.put("type", plugin.getManhuntConfig().getServerType().name());
             serverData.put("timestamp", String.valueOf(System.currentTimeMillis()));
+            if (plugin.getWorldManager() != null) {
+                serverData.put("worldPool", String.valueOf(plugin.getWorldManager().getWorldPool().getReadyCount()));
+            }
             
             jedis.hmset(key, serverData);
             jedis.expire(key, 30); // 30秒过期
@@ -381,6 +460,28 @@ public class RedisManager {
         }
     }
     
+    /**
+     * 更新世界池就绪数量（容量信号）
+     * 
+     * @param ready 就绪的世界组数
+     * @param size 世界池容量
+     */
+    public void updateWorldPoolDepth(int ready, int size) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            String key = keyPrefix + "servers:" + serverName;
+            
+            Map<String, String> updates = new HashMap<>();
+            updates.put("worldPool", String.valueOf(ready));
+            updates.put("worldPoolSize", String.valueOf(size));
+            
+            jedis.hmset(key, updates);
+            jedis.expire(key, 30); // 30秒过期
+            
+        } catch (Exception ex) {
+            plugin.getLogger().warning("更新世界池状态失败: " + ex.getMessage());
+        }
+    }
+    
     /**
      * 查询所有游戏服务器状态
      * 
@@ -397,9 +397,8 @@ public class MainCommand implements CommandExecutor, TabCompleter {
         // 如果没有游戏，自动创建
         String worldName = plugin.getManhuntConfig().getWorldName();
         
-        // 加载或创建游戏世界
-        org.bukkit.World gameWorld = plugin.getWorldManager().loadOrCreateWorld(worldName);
-        if (gameWorld == null) {
+        // 准备游戏世界
+        if (!plugin.getWorldManager().prepareGameWorld(worldName)) {
             player.sendMessage("§c无法创建游戏世界！");
             return true;
         }
@@ -460,12 +459,7 @@ public class MainCommand implements CommandExecutor, TabCompleter {
         
         // 广播离开消息
         if (game != null) {
-            for (java.util.UUID uuid : game.getAllPlayers()) {
-                Player p = plugin.getServer().getPlayer(uuid);
-                if (p != null) {
-                    p.sendMessage("§e玩家 " + player.getName() + " 离开了游戏");
-                }
-            }
+            game.broadcast("§e玩家 " + player.getName() + " 离开了游戏");
         }
         
         return true;
@@ -630,6 +624,11 @@ public class MainCommand implements CommandExecutor, TabCompleter {
             plugin.getRewardsConfig().reload();
             plugin.getLanguageManager().reload();
             
+            // 3. 计分板行模板可能已变化，下次刷新时重建所有计分板
+            if (plugin.getSidebarManager() != null) {
+                plugin.getSidebarManager().invalidateAll();
+            }
+            
             sender.sendMessage("§a配置重载成功！");
             plugin.getLogger().info(sender.getName() + " 重载了插件配置");
             
@@ -770,6 +769,7 @@ public class MainCommand implements CommandExecutor, TabCompleter {
                 sender.sendMessage("§e正在开始新赛季...");
                 plugin.getSeasonManager().startNewSeasonAndReset();
                 sender.sendMessage("§a新赛季已开始！");
+                sender.sendMessage("§7离线玩家数据正在后台结算，可使用 /hg season info 查看进度");
                 break;
                 
             case "duration":
@@ -834,6 +834,12 @@ public class MainCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage("§e持续时间: §d无限期");
         }
         
+        com.minecraft.huntergame.rank.SeasonRolloverJob rollover = plugin.getSeasonManager().getRolloverJob();
+        if (rollover != null && rollover.isRunning()) {
+            sender.sendMessage("§e数据结算: §6" + rollover.getProcessed() + "/" + rollover.getTotal()
+                + " §7(" + rollover.getProgressPercent() + "%)");
+        }
+        
         sender.sendMessage("");
         sender.sendMessage("§7管理命令:");
         sender.sendMessage("§e/hg season reset §7- 重置当前赛季");
@@ -0,0 +1,207 @@
+package com.minecraft.huntergame.config;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 计分板行模板
+ * 配置加载时把一行文本编译为"文本片段 + 变量"序列（颜色代码在编译时转换），
+ * 渲染时按顺序追加到调用方复用的 StringBuilder，不产生中间字符串。
+ * 未知变量或当前计分板不支持的变量在编译时报错
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public final class LineTemplate {
+
+    /**
+     * 行刷新类别
+     * 按变量值的变化方式划分，行的类别取其变量中最频繁的一类
+     */
+    public enum RefreshClass {
+        // 值不会改变（只在重建计分板时渲染）
+        STATIC,
+        // 值只在游戏事件（状态切换、死亡、加入离开）时改变
+        EVENT,
+        // 值每秒变化（计时器）
+        TIMER
+    }
+
+    /**
+     * 模板变量
+     */
+    public enum Variable {
+        // 游戏中
+        STATE("state", RefreshClass.EVENT),
+        ROLE("role", RefreshClass.EVENT),
+        ROLE_COLOR("role_color", RefreshClass.EVENT),
+        RESPAWNS("respawns", RefreshClass.EVENT),
+        MAX_RESPAWNS("max_respawns", RefreshClass.STATIC),
+        ALIVE_RUNNERS("alive_runners", RefreshClass.EVENT),
+        TOTAL_RUNNERS("total_runners", RefreshClass.EVENT),
+        ALIVE_HUNTERS("alive_hunters", RefreshClass.EVENT),
+        TOTAL_HUNTERS("total_hunters", RefreshClass.EVENT),
+        TIME("time", RefreshClass.TIMER),
+        REMAINING_TIME("remaining_time", RefreshClass.TIMER),
+        // 大厅/匹配
+        PLAYER_COUNT("player_count", RefreshClass.EVENT),
+        MAX_PLAYERS("max_players", RefreshClass.STATIC),
+        STATUS("status", RefreshClass.STATIC),
+        COUNTDOWN("countdown", RefreshClass.TIMER),
+        SERVER("server", RefreshClass.STATIC);
+
+        private final String key;
+        private final RefreshClass refreshClass;
+
+        Variable(String key, RefreshClass refreshClass) {
+            this.key = key;
+            this.refreshClass = refreshClass;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public RefreshClass getRefreshClass() {
+            return refreshClass;
+        }
+
+        /**
+         * 根据变量名查找变量
+         *
+         * @return 变量，未知变量返回null
+         */
+        public static Variable fromKey(String key) {
+            for (Variable variable : values()) {
+                if (variable.key.equals(key)) {
+                    return variable;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 变量值提供者
+     */
+    @FunctionalInterface
+    public interface Resolver {
+
+        /**
+         * 将变量值追加到输出
+         */
+        void append(Variable variable, StringBuilder out);
+    }
+
+    // 文本片段，长度为变量数 + 1（片段i位于变量i之前）
+    private final String[] literals;
+    private final Variable[] variables;
+
+    // 包含的变量（按 ordinal 的位掩码）
+    private final long mask;
+
+    // 原始文本是否为空行
+    private final boolean blank;
+
+    // 刷新类别
+    private final RefreshClass refreshClass;
+
+    private LineTemplate(String[] literals, Variable[] variables, boolean blank) {
+        this.literals = literals;
+        this.variables = variables;
+        this.blank = blank;
+
+        long bits = 0;
+        RefreshClass refresh = RefreshClass.STATIC;
+        for (Variable variable : variables) {
+            bits |= 1L << variable.ordinal();
+            if (variable.getRefreshClass().compareTo(refresh) > 0) {
+                refresh = variable.getRefreshClass();
+            }
+        }
+        this.mask = bits;
+        this.refreshClass = refresh;
+    }
+
+    /**
+     * 编译一行模板
+     *
+     * @param raw 配置中的原始文本
+     * @param allowed 当前计分板可用的变量
+     * @throws IllegalArgumentException 包含未知或不可用的变量
+     */
+    public static LineTemplate compile(String raw, Set<Variable> allowed) {
+        if (raw.trim().isEmpty()) {
+            return new LineTemplate(new String[] {""}, new Variable[0], true);
+        }
+
+        String text = ChatColor.translateAlternateColorCodes('&', raw);
+        List<String> literals = new ArrayList<>();
+        List<Variable> variables = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                int end = text.indexOf('}', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("变量缺少 '}': " + raw);
+                }
+                String key = text.substring(i + 1, end);
+                Variable variable = Variable.fromKey(key);
+                if (variable == null) {
+                    throw new IllegalArgumentException("未知变量 {" + key + "}: " + raw);
+                }
+                if (!allowed.contains(variable)) {
+                    throw new IllegalArgumentException("此计分板不支持变量 {" + key + "}: " + raw);
+                }
+                literals.add(literal.toString());
+                variables.add(variable);
+                literal.setLength(0);
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        return new LineTemplate(literals.toArray(new String[0]), variables.toArray(new Variable[0]), false);
+    }
+
+    /**
+     * 渲染到输出（不清空输出）
+     */
+    public void render(StringBuilder out, Resolver resolver) {
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            resolver.append(variables[i], out);
+        }
+        out.append(literals[variables.length]);
+    }
+
+    /**
+     * 是否包含指定变量
+     */
+    public boolean uses(Variable variable) {
+        return (mask & (1L << variable.ordinal())) != 0;
+    }
+
+    /**
+     * 获取刷新类别
+     */
+    public RefreshClass getRefreshClass() {
+        return refreshClass;
+    }
+
+    /**
+     * 是否为空行
+     */
+    public boolean isBlank() {
+        return blank;
+    }
+}
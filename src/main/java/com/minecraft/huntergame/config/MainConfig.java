@@ -375,6 +375,97 @@ public class MainConfig {
         return config.getLong("database.pool.connection-timeout", 30000);
     }
     
+    /**
+     * 获取延迟写入单批最大条数
+     */
+    public int getWriteBehindBatchSize() {
+        return config.getInt("database.write-behind.batch-size", 50);
+    }
+    
+    /**
+     * 获取延迟写入刷新间隔(毫秒)
+     */
+    public long getWriteBehindFlushInterval() {
+        return config.getLong("database.write-behind.flush-interval", 2000);
+    }
+    
+    /**
+     * 获取关闭时等待写入完成的最长时间(毫秒)
+     */
+    public long getWriteBehindShutdownTimeout() {
+        return config.getLong("database.write-behind.shutdown-timeout", 10000);
+    }
+    
+    /**
+     * 文件/内存存储保留的赛季历史数量，0为永久保留
+     */
+    public int getRetainedHistorySeasons() {
+        return config.getInt("database.retention.history-seasons", 5);
+    }
+    
+    /**
+     * 文件/内存存储保留的分数日志去重记录数量
+     */
+    public int getRetainedAppliedDeltas() {
+        return config.getInt("database.retention.applied-deltas", 100000);
+    }
+    
+    /**
+     * 离线玩家数据缓存最大数量
+     */
+    public int getOfflineCacheMaxSize() {
+        return config.getInt("database.offline-cache.max-size", 500);
+    }
+    
+    /**
+     * 离线玩家数据缓存存活时间(分钟)
+     */
+    public int getOfflineCacheExpireMinutes() {
+        return config.getInt("database.offline-cache.expire-minutes", 30);
+    }
+    
+    /**
+     * 登录前预加载玩家数据的最长等待时间(毫秒)
+     */
+    public long getPreloadTimeout() {
+        return config.getLong("database.preload-timeout", 3000);
+    }
+    
+    /**
+     * 登录前预加载的最大线程数
+     */
+    public int getPreloadThreads() {
+        return config.getInt("database.preload-threads", 4);
+    }
+    
+    /**
+     * SQLite是否启用WAL模式（单写连接 + 只读连接池）
+     */
+    public boolean isSQLiteWalEnabled() {
+        return config.getBoolean("database.sqlite.wal", true);
+    }
+    
+    /**
+     * SQLite只读连接池大小
+     */
+    public int getSQLiteReadPoolSize() {
+        return config.getInt("database.sqlite.read-pool-size", 4);
+    }
+    
+    /**
+     * SQLite内存映射大小(字节)
+     */
+    public long getSQLiteMmapSize() {
+        return config.getLong("database.sqlite.mmap-size", 268435456L);
+    }
+    
+    /**
+     * SQLite页缓存大小(KB)
+     */
+    public int getSQLiteCacheSizeKb() {
+        return config.getInt("database.sqlite.cache-size-kb", 16384);
+    }
+    
     // ==================== Bungee配置 ====================
     
     /**
@@ -506,6 +597,20 @@ public class MainConfig {
         return Math.max(5, config.getInt("redis.update-interval", 10));
     }
     
+    /**
+     * 是否启用Redis玩家数据缓存（跨服传送时使用）
+     */
+    public boolean isRedisPlayerCacheEnabled() {
+        return config.getBoolean("redis.player-cache.enabled", true);
+    }
+    
+    /**
+     * 获取Redis玩家数据缓存过期时间(秒)
+     */
+    public int getRedisPlayerCacheTtl() {
+        return Math.max(5, config.getInt("redis.player-cache.ttl", 60));
+    }
+    
     /**
      * 获取状态同步间隔(秒)
      */
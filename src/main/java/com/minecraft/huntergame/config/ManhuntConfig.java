@@ -214,6 +214,41 @@ public class ManhuntConfig {
         return Math.max(1, config.getInt("tracker.auto-update-interval", 10));
     }
     
+    /**
+     * 是否增量写入指南针（显示状态未变化时跳过写入）
+     */
+    public boolean isTrackerDeltaRender() {
+        return config.getBoolean("tracker.delta-render", true);
+    }
+    
+    /**
+     * 获取增量写入阈值(方块)
+     */
+    public int getTrackerRenderThreshold() {
+        return Math.max(1, config.getInt("tracker.render-threshold", 2));
+    }
+    
+    /**
+     * 是否启用轻量追踪模式（主世界同维度时使用 setCompassTarget 驱动指针）
+     */
+    public boolean isTrackerLightweightMode() {
+        return config.getBoolean("tracker.lightweight-mode", false);
+    }
+    
+    /**
+     * 获取追踪指南针每tick的更新时间预算(毫秒)
+     */
+    public double getTrackerTickBudget() {
+        return Math.max(0.1, config.getDouble("tracker.tick-budget-ms", 2.0));
+    }
+    
+    /**
+     * 获取追踪指南针计算线程数（0=只在主线程计算）
+     */
+    public int getTrackerWorkerThreads() {
+        return Math.max(0, config.getInt("tracker.worker-threads", 2));
+    }
+    
     // ==================== 世界管理配置 ====================
     
     /**
@@ -258,6 +293,27 @@ public class ManhuntConfig {
         return config.getBoolean("world.use-multiverse", false);
     }
     
+    /**
+     * 获取模板世界名称（为空表示不使用模板，重置时重新生成地形）
+     */
+    public String getWorldTemplate() {
+        return config.getString("world.template", "");
+    }
+    
+    /**
+     * 获取预生成世界池容量（0表示不使用世界池）
+     */
+    public int getWorldPoolSize() {
+        return Math.max(0, config.getInt("world.pool.size", 0));
+    }
+    
+    /**
+     * 获取世界池预热间隔(秒)
+     */
+    public int getWorldPoolWarmupInterval() {
+        return Math.max(1, config.getInt("world.pool.warmup-interval", 5));
+    }
+    
     // ==================== 大厅配置 ====================
     
     /**
@@ -4,7 +4,13 @@ import com.minecraft.huntergame.HunterGame;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 计分板配置类
@@ -14,9 +20,29 @@ import java.util.List;
  */
 public class ScoreboardConfig {
     
+    // 各计分板可用的变量
+    private static final Set<LineTemplate.Variable> GAME_VARIABLES = EnumSet.range(
+        LineTemplate.Variable.STATE, LineTemplate.Variable.REMAINING_TIME);
+    private static final Set<LineTemplate.Variable> LOBBY_VARIABLES = EnumSet.of(
+        LineTemplate.Variable.PLAYER_COUNT, LineTemplate.Variable.MAX_PLAYERS,
+        LineTemplate.Variable.STATUS, LineTemplate.Variable.SERVER);
+    private static final Set<LineTemplate.Variable> MATCHING_VARIABLES = EnumSet.of(
+        LineTemplate.Variable.PLAYER_COUNT, LineTemplate.Variable.MAX_PLAYERS,
+        LineTemplate.Variable.COUNTDOWN);
+    
     private final HunterGame plugin;
     private FileConfiguration config;
     
+    // 编译后的行模板
+    private List<LineTemplate> gameTemplates;
+    private List<LineTemplate> lobbyTemplates;
+    private List<LineTemplate> matchingTemplates;
+    
+    // 状态文本、角色名称和颜色（已转换颜色代码）
+    private final Map<String, String> stateTexts = new HashMap<>();
+    private final Map<String, String> roleNames = new HashMap<>();
+    private final Map<String, String> roleColors = new HashMap<>();
+    
     public ScoreboardConfig(HunterGame plugin) {
         this.plugin = plugin;
         load();
@@ -27,6 +53,7 @@ public class ScoreboardConfig {
      */
     public void load() {
         config = plugin.getConfigManager().getScoreboardConfig();
+        compileTemplates();
         plugin.getLogger().info("计分板配置已加载");
     }
     
@@ -36,9 +63,37 @@ public class ScoreboardConfig {
     public void reload() {
         // 重新从ConfigManager获取最新的配置引用
         config = plugin.getConfigManager().getScoreboardConfig();
+        compileTemplates();
         plugin.getLogger().info("计分板配置已重载");
     }
     
+    /**
+     * 编译所有行模板并清除文本缓存
+     */
+    private void compileTemplates() {
+        gameTemplates = compileLines("game.lines", GAME_VARIABLES);
+        lobbyTemplates = compileLines("lobby.lines", LOBBY_VARIABLES);
+        matchingTemplates = compileLines("matching.lines", MATCHING_VARIABLES);
+        stateTexts.clear();
+        roleNames.clear();
+        roleColors.clear();
+    }
+    
+    /**
+     * 编译行配置，包含未知变量的行会被拒绝并输出警告
+     */
+    private List<LineTemplate> compileLines(String path, Set<LineTemplate.Variable> allowed) {
+        List<LineTemplate> templates = new ArrayList<>();
+        for (String line : config.getStringList(path)) {
+            try {
+                templates.add(LineTemplate.compile(line, allowed));
+            } catch (IllegalArgumentException ex) {
+                plugin.getLogger().warning("计分板配置 " + path + " 中的行无效，已忽略: " + ex.getMessage());
+            }
+        }
+        return Collections.unmodifiableList(templates);
+    }
+    
     // ==================== 通用配置 ====================
     
     /**
@@ -116,6 +171,13 @@ public class ScoreboardConfig {
         return config.getStringList("game.lines");
     }
     
+    /**
+     * 获取编译后的游戏计分板行模板
+     */
+    public List<LineTemplate> getGameTemplates() {
+        return gameTemplates;
+    }
+    
     // ==================== 大厅计分板 ====================
     
     /**
@@ -140,6 +202,13 @@ public class ScoreboardConfig {
         return config.getStringList("lobby.lines");
     }
     
+    /**
+     * 获取编译后的大厅计分板行模板
+     */
+    public List<LineTemplate> getLobbyTemplates() {
+        return lobbyTemplates;
+    }
+    
     // ==================== 匹配计分板 ====================
     
     /**
@@ -164,28 +233,35 @@ public class ScoreboardConfig {
         return config.getStringList("matching.lines");
     }
     
+    /**
+     * 获取编译后的匹配计分板行模板
+     */
+    public List<LineTemplate> getMatchingTemplates() {
+        return matchingTemplates;
+    }
+    
     // ==================== 状态文本 ====================
     
     /**
      * 获取状态文本
      */
     public String getStateText(String state) {
-        return ChatColor.translateAlternateColorCodes('&',
-            config.getString("states." + state, "&7" + state));
+        return stateTexts.computeIfAbsent(state, key -> ChatColor.translateAlternateColorCodes('&',
+            config.getString("states." + key, "&7" + key)));
     }
     
     /**
      * 获取角色名称
      */
     public String getRoleName(String role) {
-        return config.getString("roles." + role + ".name", role);
+        return roleNames.computeIfAbsent(role, key -> config.getString("roles." + key + ".name", key));
     }
     
     /**
      * 获取角色颜色
      */
     public String getRoleColor(String role) {
-        return ChatColor.translateAlternateColorCodes('&',
-            config.getString("roles." + role + ".color", "&7"));
+        return roleColors.computeIfAbsent(role, key -> ChatColor.translateAlternateColorCodes('&',
+            config.getString("roles." + key + ".color", "&7")));
     }
 }
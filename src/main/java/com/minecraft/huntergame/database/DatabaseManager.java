@@ -7,6 +7,9 @@ import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 数据库管理器
@@ -21,6 +24,15 @@ public class DatabaseManager {
     private HikariDataSource dataSource;
     private DatabaseType type;
     
+    // 只读连接池（仅SQLite WAL模式，其他情况读写共用dataSource）
+    private HikariDataSource readDataSource;
+    
+    // 数据库写线程，所有写入都在此线程上串行执行
+    private ScheduledExecutorService writeExecutor;
+    
+    // 玩家数据存储后端
+    private StorageBackend backend;
+    
     public DatabaseManager(HunterGame plugin) {
         this.plugin = plugin;
     }
@@ -55,14 +67,33 @@ public class DatabaseManager {
         switch (type) {
             case SQLITE:
                 connectSQLite();
+                backend = new JdbcStorageBackend(plugin, this);
                 break;
             case MYSQL:
                 connectMySQL();
+                backend = new JdbcStorageBackend(plugin, this);
+                break;
+            case FILE:
+                backend = new FileStorageBackend(plugin,
+                    plugin.getMainConfig().getRetainedHistorySeasons(),
+                    plugin.getMainConfig().getRetainedAppliedDeltas());
+                break;
+            case MEMORY:
+                plugin.getLogger().warning("使用内存存储，关闭服务器后段位数据将丢失");
+                backend = new MemoryStorageBackend(
+                    plugin.getMainConfig().getRetainedHistorySeasons(),
+                    plugin.getMainConfig().getRetainedAppliedDeltas());
                 break;
             default:
                 throw new SQLException("不支持的数据库类型: " + dbType);
         }
         
+        writeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HunterGame-DBWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
         plugin.getLogger().info("数据库已连接: " + type);
     }
     
@@ -70,13 +101,51 @@ public class DatabaseManager {
      * 连接SQLite
      */
     private void connectSQLite() {
+        String url = "jdbc:sqlite:" + plugin.getDataFolder() + "/data.db";
+        
+        // 写连接（SQLite同一时间只允许一个写入者）
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl("jdbc:sqlite:" + plugin.getDataFolder() + "/data.db");
+        config.setJdbcUrl(url);
         config.setDriverClassName("org.sqlite.JDBC");
         config.setMaximumPoolSize(1);
         config.setConnectionTestQuery("SELECT 1");
+        config.setPoolName("HunterGame-SQLite-Writer");
+        
+        if (!plugin.getMainConfig().isSQLiteWalEnabled()) {
+            dataSource = new HikariDataSource(config);
+            return;
+        }
         
+        // WAL模式：读操作读取已提交的快照，不会被写入阻塞
+        applySQLitePragmas(config);
+        config.addDataSourceProperty("journal_mode", "WAL");
         dataSource = new HikariDataSource(config);
+        
+        // 只读连接池
+        HikariConfig readConfig = new HikariConfig();
+        readConfig.setJdbcUrl(url);
+        readConfig.setDriverClassName("org.sqlite.JDBC");
+        readConfig.setMaximumPoolSize(Math.max(1, plugin.getMainConfig().getSQLiteReadPoolSize()));
+        readConfig.setMinimumIdle(1);
+        readConfig.setConnectionInitSql("PRAGMA query_only = ON");
+        readConfig.setConnectionTestQuery("SELECT 1");
+        readConfig.setPoolName("HunterGame-SQLite-Reader");
+        applySQLitePragmas(readConfig);
+        
+        readDataSource = new HikariDataSource(readConfig);
+        
+        plugin.getLogger().info("SQLite WAL模式已启用 (只读连接: " + readConfig.getMaximumPoolSize() + ")");
+    }
+    
+    /**
+     * 设置SQLite连接参数
+     */
+    private void applySQLitePragmas(HikariConfig config) {
+        config.addDataSourceProperty("synchronous", "NORMAL");
+        config.addDataSourceProperty("busy_timeout", "5000");
+        config.addDataSourceProperty("mmap_size", String.valueOf(plugin.getMainConfig().getSQLiteMmapSize()));
+        // 负数表示以KB为单位
+        config.addDataSourceProperty("cache_size", String.valueOf(-plugin.getMainConfig().getSQLiteCacheSizeKb()));
     }
     
     /**
@@ -90,7 +159,7 @@ public class DatabaseManager {
         String password = plugin.getMainConfig().getDatabasePassword();
         
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s?useSSL=false&characterEncoding=utf8&serverTimezone=UTC",
+        config.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s?useSSL=false&characterEncoding=utf8&serverTimezone=UTC&rewriteBatchedStatements=true",
             host, port, database));
         config.setUsername(username);
         config.setPassword(password);
@@ -123,10 +192,67 @@ public class DatabaseManager {
         return conn;
     }
     
+    /**
+     * 获取只读数据库连接
+     * SQLite WAL模式下来自只读连接池，其他情况与 {@link #getConnection()} 相同
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (readDataSource == null) {
+            return getConnection();
+        }
+        
+        if (readDataSource.isClosed()) {
+            throw new SQLException("数据库未连接");
+        }
+        
+        return readDataSource.getConnection();
+    }
+    
+    /**
+     * 初始化存储后端（建表或加载文件）
+     */
+    public void initializeStorage() throws SQLException {
+        backend.initialize();
+    }
+    
+    /**
+     * 获取玩家数据存储后端
+     */
+    public StorageBackend getBackend() {
+        return backend;
+    }
+    
+    /**
+     * 获取数据库写线程
+     */
+    public ScheduledExecutorService getWriteExecutor() {
+        return writeExecutor;
+    }
+    
     /**
      * 断开数据库连接
      */
     public void disconnect() {
+        if (writeExecutor != null) {
+            writeExecutor.shutdown();
+            try {
+                if (!writeExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    writeExecutor.shutdownNow();
+                }
+            } catch (InterruptedException ex) {
+                writeExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        if (backend != null) {
+            backend.close();
+        }
+        
+        if (readDataSource != null && !readDataSource.isClosed()) {
+            readDataSource.close();
+        }
+        
         if (dataSource != null && !dataSource.isClosed()) {
             try {
                 dataSource.close();
@@ -180,6 +306,49 @@ public class DatabaseManager {
                 ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
             
             stmt.execute(sql);
+            
+            // 创建赛季历史归档表
+            String historySql = type == DatabaseType.SQLITE ?
+                "CREATE TABLE IF NOT EXISTS player_season_history (" +
+                "uuid TEXT NOT NULL," +
+                "season_id INTEGER NOT NULL," +
+                "name TEXT NOT NULL," +
+                "score INTEGER DEFAULT 0," +
+                "current_rank TEXT DEFAULT 'UNRANKED'," +
+                "highest_rank TEXT DEFAULT 'UNRANKED'," +
+                "archived_at INTEGER," +
+                "PRIMARY KEY (uuid, season_id)" +
+                ")" :
+                "CREATE TABLE IF NOT EXISTS player_season_history (" +
+                "uuid VARCHAR(36) NOT NULL," +
+                "season_id INT NOT NULL," +
+                "name VARCHAR(16) NOT NULL," +
+                "score INT DEFAULT 0," +
+                "current_rank VARCHAR(32) DEFAULT 'UNRANKED'," +
+                "highest_rank VARCHAR(32) DEFAULT 'UNRANKED'," +
+                "archived_at BIGINT," +
+                "PRIMARY KEY (uuid, season_id)," +
+                "INDEX idx_season_score (season_id, score)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+            
+            stmt.execute(historySql);
+            
+            // 创建分数日志已应用记录表（重放去重）
+            String appliedSql = type == DatabaseType.SQLITE ?
+                "CREATE TABLE IF NOT EXISTS score_journal_applied (" +
+                "match_id TEXT NOT NULL," +
+                "uuid TEXT NOT NULL," +
+                "applied_at INTEGER," +
+                "PRIMARY KEY (match_id, uuid)" +
+                ")" :
+                "CREATE TABLE IF NOT EXISTS score_journal_applied (" +
+                "match_id VARCHAR(64) NOT NULL," +
+                "uuid VARCHAR(36) NOT NULL," +
+                "applied_at BIGINT," +
+                "PRIMARY KEY (match_id, uuid)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+            
+            stmt.execute(appliedSql);
             plugin.getLogger().info("数据表已创建");
         }
     }
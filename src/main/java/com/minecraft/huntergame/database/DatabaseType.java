@@ -8,5 +8,9 @@ package com.minecraft.huntergame.database;
  */
 public enum DatabaseType {
     SQLITE,
-    MYSQL
+    MYSQL,
+    // 嵌入式二进制文件存储
+    FILE,
+    // 内存存储（仅用于测试，数据不会持久化）
+    MEMORY
 }
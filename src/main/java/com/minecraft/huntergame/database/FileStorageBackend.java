@@ -0,0 +1,714 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.models.PlayerData;
+import com.minecraft.huntergame.rank.Rank;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * 嵌入式二进制文件存储后端
+ * 所有修改以记录帧追加到 storage.dat，每次写入以 COMMIT 帧结束并刷盘，
+ * 启动时扫描文件，在内存中建立 UUID -> 文件位置 的哈希索引，
+ * 未以 COMMIT 结束的尾部（写入中途崩溃）会被截断；
+ * 过期记录占用超过一半时重写文件压缩，超出保留范围的赛季历史和分数日志去重记录在压缩时丢弃
+ *
+ * 帧格式: [长度 int][类型 byte][内容][CRC32 int]，长度包含类型和内容
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class FileStorageBackend implements StorageBackend {
+
+    // 帧类型
+    private static final byte FRAME_PUT = 1;
+    private static final byte FRAME_DELETE = 2;
+    private static final byte FRAME_APPLIED = 3;
+    private static final byte FRAME_HISTORY = 4;
+    private static final byte FRAME_COMMIT = 5;
+
+    // 单帧最大长度
+    private static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+    // 文件小于该大小时不压缩
+    private static final long COMPACT_MIN_BYTES = 1024L * 1024L;
+
+    private final HunterGame plugin;
+    private final File file;
+
+    private FileChannel channel;
+
+    // 文件有效末尾
+    private long end;
+
+    // 过期记录占用的字节数
+    private long garbageBytes;
+
+    // UUID -> 最新记录
+    private final Map<UUID, Entry> index;
+
+    // 已应用的分数日志 (比赛ID:UUID -> 帧大小)，按应用顺序，超出上限时淘汰最早的记录
+    private final Map<String, Integer> appliedDeltas;
+
+    // 赛季历史帧的位置 (offset, size, 赛季ID)
+    private final List<long[]> historyFrames;
+
+    // 保留的赛季历史数量，0为永久保留
+    private final int historySeasons;
+
+    // 保留的分数日志去重记录数量
+    private final int maxAppliedDeltas;
+
+    // 已归档的最新赛季
+    private int newestHistorySeason;
+
+    // 赛季结算游标之后待结算的玩家（按UUID排序）
+    private Deque<UUID> rolloverQueue;
+    private String rolloverCursor;
+
+    public FileStorageBackend(HunterGame plugin, int historySeasons, int maxAppliedDeltas) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "storage" + File.separator + "storage.dat");
+        this.index = new HashMap<>();
+        this.appliedDeltas = new LinkedHashMap<>();
+        this.historyFrames = new ArrayList<>();
+        this.historySeasons = Math.max(0, historySeasons);
+        this.maxAppliedDeltas = Math.max(1, maxAppliedDeltas);
+    }
+
+    @Override
+    public synchronized void initialize() throws SQLException {
+        try {
+            File parent = file.getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IOException("无法创建目录: " + parent);
+            }
+
+            openAndScan();
+            plugin.getLogger().info("文件存储已加载: " + index.size() + " 名玩家 (" + end / 1024 + " KB)");
+        } catch (IOException ex) {
+            throw new SQLException("打开文件存储失败: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException ex) {
+            plugin.getLogger().warning("关闭文件存储失败: " + ex.getMessage());
+        }
+        channel = null;
+    }
+
+    @Override
+    public synchronized PlayerData load(UUID uuid) throws SQLException {
+        Entry entry = index.get(uuid);
+        if (entry == null) {
+            return null;
+        }
+
+        try {
+            return readPlayer(entry.offset, entry.size);
+        } catch (IOException ex) {
+            throw new SQLException("读取玩家数据失败: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public synchronized boolean exists(UUID uuid) {
+        return index.containsKey(uuid);
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) throws SQLException {
+        if (!index.containsKey(uuid)) {
+            return;
+        }
+
+        List<byte[]> frames = new ArrayList<>();
+        frames.add(frame(FRAME_DELETE, out -> writeUuid(out, uuid)));
+        append(frames);
+    }
+
+    @Override
+    public synchronized void saveBatch(Collection<PlayerData> batch, Collection<ScoreJournal.Record> applied) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> frames = new ArrayList<>(batch.size() + applied.size() + 1);
+        for (PlayerData data : batch) {
+            frames.add(frame(FRAME_PUT, out -> writePlayer(out, data)));
+        }
+        for (ScoreJournal.Record record : applied) {
+            frames.add(frame(FRAME_APPLIED, out -> writeApplied(out, record.getMatchId(), record.getUuid())));
+        }
+        append(frames);
+    }
+
+    @Override
+    public synchronized boolean replayScoreDelta(ScoreJournal.Record record) throws SQLException {
+        if (appliedDeltas.containsKey(appliedKey(record.getMatchId(), record.getUuid()))) {
+            return false;
+        }
+
+        PlayerData data = load(record.getUuid());
+        if (data == null) {
+            data = new PlayerData(record.getUuid(), "Unknown");
+        }
+        data.addScore(record.getDelta());
+
+        PlayerData updated = data;
+        List<byte[]> frames = new ArrayList<>(2);
+        frames.add(frame(FRAME_PUT, out -> writePlayer(out, updated)));
+        frames.add(frame(FRAME_APPLIED, out -> writeApplied(out, record.getMatchId(), record.getUuid())));
+        append(frames);
+        return true;
+    }
+
+    @Override
+    public synchronized List<PlayerData> getAllPlayerData() throws SQLException {
+        List<PlayerData> list = new ArrayList<>(index.size());
+        for (Entry entry : index.values()) {
+            list.add(loadEntry(entry));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized List<PlayerData> getTopRanks(int limit) throws SQLException {
+        return top(-1, limit);
+    }
+
+    @Override
+    public synchronized List<PlayerData> getTopRanksBySeason(int seasonId, int limit) throws SQLException {
+        return top(seasonId, limit);
+    }
+
+    @Override
+    public synchronized int getPlayerRanking(UUID uuid) {
+        Entry target = index.get(uuid);
+        if (target == null) {
+            return 0;
+        }
+
+        int rank = 1;
+        for (Entry entry : index.values()) {
+            if (entry.score > target.score) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public synchronized int countBeforeSeason(int seasonId) {
+        int count = 0;
+        for (Entry entry : index.values()) {
+            if (entry.seasonId < seasonId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized RolloverChunk rolloverSeasonChunk(int newSeasonId, String afterKey, int chunkSize)
+            throws SQLException {
+        // 游标与上一批不一致（首批或重新开始）时重建待结算队列
+        if (rolloverQueue == null || !afterKey.equals(rolloverCursor)) {
+            List<UUID> uuids = new ArrayList<>();
+            for (Map.Entry<UUID, Entry> entry : index.entrySet()) {
+                if (entry.getValue().seasonId < newSeasonId && entry.getKey().toString().compareTo(afterKey) > 0) {
+                    uuids.add(entry.getKey());
+                }
+            }
+            uuids.sort(Comparator.comparing(UUID::toString));
+            rolloverQueue = new ArrayDeque<>(uuids);
+        }
+
+        List<byte[]> frames = new ArrayList<>();
+        int processed = 0;
+        String lastKey = null;
+
+        while (processed < chunkSize && !rolloverQueue.isEmpty()) {
+            UUID uuid = rolloverQueue.pollFirst();
+            lastKey = uuid.toString();
+
+            Entry entry = index.get(uuid);
+            if (entry == null || entry.seasonId >= newSeasonId) {
+                continue;
+            }
+
+            PlayerData data = loadEntry(entry);
+            PlayerData archived = data.copy();
+            frames.add(frame(FRAME_HISTORY, out -> writePlayer(out, archived)));
+
+            data.resetSeason(newSeasonId);
+            frames.add(frame(FRAME_PUT, out -> writePlayer(out, data)));
+            processed++;
+        }
+
+        if (processed > 0) {
+            append(frames);
+        }
+
+        if (lastKey == null) {
+            rolloverQueue = null;
+            rolloverCursor = null;
+            return RolloverChunk.DONE;
+        }
+        rolloverCursor = lastKey;
+        return new RolloverChunk(processed, lastKey);
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 追加一组帧并以COMMIT结束，刷盘后更新索引
+     */
+    private void append(List<byte[]> frames) throws SQLException {
+        frames.add(frame(FRAME_COMMIT, out -> { }));
+
+        int total = 0;
+        for (byte[] frame : frames) {
+            total += frame.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] frame : frames) {
+            buffer.put(frame);
+        }
+        buffer.flip();
+
+        long start = end;
+        try {
+            long position = start;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new SQLException("写入文件存储失败: " + ex.getMessage(), ex);
+        }
+
+        long offset = start;
+        for (byte[] frame : frames) {
+            apply(decode(frame, offset));
+            offset += frame.length;
+        }
+        end = offset;
+
+        compactIfNeeded();
+    }
+
+    /**
+     * 过期记录占用超过一半时重写文件
+     */
+    private void compactIfNeeded() throws SQLException {
+        if (end < COMPACT_MIN_BYTES || garbageBytes * 2 < end) {
+            return;
+        }
+
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            long position = 0;
+            for (long[] history : historyFrames) {
+                position += copyFrame(out, history[0], (int) history[1], position);
+            }
+            for (Entry entry : index.values()) {
+                position += copyFrame(out, entry.offset, entry.size, position);
+            }
+            for (String key : appliedDeltas.keySet()) {
+                int split = key.lastIndexOf(':');
+                String matchId = key.substring(0, split);
+                UUID uuid = UUID.fromString(key.substring(split + 1));
+                position += out.write(ByteBuffer.wrap(frame(FRAME_APPLIED, o -> writeApplied(o, matchId, uuid))), position);
+            }
+            out.write(ByteBuffer.wrap(frame(FRAME_COMMIT, o -> { })), position);
+            out.force(true);
+        } catch (IOException ex) {
+            plugin.getLogger().warning("压缩文件存储失败: " + ex.getMessage());
+            return;
+        }
+
+        long before = end;
+        boolean replaced = false;
+        try {
+            channel.close();
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                replaced = true;
+            } catch (IOException ex) {
+                // 替换失败时继续使用原文件，本次写入已提交
+                plugin.getLogger().warning("替换压缩后的文件存储失败: " + ex.getMessage());
+                Files.deleteIfExists(temp.toPath());
+            } finally {
+                openAndScan();
+            }
+        } catch (IOException ex) {
+            throw new SQLException("重新打开文件存储失败: " + ex.getMessage(), ex);
+        }
+
+        if (replaced) {
+            plugin.debug("文件存储已压缩: " + before / 1024 + " KB -> " + end / 1024 + " KB");
+        }
+    }
+
+    private int copyFrame(FileChannel out, long offset, int size, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        readFully(offset, buffer);
+        buffer.flip();
+        return out.write(buffer, position);
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 打开文件并重建索引，截断未提交的尾部
+     */
+    private void openAndScan() throws IOException {
+        index.clear();
+        appliedDeltas.clear();
+        historyFrames.clear();
+        newestHistorySeason = 0;
+        garbageBytes = 0;
+
+        channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = channel.size();
+        long position = 0;
+        long committed = 0;
+        List<Frame> pending = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(4);
+
+        while (position + 4 <= size) {
+            header.clear();
+            readFully(position, header);
+            int length = header.getInt(0);
+            if (length <= 0 || length > MAX_FRAME_LENGTH || position + 4 + length + 4 > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(4 + length + 4);
+            readFully(position, body);
+            Frame frame = decode(body.array(), position);
+            if (frame == null) {
+                break;
+            }
+
+            pending.add(frame);
+            position += body.capacity();
+
+            if (frame.type == FRAME_COMMIT) {
+                for (Frame op : pending) {
+                    apply(op);
+                }
+                pending.clear();
+                committed = position;
+            }
+        }
+
+        if (committed < size) {
+            plugin.getLogger().warning("文件存储末尾有 " + (size - committed) + " 字节未提交的数据，已丢弃");
+            channel.truncate(committed);
+        }
+        end = committed;
+    }
+
+    private List<PlayerData> top(int seasonId, int limit) throws SQLException {
+        List<Entry> entries = new ArrayList<>();
+        for (Entry entry : index.values()) {
+            if (seasonId < 0 || entry.seasonId == seasonId) {
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> Integer.compare(b.score, a.score));
+
+        List<PlayerData> list = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            list.add(loadEntry(entries.get(i)));
+        }
+        return list;
+    }
+
+    private PlayerData loadEntry(Entry entry) throws SQLException {
+        try {
+            return readPlayer(entry.offset, entry.size);
+        } catch (IOException ex) {
+            throw new SQLException("读取玩家数据失败: " + ex.getMessage(), ex);
+        }
+    }
+
+    private PlayerData readPlayer(long offset, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        readFully(offset, buffer);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array(), 5, size - 9));
+        return readPlayer(in);
+    }
+
+    private void readFully(long position, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("文件意外结束");
+            }
+        }
+    }
+
+    // ==================== 编码 ====================
+
+    private interface FrameWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] frame(byte type, FrameWriter writer) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(96);
+            DataOutputStream out = new DataOutputStream(payload);
+            out.writeByte(type);
+            writer.write(out);
+            out.flush();
+            byte[] body = payload.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(body);
+
+            ByteBuffer buffer = ByteBuffer.allocate(4 + body.length + 4);
+            buffer.putInt(body.length);
+            buffer.put(body);
+            buffer.putInt((int) crc.getValue());
+            return buffer.array();
+        } catch (IOException ex) {
+            // 写入内存流不会失败
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * 解析帧，校验失败返回null
+     */
+    private static Frame decode(byte[] bytes, long offset) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int length = buffer.getInt();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 4, length);
+        if ((int) crc.getValue() != buffer.getInt(4 + length)) {
+            return null;
+        }
+
+        Frame frame = new Frame(bytes[4], offset, bytes.length);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 5, length - 1));
+            switch (frame.type) {
+                case FRAME_PUT:
+                    PlayerData data = readPlayer(in);
+                    frame.uuid = data.getUuid();
+                    frame.score = data.getScore();
+                    frame.seasonId = data.getSeasonId();
+                    break;
+                case FRAME_DELETE:
+                    frame.uuid = new UUID(in.readLong(), in.readLong());
+                    break;
+                case FRAME_APPLIED:
+                    String matchId = in.readUTF();
+                    frame.key = appliedKey(matchId, new UUID(in.readLong(), in.readLong()));
+                    break;
+                case FRAME_HISTORY:
+                    frame.seasonId = readPlayer(in).getSeasonId();
+                    break;
+                case FRAME_COMMIT:
+                    break;
+                default:
+                    return null;
+            }
+        } catch (IOException ex) {
+            return null;
+        }
+        return frame;
+    }
+
+    /**
+     * 将已提交的帧应用到索引
+     */
+    private void apply(Frame frame) {
+        switch (frame.type) {
+            case FRAME_PUT: {
+                Entry old = index.put(frame.uuid, new Entry(frame.offset, frame.size, frame.score, frame.seasonId));
+                if (old != null) {
+                    garbageBytes += old.size;
+                }
+                break;
+            }
+            case FRAME_DELETE: {
+                Entry old = index.remove(frame.uuid);
+                garbageBytes += frame.size + (old != null ? old.size : 0);
+                break;
+            }
+            case FRAME_APPLIED:
+                applyApplied(frame);
+                break;
+            case FRAME_HISTORY:
+                applyHistory(frame);
+                break;
+            case FRAME_COMMIT:
+                garbageBytes += frame.size;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 记录已应用的分数日志，超出上限时淘汰最早的记录（压缩时不再写入）
+     */
+    private void applyApplied(Frame frame) {
+        Integer old = appliedDeltas.remove(frame.key);
+        if (old != null) {
+            garbageBytes += old;
+        }
+        appliedDeltas.put(frame.key, frame.size);
+
+        Iterator<Integer> iterator = appliedDeltas.values().iterator();
+        while (appliedDeltas.size() > maxAppliedDeltas) {
+            garbageBytes += iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 记录赛季历史帧，只保留最近 historySeasons 个赛季（压缩时丢弃更早的历史）
+     */
+    private void applyHistory(Frame frame) {
+        if (historySeasons > 0 && frame.seasonId > newestHistorySeason) {
+            newestHistorySeason = frame.seasonId;
+            long oldest = newestHistorySeason - historySeasons;
+            historyFrames.removeIf(history -> {
+                if (history[2] > oldest) {
+                    return false;
+                }
+                garbageBytes += history[1];
+                return true;
+            });
+        }
+
+        if (historySeasons > 0 && frame.seasonId <= newestHistorySeason - historySeasons) {
+            garbageBytes += frame.size;
+            return;
+        }
+        historyFrames.add(new long[] {frame.offset, frame.size, frame.seasonId});
+    }
+
+    private static void writePlayer(DataOutputStream out, PlayerData data) throws IOException {
+        writeUuid(out, data.getUuid());
+        out.writeUTF(data.getName() != null ? data.getName() : "Unknown");
+        out.writeInt(data.getScore());
+        out.writeUTF(data.getCurrentRank().name());
+        out.writeUTF(data.getHighestRank().name());
+        out.writeInt(data.getSeasonId());
+        out.writeLong(data.getCreatedAt());
+        out.writeLong(data.getUpdatedAt());
+    }
+
+    private static PlayerData readPlayer(DataInputStream in) throws IOException {
+        UUID uuid = new UUID(in.readLong(), in.readLong());
+        PlayerData data = new PlayerData(uuid, in.readUTF());
+        data.setScore(in.readInt());
+        data.setCurrentRank(parseRank(in.readUTF()));
+        data.setHighestRank(parseRank(in.readUTF()));
+        data.setSeasonId(in.readInt());
+        data.setCreatedAt(in.readLong());
+        data.setUpdatedAt(in.readLong());
+        return data;
+    }
+
+    private static void writeApplied(DataOutputStream out, String matchId, UUID uuid) throws IOException {
+        out.writeUTF(matchId);
+        writeUuid(out, uuid);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static Rank parseRank(String name) {
+        try {
+            return Rank.valueOf(name);
+        } catch (IllegalArgumentException ex) {
+            return Rank.UNRANKED;
+        }
+    }
+
+    private static String appliedKey(String matchId, UUID uuid) {
+        return matchId + ":" + uuid;
+    }
+
+    /**
+     * 索引条目
+     */
+    private static final class Entry {
+        private final long offset;
+        private final int size;
+        private final int score;
+        private final int seasonId;
+
+        private Entry(long offset, int size, int score, int seasonId) {
+            this.offset = offset;
+            this.size = size;
+            this.score = score;
+            this.seasonId = seasonId;
+        }
+    }
+
+    /**
+     * 解析后的帧
+     */
+    private static final class Frame {
+        private final byte type;
+        private final long offset;
+        private final int size;
+        private UUID uuid;
+        private String key;
+        private int score;
+        private int seasonId;
+
+        private Frame(byte type, long offset, int size) {
+            this.type = type;
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.models.PlayerData;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC存储后端（SQLite / MySQL）
+ * 
+ * @author YourName
+ * @version 1.0.0
+ */
+public class JdbcStorageBackend implements StorageBackend {
+    
+    private final HunterGame plugin;
+    private final DatabaseManager databaseManager;
+    
+    public JdbcStorageBackend(HunterGame plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+    }
+    
+    @Override
+    public void initialize() throws SQLException {
+        databaseManager.createTables();
+    }
+    
+    @Override
+    public void close() {
+        // 连接池由DatabaseManager关闭
+    }
+    
+    /**
+     * 批量保存玩家数据
+     * 使用同一连接和预编译语句，在一个事务内 addBatch/executeBatch，
+     * 并在同一事务内记录已包含在数据中的分数日志
+     */
+    @Override
+    public void saveBatch(Collection<PlayerData> batch, Collection<ScoreJournal.Record> applied) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try (Connection conn = databaseManager.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = conn.prepareStatement(getUpsertSql())) {
+                for (PlayerData data : batch) {
+                    bindUpsert(stmt, data);
+                    stmt.addBatch();
+                }
+                
+                stmt.executeBatch();
+                
+                if (!applied.isEmpty()) {
+                    try (PreparedStatement mark = conn.prepareStatement(getMarkAppliedSql())) {
+                        long now = System.currentTimeMillis() / 1000;
+                        for (ScoreJournal.Record record : applied) {
+                            mark.setString(1, record.getMatchId());
+                            mark.setString(2, record.getUuid().toString());
+                            mark.setLong(3, now);
+                            mark.addBatch();
+                        }
+                        mark.executeBatch();
+                    }
+                }
+                
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+    
+    /**
+     * 重放一条分数日志记录
+     * 同一比赛ID和玩家只应用一次
+     * 
+     * @return 是否实际应用（已应用过返回false）
+     */
+    @Override
+    public boolean replayScoreDelta(ScoreJournal.Record record) throws SQLException {
+        try (Connection conn = databaseManager.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            
+            try {
+                try (PreparedStatement mark = conn.prepareStatement(getMarkAppliedSql())) {
+                    mark.setString(1, record.getMatchId());
+                    mark.setString(2, record.getUuid().toString());
+                    mark.setLong(3, System.currentTimeMillis() / 1000);
+                    
+                    if (mark.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                
+                PlayerData data = null;
+                try (PreparedStatement select = conn.prepareStatement("SELECT * FROM player_data WHERE uuid = ?")) {
+                    select.setString(1, record.getUuid().toString());
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (rs.next()) {
+                            data = parsePlayerData(rs);
+                        }
+                    }
+                }
+                
+                if (data == null) {
+                    data = new PlayerData(record.getUuid(), "Unknown");
+                }
+                data.addScore(record.getDelta());
+                
+                try (PreparedStatement stmt = conn.prepareStatement(getUpsertSql())) {
+                    bindUpsert(stmt, data);
+                    stmt.executeUpdate();
+                }
+                
+                conn.commit();
+                return true;
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+    
+    /**
+     * 获取分数日志已应用记录的插入语句（已存在时忽略）
+     */
+    private String getMarkAppliedSql() {
+        return (databaseManager.getType() == DatabaseType.SQLITE ? "INSERT OR IGNORE" : "INSERT IGNORE") +
+            " INTO score_journal_applied (match_id, uuid, applied_at) VALUES (?, ?, ?)";
+    }
+    
+    /**
+     * 获取插入或更新语句
+     */
+    private String getUpsertSql() {
+        return databaseManager.getType() == DatabaseType.SQLITE ?
+            "INSERT OR REPLACE INTO player_data " +
+            "(uuid, name, score, current_rank, highest_rank, season_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)" :
+            "INSERT INTO player_data " +
+            "(uuid, name, score, current_rank, highest_rank, season_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "name=?, score=?, current_rank=?, highest_rank=?, season_id=?, updated_at=?";
+    }
+    
+    /**
+     * 绑定插入或更新语句参数
+     */
+    private void bindUpsert(PreparedStatement stmt, PlayerData data) throws SQLException {
+        stmt.setString(1, data.getUuid().toString());
+        stmt.setString(2, data.getName());
+        stmt.setInt(3, data.getScore());
+        stmt.setString(4, data.getCurrentRank().name());
+        stmt.setString(5, data.getHighestRank().name());
+        stmt.setInt(6, data.getSeasonId());
+        stmt.setLong(7, data.getCreatedAt());
+        stmt.setLong(8, data.getUpdatedAt());
+        
+        if (databaseManager.getType() == DatabaseType.MYSQL) {
+            stmt.setString(9, data.getName());
+            stmt.setInt(10, data.getScore());
+            stmt.setString(11, data.getCurrentRank().name());
+            stmt.setString(12, data.getHighestRank().name());
+            stmt.setInt(13, data.getSeasonId());
+            stmt.setLong(14, data.getUpdatedAt());
+        }
+    }
+    
+    /**
+     * 加载玩家数据
+     */
+    @Override
+    public PlayerData load(UUID uuid) throws SQLException {
+        String sql = "SELECT * FROM player_data WHERE uuid = ?";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, uuid.toString());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return parsePlayerData(rs);
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * 删除玩家数据
+     */
+    @Override
+    public void delete(UUID uuid) throws SQLException {
+        String sql = "DELETE FROM player_data WHERE uuid = ?";
+        
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, uuid.toString());
+            stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * 检查玩家数据是否存在
+     */
+    @Override
+    public boolean exists(UUID uuid) throws SQLException {
+        String sql = "SELECT 1 FROM player_data WHERE uuid = ? LIMIT 1";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, uuid.toString());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * 获取段位排行榜（按分数排序）
+     */
+    @Override
+    public List<PlayerData> getTopRanks(int limit) throws SQLException {
+        String sql = "SELECT * FROM player_data ORDER BY score DESC LIMIT ?";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<PlayerData> list = new ArrayList<>();
+                while (rs.next()) {
+                    list.add(parsePlayerData(rs));
+                }
+                return list;
+            }
+        }
+    }
+    
+    /**
+     * 获取所有玩家数据（用于构建排行榜索引）
+     */
+    @Override
+    public List<PlayerData> getAllPlayerData() throws SQLException {
+        String sql = "SELECT * FROM player_data";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            List<PlayerData> list = new ArrayList<>();
+            while (rs.next()) {
+                list.add(parsePlayerData(rs));
+            }
+            return list;
+        }
+    }
+    
+    /**
+     * 获取当前赛季段位排行榜
+     */
+    @Override
+    public List<PlayerData> getTopRanksBySeason(int seasonId, int limit) throws SQLException {
+        String sql = "SELECT * FROM player_data WHERE season_id = ? ORDER BY score DESC LIMIT ?";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, seasonId);
+            stmt.setInt(2, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<PlayerData> list = new ArrayList<>();
+                while (rs.next()) {
+                    list.add(parsePlayerData(rs));
+                }
+                return list;
+            }
+        }
+    }
+    
+    /**
+     * 获取玩家在排行榜中的排名
+     */
+    @Override
+    public int getPlayerRanking(UUID uuid) throws SQLException {
+        String sql = "SELECT COUNT(*) + 1 as rank FROM player_data WHERE score > (SELECT score FROM player_data WHERE uuid = ?)";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, uuid.toString());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("rank");
+                }
+            }
+        }
+        
+        return 0;
+    }
+    
+    // ==================== 赛季结算 ====================
+    
+    /**
+     * 统计需要结算的玩家数（赛季ID早于指定赛季）
+     */
+    @Override
+    public int countBeforeSeason(int seasonId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM player_data WHERE season_id < ?";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, seasonId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    /**
+     * 结算一批旧赛季数据
+     * 从上一批的UUID上界之后按UUID取 chunkSize 个，每批只扫描本批范围
+     */
+    @Override
+    public RolloverChunk rolloverSeasonChunk(int newSeasonId, String afterKey, int chunkSize) throws SQLException {
+        String upper = findSeasonChunkUpperBound(newSeasonId, afterKey, chunkSize);
+        if (upper == null) {
+            return RolloverChunk.DONE;
+        }
+        return new RolloverChunk(rolloverSeasonRange(newSeasonId, afterKey, upper), upper);
+    }
+    
+    /**
+     * 查找下一批待结算数据的UUID上界
+     * 
+     * @param seasonId 新赛季ID
+     * @param afterUuid 上一批的上界（不包含），首批传空字符串
+     * @param chunkSize 每批数量
+     * @return 本批UUID上界（包含），没有剩余数据时返回null
+     */
+    private String findSeasonChunkUpperBound(int seasonId, String afterUuid, int chunkSize) throws SQLException {
+        String sql = "SELECT MAX(uuid) FROM (" +
+            "SELECT uuid FROM player_data WHERE season_id < ? AND uuid > ? ORDER BY uuid LIMIT ?" +
+            ") chunk";
+        
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, seasonId);
+            stmt.setString(2, afterUuid);
+            stmt.setInt(3, chunkSize);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+    
+    /**
+     * 结算一批玩家的赛季数据
+     * 在同一事务内将 (afterUuid, upperUuid] 范围内的旧赛季数据归档到 player_season_history，
+     * 然后重置分数和当前段位（保留历史最高段位）
+     * 
+     * @return 重置的玩家数
+     */
+    private int rolloverSeasonRange(int newSeasonId, String afterUuid, String upperUuid) throws SQLException {
+        long now = System.currentTimeMillis() / 1000;
+        String archiveSql = (databaseManager.getType() == DatabaseType.SQLITE ? "INSERT OR IGNORE" : "INSERT IGNORE") +
+            " INTO player_season_history " +
+            "(uuid, season_id, name, score, current_rank, highest_rank, archived_at) " +
+            "SELECT uuid, season_id, name, score, current_rank, highest_rank, ? FROM player_data " +
+            "WHERE season_id < ? AND uuid > ? AND uuid <= ?";
+        String resetSql = "UPDATE player_data SET score = 0, current_rank = 'UNRANKED', season_id = ?, updated_at = ? " +
+            "WHERE season_id < ? AND uuid > ? AND uuid <= ?";
+        
+        try (Connection conn = databaseManager.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement archive = conn.prepareStatement(archiveSql);
+                 PreparedStatement reset = conn.prepareStatement(resetSql)) {
+                
+                archive.setLong(1, now);
+                archive.setInt(2, newSeasonId);
+                archive.setString(3, afterUuid);
+                archive.setString(4, upperUuid);
+                archive.executeUpdate();
+                
+                reset.setInt(1, newSeasonId);
+                reset.setLong(2, now);
+                reset.setInt(3, newSeasonId);
+                reset.setString(4, afterUuid);
+                reset.setString(5, upperUuid);
+                int updated = reset.executeUpdate();
+                
+                conn.commit();
+                return updated;
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+    
+    /**
+     * 从ResultSet解析PlayerData
+     */
+    private PlayerData parsePlayerData(ResultSet rs) throws SQLException {
+        UUID uuid = UUID.fromString(rs.getString("uuid"));
+        String name = rs.getString("name");
+        
+        PlayerData data = new PlayerData(uuid, name);
+        data.setScore(rs.getInt("score"));
+        
+        // 解析段位枚举
+        try {
+            String currentRankStr = rs.getString("current_rank");
+            data.setCurrentRank(com.minecraft.huntergame.rank.Rank.valueOf(currentRankStr));
+        } catch (Exception e) {
+            data.setCurrentRank(com.minecraft.huntergame.rank.Rank.UNRANKED);
+        }
+        
+        try {
+            String highestRankStr = rs.getString("highest_rank");
+            data.setHighestRank(com.minecraft.huntergame.rank.Rank.valueOf(highestRankStr));
+        } catch (Exception e) {
+            data.setHighestRank(com.minecraft.huntergame.rank.Rank.UNRANKED);
+        }
+        
+        data.setSeasonId(rs.getInt("season_id"));
+        data.setCreatedAt(rs.getLong("created_at"));
+        data.setUpdatedAt(rs.getLong("updated_at"));
+        
+        return data;
+    }
+}
@@ -0,0 +1,241 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.models.PlayerData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 内存存储后端
+ * 数据只保存在内存中，关闭服务器后丢失，用于性能测试和调试；
+ * 赛季历史和分数日志去重记录按 database.retention 保留
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class MemoryStorageBackend implements StorageBackend {
+
+    // 玩家数据（保存副本，避免与缓存中的对象共享）
+    private final Map<UUID, PlayerData> players;
+
+    // 已应用的分数日志 (比赛ID + UUID)，按应用顺序，超出上限时淘汰最早的记录
+    private final Set<String> appliedDeltas;
+
+    // 赛季历史
+    private final List<PlayerData> seasonHistory;
+
+    // 保留的赛季历史数量，0为永久保留
+    private final int historySeasons;
+
+    // 保留的分数日志去重记录数量
+    private final int maxAppliedDeltas;
+
+    // 赛季结算游标之后待结算的玩家（按UUID排序）
+    private Deque<UUID> rolloverQueue;
+    private String rolloverCursor;
+
+    public MemoryStorageBackend(int historySeasons, int maxAppliedDeltas) {
+        this.players = new HashMap<>();
+        this.appliedDeltas = new LinkedHashSet<>();
+        this.seasonHistory = new ArrayList<>();
+        this.historySeasons = Math.max(0, historySeasons);
+        this.maxAppliedDeltas = Math.max(1, maxAppliedDeltas);
+    }
+
+    @Override
+    public void initialize() {
+        // 无需初始化
+    }
+
+    @Override
+    public synchronized void close() {
+        players.clear();
+        appliedDeltas.clear();
+        seasonHistory.clear();
+    }
+
+    @Override
+    public synchronized PlayerData load(UUID uuid) {
+        PlayerData data = players.get(uuid);
+        return data != null ? data.copy() : null;
+    }
+
+    @Override
+    public synchronized boolean exists(UUID uuid) {
+        return players.containsKey(uuid);
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) {
+        players.remove(uuid);
+    }
+
+    @Override
+    public synchronized void saveBatch(Collection<PlayerData> batch, Collection<ScoreJournal.Record> applied) {
+        for (PlayerData data : batch) {
+            players.put(data.getUuid(), data.copy());
+        }
+        for (ScoreJournal.Record record : applied) {
+            addApplied(record.getMatchId() + ":" + record.getUuid());
+        }
+    }
+
+    @Override
+    public synchronized boolean replayScoreDelta(ScoreJournal.Record record) {
+        if (!addApplied(record.getMatchId() + ":" + record.getUuid())) {
+            return false;
+        }
+
+        PlayerData data = players.get(record.getUuid());
+        if (data == null) {
+            data = new PlayerData(record.getUuid(), "Unknown");
+            players.put(data.getUuid(), data);
+        }
+        data.addScore(record.getDelta());
+        return true;
+    }
+
+    @Override
+    public synchronized List<PlayerData> getAllPlayerData() {
+        List<PlayerData> list = new ArrayList<>(players.size());
+        for (PlayerData data : players.values()) {
+            list.add(data.copy());
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized List<PlayerData> getTopRanks(int limit) {
+        return top(players.values(), -1, limit);
+    }
+
+    @Override
+    public synchronized List<PlayerData> getTopRanksBySeason(int seasonId, int limit) {
+        return top(players.values(), seasonId, limit);
+    }
+
+    @Override
+    public synchronized int getPlayerRanking(UUID uuid) {
+        PlayerData target = players.get(uuid);
+        if (target == null) {
+            return 0;
+        }
+
+        int rank = 1;
+        for (PlayerData data : players.values()) {
+            if (data.getScore() > target.getScore()) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public synchronized int countBeforeSeason(int seasonId) {
+        int count = 0;
+        for (PlayerData data : players.values()) {
+            if (data.getSeasonId() < seasonId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized RolloverChunk rolloverSeasonChunk(int newSeasonId, String afterKey, int chunkSize) {
+        // 游标与上一批不一致（首批或重新开始）时重建待结算队列
+        if (rolloverQueue == null || !afterKey.equals(rolloverCursor)) {
+            List<UUID> uuids = new ArrayList<>();
+            for (PlayerData data : players.values()) {
+                if (data.getSeasonId() < newSeasonId && data.getUuid().toString().compareTo(afterKey) > 0) {
+                    uuids.add(data.getUuid());
+                }
+            }
+            uuids.sort(Comparator.comparing(UUID::toString));
+            rolloverQueue = new ArrayDeque<>(uuids);
+        }
+
+        int processed = 0;
+        String lastKey = null;
+        while (processed < chunkSize && !rolloverQueue.isEmpty()) {
+            UUID uuid = rolloverQueue.pollFirst();
+            lastKey = uuid.toString();
+
+            PlayerData data = players.get(uuid);
+            if (data != null && data.getSeasonId() < newSeasonId) {
+                seasonHistory.add(data.copy());
+                data.resetSeason(newSeasonId);
+                processed++;
+            }
+        }
+
+        if (lastKey == null) {
+            rolloverQueue = null;
+            rolloverCursor = null;
+            pruneHistory(newSeasonId - 1);
+            return RolloverChunk.DONE;
+        }
+        rolloverCursor = lastKey;
+        return new RolloverChunk(processed, lastKey);
+    }
+
+    /**
+     * 记录已应用的分数日志，超出上限时淘汰最早的记录
+     *
+     * @return 是否为新记录
+     */
+    private boolean addApplied(String key) {
+        if (!appliedDeltas.add(key)) {
+            return false;
+        }
+
+        Iterator<String> iterator = appliedDeltas.iterator();
+        while (appliedDeltas.size() > maxAppliedDeltas) {
+            iterator.next();
+            iterator.remove();
+        }
+        return true;
+    }
+
+    /**
+     * 只保留最近 historySeasons 个赛季的历史
+     */
+    private void pruneHistory(int newestSeasonId) {
+        if (historySeasons > 0) {
+            int oldest = newestSeasonId - historySeasons;
+            seasonHistory.removeIf(data -> data.getSeasonId() <= oldest);
+        }
+    }
+
+    /**
+     * 按分数倒序取前N名
+     *
+     * @param seasonId 赛季ID，-1表示不限
+     */
+    static List<PlayerData> top(Collection<PlayerData> all, int seasonId, int limit) {
+        List<PlayerData> list = new ArrayList<>();
+        for (PlayerData data : all) {
+            if (seasonId < 0 || data.getSeasonId() == seasonId) {
+                list.add(data);
+            }
+        }
+
+        list.sort(Comparator.comparingInt(PlayerData::getScore).reversed());
+
+        List<PlayerData> result = new ArrayList<>(Math.min(limit, list.size()));
+        for (int i = 0; i < list.size() && i < limit; i++) {
+            result.add(list.get(i).copy());
+        }
+        return result;
+    }
+}
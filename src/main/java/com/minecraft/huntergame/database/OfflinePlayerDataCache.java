@@ -0,0 +1,153 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.models.PlayerData;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 离线玩家数据缓存
+ * 保存最近离开或预加载的玩家数据，按容量(LRU)和存活时间淘汰，
+ * 使游戏结算时不必在主线程访问数据库
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class OfflinePlayerDataCache {
+
+    private final int maxSize;
+    private final long expireMillis;
+
+    // 访问顺序的LinkedHashMap，超出容量时淘汰最久未访问的数据
+    private final LinkedHashMap<UUID, Entry> entries;
+
+    public OfflinePlayerDataCache(int maxSize, long expireMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.expireMillis = Math.max(1000L, expireMillis);
+        this.entries = new LinkedHashMap<UUID, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > OfflinePlayerDataCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 获取数据，过期返回null；命中时刷新存活时间
+     */
+    public synchronized PlayerData get(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (entry.expireAt <= now) {
+            entries.remove(uuid);
+            return null;
+        }
+
+        entry.expireAt = now + expireMillis;
+        return entry.data;
+    }
+
+    /**
+     * 放入数据
+     */
+    public synchronized void put(PlayerData data) {
+        if (data == null) {
+            return;
+        }
+
+        purgeExpired();
+        entries.put(data.getUuid(), new Entry(data, System.currentTimeMillis() + expireMillis));
+    }
+
+    /**
+     * 仅在不存在时放入数据
+     *
+     * @return 缓存中最终的数据
+     */
+    public synchronized PlayerData putIfAbsent(PlayerData data) {
+        PlayerData existing = get(data.getUuid());
+        if (existing != null) {
+            return existing;
+        }
+
+        put(data);
+        return data;
+    }
+
+    /**
+     * 移除并返回数据（玩家重新上线时提升到在线缓存）
+     */
+    public synchronized PlayerData remove(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry == null || entry.expireAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.data;
+    }
+
+    /**
+     * 是否缓存了未过期的数据（不刷新存活时间）
+     */
+    public synchronized boolean contains(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        return entry != null && entry.expireAt > System.currentTimeMillis();
+    }
+
+    /**
+     * 获取所有缓存数据的快照（包括未清除的过期数据）
+     */
+    public synchronized List<PlayerData> values() {
+        List<PlayerData> values = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            values.add(entry.data);
+        }
+        return values;
+    }
+
+    /**
+     * 获取缓存数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 清除过期数据
+     * 每次访问都会把条目移到末尾并刷新存活时间，因此头部总是最早过期的条目
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expireAt <= now) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        private final PlayerData data;
+        private long expireAt;
+
+        private Entry(PlayerData data, long expireAt) {
+            this.data = data;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.ServerMode;
+import com.minecraft.huntergame.models.PlayerData;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 玩家数据登录前预加载
+ * 在 AsyncPlayerPreLoginEvent 中加载玩家数据并暂存，
+ * 玩家加入时直接取出放入在线缓存；超时或失败时由加入流程回退到异步加载。
+ * 加载线程数量有上限，线程都在加载（数据库变慢）时直接放弃预加载，登录线程不再等待
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class PlayerDataPreloader {
+
+    // 暂存数据的最长保留时间（登录被拒绝或中途断开的玩家）
+    private static final long STAGING_EXPIRE_MILLIS = 60000L;
+
+    private final HunterGame plugin;
+    private final PlayerRepository playerRepository;
+    private final OfflinePlayerDataCache offlineCache;
+
+    // 暂存数据 (UUID -> 预加载结果)
+    private final Map<UUID, Staged> staging;
+
+    // 加载线程（数量有上限，不排队）
+    private final ThreadPoolExecutor loader;
+
+    // 等待超时(毫秒)
+    private final long timeoutMillis;
+
+    // 统计
+    private final AtomicLong preloads;
+    private final AtomicLong timeouts;
+    private final AtomicLong failures;
+    private final AtomicLong rejections;
+    private final AtomicLong joins;
+    private final AtomicLong hits;
+    private final AtomicLong redisHits;
+    private final AtomicLong totalLatencyNanos;
+    private final AtomicLong maxLatencyNanos;
+
+    public PlayerDataPreloader(HunterGame plugin, PlayerRepository playerRepository, OfflinePlayerDataCache offlineCache) {
+        this.plugin = plugin;
+        this.playerRepository = playerRepository;
+        this.offlineCache = offlineCache;
+        this.staging = new ConcurrentHashMap<>();
+        this.timeoutMillis = Math.max(100L, plugin.getMainConfig().getPreloadTimeout());
+        this.preloads = new AtomicLong();
+        this.timeouts = new AtomicLong();
+        this.failures = new AtomicLong();
+        this.rejections = new AtomicLong();
+        this.joins = new AtomicLong();
+        this.hits = new AtomicLong();
+        this.redisHits = new AtomicLong();
+        this.totalLatencyNanos = new AtomicLong();
+        this.maxLatencyNanos = new AtomicLong();
+
+        int threads = Math.max(1, plugin.getMainConfig().getPreloadThreads());
+        AtomicInteger threadId = new AtomicInteger();
+        this.loader = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "HunterGame-Preload-" + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.loader.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 预加载玩家数据（在登录线程调用，最多阻塞 timeoutMillis）
+     */
+    public void preload(UUID uuid) {
+        purgeExpired();
+
+        // Bungee模式下优先读取上一个服务器写入Redis的数据（加入时再与本服的离线缓存比较）
+        if (plugin.getStatsManager().isRedisCacheEnabled()) {
+            long start = System.nanoTime();
+            PlayerData remote = plugin.getRedisManager().loadPlayerDataCache(uuid);
+            if (remote != null) {
+                staging.put(uuid, new Staged(remote));
+                redisHits.incrementAndGet();
+                plugin.debug("从Redis缓存加载玩家数据: " + uuid + " ("
+                    + (System.nanoTime() - start) / 1000000.0 + "ms)");
+                return;
+            }
+        }
+
+        // 单服模式下最近离开的玩家直接从离线缓存取出；
+        // Bungee模式下玩家可能在其他服务器更新过数据，仍从数据库加载，加入时比较更新时间
+        if (plugin.getServerMode() != ServerMode.BUNGEE) {
+            PlayerData cached = offlineCache.remove(uuid);
+            if (cached != null) {
+                staging.put(uuid, new Staged(cached));
+                return;
+            }
+        }
+
+        long start = System.nanoTime();
+
+        CompletableFuture<PlayerData> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return playerRepository.load(uuid);
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex.getMessage(), ex);
+                }
+            }, loader);
+        } catch (RejectedExecutionException ex) {
+            // 加载线程都被慢查询占用，不再堆积线程，交给加入流程异步加载
+            rejections.incrementAndGet();
+            plugin.debug("预加载线程已满，跳过预加载: " + uuid);
+            return;
+        }
+        preloads.incrementAndGet();
+
+        try {
+            PlayerData data = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            staging.put(uuid, new Staged(data));
+            recordLatency(System.nanoTime() - start);
+        } catch (TimeoutException ex) {
+            timeouts.incrementAndGet();
+            future.cancel(false);
+            plugin.debug("预加载玩家数据超时: " + uuid + " (" + timeoutMillis + "ms)");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            failures.incrementAndGet();
+            plugin.getLogger().warning("预加载玩家数据失败: " + uuid + " - " + ex.getMessage());
+        }
+    }
+
+    /**
+     * 取出暂存的预加载结果
+     *
+     * @return 预加载结果；未预加载、已超时或已过期返回null
+     */
+    public Staged take(UUID uuid) {
+        joins.incrementAndGet();
+
+        Staged staged = staging.remove(uuid);
+        if (staged == null || staged.isExpired()) {
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return staged;
+    }
+
+    /**
+     * 是否暂存了未过期的预加载结果（不计入命中统计）
+     */
+    public boolean isStaged(UUID uuid) {
+        Staged staged = staging.get(uuid);
+        return staged != null && !staged.isExpired();
+    }
+
+    /**
+     * 丢弃暂存数据（登录被拒绝时）
+     */
+    public void discard(UUID uuid) {
+        Staged staged = staging.remove(uuid);
+        if (staged != null && staged.data != null) {
+            offlineCache.put(staged.data);
+        }
+    }
+
+    /**
+     * 清除过期的暂存数据
+     */
+    private void purgeExpired() {
+        staging.values().removeIf(Staged::isExpired);
+    }
+
+    private void recordLatency(long nanos) {
+        totalLatencyNanos.addAndGet(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * 获取预加载命中率(0-100)
+     */
+    public double getHitRate() {
+        long total = joins.get();
+        return total == 0 ? 0 : hits.get() * 100.0 / total;
+    }
+
+    /**
+     * 获取平均加载耗时(毫秒)
+     */
+    public double getAverageLatencyMillis() {
+        long completed = preloads.get() - timeouts.get() - failures.get();
+        return completed <= 0 ? 0 : totalLatencyNanos.get() / 1000000.0 / completed;
+    }
+
+    /**
+     * 获取统计摘要
+     */
+    public String getMetricsSummary() {
+        return String.format("命中率 %.1f%% (%d/%d), Redis命中 %d, 加载 %d 次, 超时 %d, 失败 %d, 线程已满 %d, "
+                + "平均 %.1fms, 最大 %.1fms",
+            getHitRate(), hits.get(), joins.get(), redisHits.get(), preloads.get(), timeouts.get(), failures.get(),
+            rejections.get(), getAverageLatencyMillis(), maxLatencyNanos.get() / 1000000.0);
+    }
+
+    /**
+     * 关闭加载线程
+     */
+    public void shutdown() {
+        loader.shutdownNow();
+        staging.clear();
+    }
+
+    /**
+     * 预加载结果
+     */
+    public static final class Staged {
+        private final PlayerData data;
+        private final long stagedAt;
+
+        private Staged(PlayerData data) {
+            this.data = data;
+            this.stagedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * 获取玩家数据，数据库中不存在时为null（新玩家）
+         */
+        public PlayerData getData() {
+            return data;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - stagedAt > STAGING_EXPIRE_MILLIS;
+        }
+    }
+}
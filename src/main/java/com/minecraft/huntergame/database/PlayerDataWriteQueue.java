@@ -0,0 +1,357 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.models.PlayerData;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * 玩家数据延迟写入队列
+ * 记录被修改的玩家数据，同一玩家的多次修改只保留最新一份，
+ * 由数据库写线程按数量和时间阈值批量写入数据库
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class PlayerDataWriteQueue {
+
+    private final HunterGame plugin;
+    private final PlayerRepository playerRepository;
+    private final ScoreJournal journal;
+
+    // 玩家是否有内存中的数据（有内存数据的玩家不能直接在数据库中重放，否则会被之后写入的整行数据覆盖）
+    private final Predicate<UUID> liveData;
+
+    // 待写入数据 (UUID -> 最新数据)
+    private final Map<UUID, PlayerData> dirty;
+
+    // 已计入分数但尚未写入数据库的分数日志 (玩家数据 -> 日志记录)，列表在玩家数据的锁内修改
+    private final Map<PlayerData, List<ScoreJournal.Record>> attached;
+
+    // 是否已提交提前刷新任务
+    private final AtomicBoolean flushScheduled;
+
+    // 单批最大写入条数
+    private final int batchSize;
+
+    // 定时刷新间隔(毫秒)
+    private final long flushInterval;
+
+    // 数据库写线程（由DatabaseManager持有）
+    private ScheduledExecutorService writer;
+    
+    // 定时刷新任务
+    private ScheduledFuture<?> flushTask;
+    
+    // 分数日志是否还有待重放的记录（数据库不可用、玩家数据加载失败或玩家仍有内存数据）
+    private volatile boolean replayRequired;
+
+    public PlayerDataWriteQueue(HunterGame plugin, PlayerRepository playerRepository, ScoreJournal journal,
+                                Predicate<UUID> liveData) {
+        this.plugin = plugin;
+        this.playerRepository = playerRepository;
+        this.journal = journal;
+        this.liveData = liveData;
+        this.dirty = new ConcurrentHashMap<>();
+        this.attached = new ConcurrentHashMap<>();
+        this.flushScheduled = new AtomicBoolean(false);
+        this.batchSize = Math.max(1, plugin.getMainConfig().getWriteBehindBatchSize());
+        this.flushInterval = Math.max(100L, plugin.getMainConfig().getWriteBehindFlushInterval());
+    }
+
+    /**
+     * 启动定时刷新
+     * 先在写线程上重放上次未写入数据库的分数日志，之后的写入排在重放之后
+     */
+    public void start() {
+        if (writer != null) {
+            return;
+        }
+
+        writer = plugin.getDatabaseManager().getWriteExecutor();
+        writer.execute(this::replayJournal);
+        flushTask = writer.scheduleWithFixedDelay(this::flushAll, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+
+        plugin.getLogger().info("玩家数据延迟写入已启动 (批量: " + batchSize + ", 间隔: " + flushInterval + "ms)");
+    }
+
+    /**
+     * 标记玩家数据待写入
+     * 达到批量阈值时提前触发一次刷新
+     */
+    public void markDirty(PlayerData data) {
+        if (data == null) {
+            return;
+        }
+
+        dirty.put(data.getUuid(), data);
+
+        if (dirty.size() >= batchSize && writer != null && !writer.isShutdown()
+                && flushScheduled.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                flushScheduled.set(false);
+                flushAll();
+            });
+        }
+    }
+
+    /**
+     * 记录已计入玩家数据分数的分数日志，写入包含该分数的快照后才确认
+     * 调用方需持有玩家数据的锁，并在同一个同步块中修改分数
+     */
+    public void attach(PlayerData data, ScoreJournal.Record record) {
+        if (record != null) {
+            attached.computeIfAbsent(data, key -> new ArrayList<>()).add(record);
+        }
+    }
+
+    /**
+     * 丢弃待写入的玩家数据（数据已过期，例如其他服务器已写入更新的数据）
+     * 已计入该数据的分数日志改为在数据库中重放
+     */
+    public void discard(PlayerData data) {
+        dirty.remove(data.getUuid(), data);
+
+        List<ScoreJournal.Record> records;
+        synchronized (data) {
+            records = attached.remove(data);
+        }
+        if (records != null) {
+            for (ScoreJournal.Record record : records) {
+                journal.orphan(record);
+            }
+            requestReplay();
+        }
+    }
+
+    /**
+     * 请求在下次刷新时重放分数日志（分数变化没能应用到玩家数据时调用）
+     */
+    public void requestReplay() {
+        replayRequired = true;
+    }
+
+    /**
+     * 获取待写入数据的快照
+     */
+    public List<PlayerData> getPending() {
+        return new ArrayList<>(dirty.values());
+    }
+
+    /**
+     * 在写线程上写完当前待写入的数据后，回到主线程执行回调
+     * 写线程不可用时直接执行回调
+     */
+    public void flushThen(Runnable callback) {
+        if (writer == null || writer.isShutdown()) {
+            callback.run();
+            return;
+        }
+
+        writer.execute(() -> {
+            flushAll();
+            plugin.getServer().getScheduler().runTask(plugin, callback);
+        });
+    }
+
+    /**
+     * 获取待写入数量
+     */
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * 写入所有待写入数据，写入失败时保留到下次刷新
+     */
+    private void flushAll() {
+        if (replayRequired) {
+            replayJournal();
+        }
+        
+        while (!dirty.isEmpty()) {
+            if (flushBatch() <= 0) {
+                break;
+            }
+        }
+        
+        // 批量刷盘分数日志
+        journal.flush();
+    }
+
+    /**
+     * 重放分数日志中需要重放的记录
+     * 数据库不可用或玩家仍有内存数据时在之后的每次刷新中重试
+     *
+     * @return 是否全部重放完成
+     */
+    private boolean replayJournal() {
+        List<ScoreJournal.Record> records = journal.getReplayable();
+        int applied = 0;
+        int deferred = 0;
+
+        for (ScoreJournal.Record record : records) {
+            // 内存中的数据之后会整行写入，此时在数据库中重放的分数会被覆盖，等内存数据写入并淘汰后再重放
+            UUID uuid = record.getUuid();
+            if (dirty.containsKey(uuid) || liveData.test(uuid)) {
+                deferred++;
+                continue;
+            }
+            
+            try {
+                if (playerRepository.replayScoreDelta(record)) {
+                    applied++;
+                }
+                journal.markApplied(java.util.Collections.singletonList(record));
+            } catch (SQLException ex) {
+                if (!replayRequired) {
+                    plugin.getLogger().warning("重放分数日志失败，将在数据库恢复后重试: " + ex.getMessage());
+                }
+                replayRequired = true;
+                return false;
+            }
+        }
+
+        journal.flush();
+        replayRequired = deferred > 0;
+
+        if (records.size() > deferred) {
+            plugin.getLogger().info("分数日志重放完成: " + applied + " 条已应用, "
+                + (records.size() - deferred - applied) + " 条此前已写入"
+                + (deferred > 0 ? ", " + deferred + " 条等待内存数据写入后重放" : ""));
+        }
+        return deferred == 0;
+    }
+
+    /**
+     * 写入一批数据
+     *
+     * @return 写入条数，失败返回-1
+     */
+    private int flushBatch() {
+        List<PlayerData> batch = new ArrayList<>(Math.min(batchSize, dirty.size()));
+        List<PlayerData> snapshots = new ArrayList<>(Math.min(batchSize, dirty.size()));
+        List<List<ScoreJournal.Record>> batchRecords = new ArrayList<>(Math.min(batchSize, dirty.size()));
+        List<ScoreJournal.Record> records = new ArrayList<>();
+        Iterator<Map.Entry<UUID, PlayerData>> iterator = dirty.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<UUID, PlayerData> entry = iterator.next();
+            // 只移除取出时的版本，期间被再次标记的数据留待下一批
+            if (dirty.remove(entry.getKey(), entry.getValue())) {
+                PlayerData data = entry.getValue();
+                batch.add(data);
+                
+                // 只确认已计入快照的分数日志（与 StatsManager 修改分数在同一个锁内）
+                synchronized (data) {
+                    snapshots.add(data.copy());
+                    List<ScoreJournal.Record> contained = attached.remove(data);
+                    if (contained == null) {
+                        contained = Collections.emptyList();
+                    }
+                    batchRecords.add(contained);
+                    records.addAll(contained);
+                }
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            playerRepository.saveBatch(snapshots, records);
+            journal.markApplied(records);
+            plugin.debug("批量保存玩家段位数据: " + batch.size() + " 条");
+            return batch.size();
+        } catch (SQLException ex) {
+            // 放回队列和分数日志，若期间已有更新的数据则以新数据为准
+            for (int i = 0; i < batch.size(); i++) {
+                PlayerData data = batch.get(i);
+                List<ScoreJournal.Record> failed = batchRecords.get(i);
+                if (!failed.isEmpty()) {
+                    synchronized (data) {
+                        List<ScoreJournal.Record> restored = new ArrayList<>(failed);
+                        List<ScoreJournal.Record> newer = attached.put(data, restored);
+                        if (newer != null) {
+                            restored.addAll(newer);
+                        }
+                    }
+                }
+                dirty.putIfAbsent(data.getUuid(), data);
+            }
+            plugin.getLogger().severe("批量保存玩家数据失败: " + ex.getMessage() + " (待写入: " + dirty.size() + ")");
+            return -1;
+        }
+    }
+
+    /**
+     * 停止定时刷新并在期限内写完剩余数据
+     * 剩余数据仍交给数据库写线程写入，保证与其他写操作串行
+     *
+     * @param timeoutMillis 最长等待时间(毫秒)
+     * @return 未能写入的数据条数
+     */
+    public int shutdown(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+
+        while (!dirty.isEmpty() && System.currentTimeMillis() < deadline) {
+            if (drainOnWriter(deadline) < 0) {
+                try {
+                    Thread.sleep(200L);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        int remaining = dirty.size();
+        if (remaining > 0) {
+            plugin.getLogger().severe("关闭时仍有 " + remaining + " 个玩家段位数据未能保存");
+        }
+        return remaining;
+    }
+
+    /**
+     * 在写线程上写入一批数据并等待完成，写线程不可用时在当前线程写入
+     *
+     * @return 写入条数，失败或超时返回-1
+     */
+    private int drainOnWriter(long deadline) {
+        if (writer == null || writer.isShutdown()) {
+            return flushBatch();
+        }
+
+        try {
+            Future<Integer> future = writer.submit(this::flushBatch);
+            return future.get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            return flushBatch();
+        } catch (ExecutionException | TimeoutException ex) {
+            return -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}
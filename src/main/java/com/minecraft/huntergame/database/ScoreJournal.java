@@ -0,0 +1,334 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.HunterGame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 分数变化日志
+ * 以内存映射文件追加记录每局比赛的分数变化 (uuid, 变化值, 比赛ID, 时间)，
+ * 记录随分数一起挂在玩家数据上，包含该记录的数据写入数据库后标记为已应用；
+ * 启动时读到的未应用记录，以及没能应用到玩家数据的记录（加载失败）需要重放，重放以比赛ID去重。
+ * 已应用的记录超过一半时把未应用记录移到文件开头，文件不会因个别未应用记录无限增长
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class ScoreJournal {
+
+    // 记录状态
+    private static final byte STATE_EMPTY = 0;
+    private static final byte STATE_PENDING = 1;
+    private static final byte STATE_APPLIED = 2;
+
+    // 比赛ID最大字节数
+    private static final int MATCH_ID_BYTES = 64;
+
+    // 记录长度: 状态(1) + UUID(16) + 变化值(4) + 时间(8) + 比赛ID长度(2) + 比赛ID(64)
+    private static final int RECORD_SIZE = 1 + 16 + 4 + 8 + 2 + MATCH_ID_BYTES;
+
+    // 初始文件大小（约一万条记录）
+    private static final int INITIAL_RECORDS = 10000;
+
+    // 开始压缩的最小已使用记录数
+    private static final int COMPACT_MIN_RECORDS = 1024;
+
+    private final HunterGame plugin;
+    private final File file;
+
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    // 下一条记录的写入位置
+    private int position;
+
+    // 未应用的记录（按写入顺序）
+    private final Map<Integer, Record> pending;
+
+    // 需要重放的记录（启动时读到的未应用记录和没能应用到玩家数据的记录）
+    private final Set<Record> replayable;
+
+    // 上次刷盘后是否有新写入
+    private boolean dirty;
+
+    public ScoreJournal(HunterGame plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "journal" + File.separator + "score-journal.dat");
+        this.pending = new LinkedHashMap<>();
+        this.replayable = new LinkedHashSet<>();
+    }
+
+    /**
+     * 打开日志文件并读取未应用的记录
+     */
+    public synchronized void open() throws IOException {
+        File parent = file.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录: " + parent);
+        }
+
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+
+        long length = Math.max(raf.length(), (long) INITIAL_RECORDS * RECORD_SIZE);
+        map(length - length % RECORD_SIZE);
+
+        // 扫描记录，遇到空记录即为末尾
+        position = 0;
+        while (position + RECORD_SIZE <= buffer.capacity()) {
+            byte state = buffer.get(position);
+            if (state == STATE_EMPTY) {
+                break;
+            }
+            if (state == STATE_PENDING) {
+                Record record = readRecord(position);
+                index(record);
+                replayable.add(record);
+            }
+            position += RECORD_SIZE;
+        }
+
+        if (!pending.isEmpty()) {
+            plugin.getLogger().warning("分数日志中有 " + pending.size() + " 条未写入数据库的记录，将进行重放");
+        }
+    }
+
+    /**
+     * 追加一条分数变化记录（仅写入内存映射，由 {@link #flush()} 批量刷盘）
+     */
+    public synchronized Record append(UUID uuid, int delta, String matchId) {
+        if (buffer == null) {
+            return null;
+        }
+
+        ensureCapacity();
+
+        byte[] matchBytes = matchId.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(matchBytes.length, MATCH_ID_BYTES);
+
+        int offset = position;
+        buffer.putLong(offset + 1, uuid.getMostSignificantBits());
+        buffer.putLong(offset + 9, uuid.getLeastSignificantBits());
+        buffer.putInt(offset + 17, delta);
+        buffer.putLong(offset + 21, System.currentTimeMillis());
+        buffer.putShort(offset + 29, (short) length);
+        for (int i = 0; i < length; i++) {
+            buffer.put(offset + 31 + i, matchBytes[i]);
+        }
+        // 最后写入状态，保证记录完整
+        buffer.put(offset, STATE_PENDING);
+
+        position += RECORD_SIZE;
+        dirty = true;
+
+        Record record = new Record(offset, uuid, delta, new String(matchBytes, 0, length, StandardCharsets.UTF_8));
+        index(record);
+        return record;
+    }
+
+    /**
+     * 获取需要重放的记录（按写入顺序）
+     */
+    public synchronized List<Record> getReplayable() {
+        return new ArrayList<>(replayable);
+    }
+
+    /**
+     * 标记记录需要重放（分数变化没能应用到玩家数据时调用）
+     */
+    public synchronized void orphan(Record record) {
+        if (record != null && pending.get(record.offset) == record) {
+            replayable.add(record);
+        }
+    }
+
+    /**
+     * 是否有未应用的记录
+     */
+    public synchronized boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * 标记记录已写入数据库
+     * 全部记录都已应用时从文件开头重新写入，已应用记录过多时压缩文件
+     */
+    public synchronized void markApplied(Collection<Record> records) {
+        if (buffer == null || records.isEmpty()) {
+            return;
+        }
+
+        for (Record record : records) {
+            // 已应用的记录不再随压缩移动，位置可能已被其他记录占用
+            if (pending.get(record.offset) != record) {
+                continue;
+            }
+
+            pending.remove(record.offset);
+            buffer.put(record.offset, STATE_APPLIED);
+            replayable.remove(record);
+            dirty = true;
+        }
+
+        if (pending.isEmpty() && position > 0) {
+            // 清空已使用部分，避免重新扫描到旧记录
+            for (int offset = 0; offset < position; offset += RECORD_SIZE) {
+                buffer.put(offset, STATE_EMPTY);
+            }
+            position = 0;
+        } else if (position >= COMPACT_MIN_RECORDS * RECORD_SIZE
+                && (long) pending.size() * RECORD_SIZE * 2 <= position) {
+            compact();
+        }
+    }
+
+    /**
+     * 将内存映射中的修改刷入磁盘
+     */
+    public synchronized void flush() {
+        if (buffer != null && dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * 刷盘并关闭日志文件
+     */
+    public synchronized void close() {
+        if (buffer == null) {
+            return;
+        }
+
+        flush();
+        buffer = null;
+        try {
+            channel.close();
+            raf.close();
+        } catch (IOException ex) {
+            plugin.getLogger().warning("关闭分数日志失败: " + ex.getMessage());
+        }
+
+        if (!pending.isEmpty()) {
+            plugin.getLogger().warning("分数日志中仍有 " + pending.size() + " 条记录未写入数据库，将在下次启动时重放");
+        }
+    }
+
+    // ==================== 内部方法 ====================
+
+    private void map(long size) throws IOException {
+        if (raf.length() < size) {
+            raf.setLength(size);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * 把未应用的记录按原顺序移到文件开头
+     * 先写入新位置再把原位置标记为已应用；中途崩溃时同一记录可能出现两次，重放时按比赛ID去重
+     */
+    private void compact() {
+        int used = position;
+        int target = 0;
+        Map<Integer, Record> moved = new LinkedHashMap<>();
+
+        for (Record record : pending.values()) {
+            if (record.offset != target) {
+                for (int i = 1; i < RECORD_SIZE; i++) {
+                    buffer.put(target + i, buffer.get(record.offset + i));
+                }
+                buffer.put(target, STATE_PENDING);
+                buffer.put(record.offset, STATE_APPLIED);
+                record.offset = target;
+            }
+            moved.put(target, record);
+            target += RECORD_SIZE;
+        }
+
+        for (int offset = target; offset < used; offset += RECORD_SIZE) {
+            buffer.put(offset, STATE_EMPTY);
+        }
+
+        pending.clear();
+        pending.putAll(moved);
+        position = target;
+        dirty = true;
+
+        plugin.debug("分数日志已压缩: " + used / RECORD_SIZE + " -> " + target / RECORD_SIZE + " 条记录");
+    }
+
+    /**
+     * 文件写满时扩容一倍
+     */
+    private void ensureCapacity() {
+        if (position + RECORD_SIZE <= buffer.capacity()) {
+            return;
+        }
+
+        try {
+            buffer.force();
+            map((long) buffer.capacity() * 2);
+        } catch (IOException ex) {
+            throw new IllegalStateException("分数日志扩容失败: " + ex.getMessage(), ex);
+        }
+    }
+
+    private Record readRecord(int offset) {
+        UUID uuid = new UUID(buffer.getLong(offset + 1), buffer.getLong(offset + 9));
+        int delta = buffer.getInt(offset + 17);
+        int length = Math.min(buffer.getShort(offset + 29), MATCH_ID_BYTES);
+        byte[] matchBytes = new byte[Math.max(0, length)];
+        for (int i = 0; i < matchBytes.length; i++) {
+            matchBytes[i] = buffer.get(offset + 31 + i);
+        }
+        return new Record(offset, uuid, delta, new String(matchBytes, StandardCharsets.UTF_8));
+    }
+
+    private void index(Record record) {
+        pending.put(record.offset, record);
+    }
+
+    /**
+     * 分数变化记录
+     */
+    public static final class Record {
+        // 文件中的位置（压缩时更新）
+        private int offset;
+        private final UUID uuid;
+        private final int delta;
+        private final String matchId;
+
+        private Record(int offset, UUID uuid, int delta, String matchId) {
+            this.offset = offset;
+            this.uuid = uuid;
+            this.delta = delta;
+            this.matchId = matchId;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public int getDelta() {
+            return delta;
+        }
+
+        public String getMatchId() {
+            return matchId;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.minecraft.huntergame.database;
+
+import com.minecraft.huntergame.models.PlayerData;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 玩家数据存储后端
+ * 由 database.type 选择实现：SQLITE/MYSQL 使用 {@link JdbcStorageBackend}，
+ * FILE 使用 {@link FileStorageBackend}，MEMORY 使用 {@link MemoryStorageBackend}。
+ * 所有方法可能在异步线程调用，写入方法只在数据库写线程上调用；
+ * 为兼容现有调用方，失败统一以 SQLException 抛出
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public interface StorageBackend {
+
+    /**
+     * 初始化存储（建表、打开文件等）
+     */
+    void initialize() throws SQLException;
+
+    /**
+     * 关闭存储
+     */
+    void close();
+
+    /**
+     * 加载玩家数据
+     *
+     * @return 玩家数据，不存在返回null
+     */
+    PlayerData load(UUID uuid) throws SQLException;
+
+    /**
+     * 检查玩家数据是否存在
+     */
+    boolean exists(UUID uuid) throws SQLException;
+
+    /**
+     * 删除玩家数据
+     */
+    void delete(UUID uuid) throws SQLException;
+
+    /**
+     * 批量保存玩家数据，并原子地记录本批数据已包含的分数日志
+     *
+     * @param applied 本批数据已包含的分数日志记录
+     */
+    void saveBatch(Collection<PlayerData> batch, Collection<ScoreJournal.Record> applied) throws SQLException;
+
+    /**
+     * 重放一条分数日志记录，同一比赛ID和玩家只应用一次
+     *
+     * @return 是否实际应用（已应用过返回false）
+     */
+    boolean replayScoreDelta(ScoreJournal.Record record) throws SQLException;
+
+    /**
+     * 获取所有玩家数据（用于构建排行榜索引）
+     */
+    List<PlayerData> getAllPlayerData() throws SQLException;
+
+    /**
+     * 获取分数最高的前N名
+     */
+    List<PlayerData> getTopRanks(int limit) throws SQLException;
+
+    /**
+     * 获取指定赛季分数最高的前N名
+     */
+    List<PlayerData> getTopRanksBySeason(int seasonId, int limit) throws SQLException;
+
+    /**
+     * 获取玩家排名（分数严格高于该玩家的人数 + 1）
+     *
+     * @return 排名，玩家不存在返回0
+     */
+    int getPlayerRanking(UUID uuid) throws SQLException;
+
+    /**
+     * 统计赛季ID早于指定赛季的玩家数
+     */
+    int countBeforeSeason(int seasonId) throws SQLException;
+
+    /**
+     * 结算一批旧赛季数据：归档到赛季历史并重置分数和当前段位（保留历史最高段位）
+     * 按UUID顺序从上一批的游标之后继续，反复调用直到返回 {@link RolloverChunk#isDone()} 即可完成全部结算
+     *
+     * @param newSeasonId 新赛季ID
+     * @param afterKey 上一批返回的游标，首批传空字符串
+     * @param chunkSize 每批数量
+     * @return 本批结算结果
+     */
+    RolloverChunk rolloverSeasonChunk(int newSeasonId, String afterKey, int chunkSize) throws SQLException;
+
+    /**
+     * 一批赛季结算的结果
+     */
+    final class RolloverChunk {
+
+        // 没有剩余数据
+        public static final RolloverChunk DONE = new RolloverChunk(0, null);
+
+        private final int count;
+        private final String lastKey;
+
+        public RolloverChunk(int count, String lastKey) {
+            this.count = count;
+            this.lastKey = lastKey;
+        }
+
+        /**
+         * 本批结算的玩家数（期间被其他写入改为新赛季的玩家不计入）
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * 本批的游标（本批最后一个UUID），作为下一批的 afterKey
+         */
+        public String getLastKey() {
+            return lastKey;
+        }
+
+        public boolean isDone() {
+            return lastKey == null;
+        }
+    }
+}
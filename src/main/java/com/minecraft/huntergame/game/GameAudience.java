@@ -0,0 +1,104 @@
+package com.minecraft.huntergame.game;
+
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.entity.Player;
+
+import java.util.function.Consumer;
+
+/**
+ * 游戏消息接收者
+ * 直接遍历玩家名册中已解析的 Player 对象（加入、离开和角色变化时随名册更新），
+ * 发送时不再按UUID查找玩家；Title 和 ActionBar 组件只构建一次后发送给所有接收者。
+ * 可以是全部玩家或某个角色的玩家。遍历期间不能修改游戏玩家或角色
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public final class GameAudience {
+
+    private final PlayerRoster roster;
+
+    // 角色，null表示全部玩家
+    private final PlayerRole role;
+
+    GameAudience(PlayerRoster roster, PlayerRole role) {
+        this.roster = roster;
+        this.role = role;
+    }
+
+    private int from() {
+        return role != null ? roster.regionStart(role) : 0;
+    }
+
+    private int to() {
+        return role != null ? roster.regionEnd(role) : roster.size();
+    }
+
+    /**
+     * 发送聊天消息
+     */
+    public void sendMessage(String message) {
+        for (int i = from(), end = to(); i < end; i++) {
+            Player player = roster.playerAt(i);
+            if (player != null) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    /**
+     * 发送 Title
+     */
+    public void sendTitle(String title, String subtitle, int fadeIn, int stay, int fadeOut) {
+        for (int i = from(), end = to(); i < end; i++) {
+            Player player = roster.playerAt(i);
+            if (player != null) {
+                player.sendTitle(title, subtitle, fadeIn, stay, fadeOut);
+            }
+        }
+    }
+
+    /**
+     * 发送 ActionBar（组件只转换一次）
+     */
+    public void sendActionBar(String message) {
+        int from = from();
+        int end = to();
+        if (from == end) {
+            return;
+        }
+
+        BaseComponent[] components = TextComponent.fromLegacyText(message);
+        for (int i = from; i < end; i++) {
+            Player player = roster.playerAt(i);
+            if (player != null) {
+                player.spigot().sendMessage(ChatMessageType.ACTION_BAR, components);
+            }
+        }
+    }
+
+    /**
+     * 对每个接收者执行操作
+     */
+    public void forEach(Consumer<Player> action) {
+        for (int i = from(), end = to(); i < end; i++) {
+            Player player = roster.playerAt(i);
+            if (player != null) {
+                action.accept(player);
+            }
+        }
+    }
+
+    /**
+     * 获取接收者人数
+     */
+    public int size() {
+        return to() - from();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -19,15 +19,14 @@ public class ManhuntGame {
     
     // 基础信息
     private final String gameId;
-    private final String worldName;
+    private String worldName;
     private GameState state;
     
     // 玩家管理
-    private final List<UUID> runners;          // 逃亡者列表
-    private final List<UUID> hunters;          // 猎人列表
-    private final List<UUID> spectators;       // 观战者列表
+    private final PlayerRoster roster;         // 玩家名册（按角色分区）
+    private final Map<PlayerRole, GameAudience> audiences; // 各角色的消息接收者
+    private final GameAudience audience;       // 全部玩家的消息接收者
     private final Map<UUID, Integer> respawnCounts;  // 逃亡者剩余复活次数
-    private final Map<UUID, PlayerRole> playerRoles; // 玩家角色映射
     
     // 游戏配置
     private final int maxRunners;
@@ -48,6 +47,9 @@ public class ManhuntGame {
     // 位置配置
     private Location spawnLocation;      // 出生点
     
+    // 状态版本号（玩家、角色、复活次数或游戏状态变化时递增）
+    private volatile int version;
+    
     /**
      * 构造方法（使用默认配置）
      */
@@ -58,11 +60,10 @@ public class ManhuntGame {
         this.state = GameState.WAITING;
         
         // 初始化玩家列表
-        this.runners = new ArrayList<>();
-        this.hunters = new ArrayList<>();
-        this.spectators = new ArrayList<>();
+        this.roster = new PlayerRoster();
+        this.audience = new GameAudience(roster, null);
+        this.audiences = createAudiences(roster);
         this.respawnCounts = new HashMap<>();
-        this.playerRoles = new HashMap<>();
         
         // 从配置加载游戏参数
         this.maxRunners = plugin.getManhuntConfig().getMaxRunners();
@@ -95,11 +96,10 @@ public class ManhuntGame {
         this.state = GameState.WAITING;
         
         // 初始化玩家列表
-        this.runners = new ArrayList<>();
-        this.hunters = new ArrayList<>();
-        this.spectators = new ArrayList<>();
+        this.roster = new PlayerRoster();
+        this.audience = new GameAudience(roster, null);
+        this.audiences = createAudiences(roster);
         this.respawnCounts = new HashMap<>();
-        this.playerRoles = new HashMap<>();
         
         // 使用传入的自定义参数
         this.maxRunners = maxRunners;
@@ -118,6 +118,14 @@ public class ManhuntGame {
         this.dragonDefeated = false;
     }
     
+    private static Map<PlayerRole, GameAudience> createAudiences(PlayerRoster roster) {
+        Map<PlayerRole, GameAudience> audiences = new EnumMap<>(PlayerRole.class);
+        for (PlayerRole role : PlayerRole.values()) {
+            audiences.put(role, new GameAudience(roster, role));
+        }
+        return audiences;
+    }
+    
     // ==================== 玩家管理 ====================
     
     /**
@@ -147,8 +155,9 @@ public class ManhuntGame {
         }
         
         // 暂时添加到观战者列表，等游戏开始时分配角色
-        spectators.add(uuid);
-        playerRoles.put(uuid, PlayerRole.SPECTATOR);
+        roster.setRole(uuid, PlayerRole.SPECTATOR);
+        roster.setPlayer(uuid, plugin.getServer().getPlayer(uuid));
+        version++;
         
         plugin.debug("Player added successfully (role will be assigned on start)");
         
@@ -184,8 +193,9 @@ public class ManhuntGame {
         }
         
         // 添加为观战者
-        spectators.add(uuid);
-        playerRoles.put(uuid, PlayerRole.SPECTATOR);
+        roster.setRole(uuid, PlayerRole.SPECTATOR);
+        roster.setPlayer(uuid, plugin.getServer().getPlayer(uuid));
+        version++;
         
         plugin.debug("Spectator added successfully");
         return true;
@@ -195,61 +205,45 @@ public class ManhuntGame {
      * 移除玩家
      */
     public void removePlayer(UUID uuid) {
-        runners.remove(uuid);
-        hunters.remove(uuid);
-        spectators.remove(uuid);
+        roster.remove(uuid);
         respawnCounts.remove(uuid);
-        playerRoles.remove(uuid);
+        version++;
     }
     
     /**
      * 检查玩家是否在游戏中
      */
     public boolean isPlayerInGame(UUID uuid) {
-        return runners.contains(uuid) || hunters.contains(uuid) || spectators.contains(uuid);
+        return roster.contains(uuid);
     }
     
     /**
      * 获取玩家角色
      */
     public PlayerRole getPlayerRole(UUID uuid) {
-        return playerRoles.get(uuid);
+        return roster.getRole(uuid);
     }
     
     /**
      * 设置玩家角色
      */
     public void setPlayerRole(UUID uuid, PlayerRole role) {
-        playerRoles.put(uuid, role);
-        
-        // 更新角色列表
-        runners.remove(uuid);
-        hunters.remove(uuid);
-        spectators.remove(uuid);
-        
-        switch (role) {
-            case RUNNER:
-                runners.add(uuid);
-                respawnCounts.put(uuid, respawnLimit);
-                break;
-            case HUNTER:
-                hunters.add(uuid);
-                break;
-            case SPECTATOR:
-                spectators.add(uuid);
-                break;
+        roster.setRole(uuid, role);
+        if (roster.getPlayer(uuid) == null) {
+            roster.setPlayer(uuid, plugin.getServer().getPlayer(uuid));
         }
+        if (role == PlayerRole.RUNNER) {
+            respawnCounts.put(uuid, respawnLimit);
+        }
+        version++;
     }
     
     /**
-     * 获取所有玩家
+     * 获取所有玩家（只读实时视图，按逃亡者、猎人、观战者顺序，不复制列表）
+     * 遍历期间不能修改玩家或角色，需要修改时先复制
      */
     public List<UUID> getAllPlayers() {
-        List<UUID> all = new ArrayList<>();
-        all.addAll(runners);
-        all.addAll(hunters);
-        all.addAll(spectators);
-        return all;
+        return roster.all();
     }
     
     /**
@@ -260,10 +254,10 @@ public class ManhuntGame {
     public int getPlayerCount() {
         if (state == GameState.WAITING || state == GameState.MATCHING) {
             // 等待/匹配状态下,所有玩家都在spectators列表中
-            return spectators.size();
+            return roster.count(PlayerRole.SPECTATOR);
         }
         // 游戏进行中,只计算实际参与的玩家
-        return runners.size() + hunters.size();
+        return roster.count(PlayerRole.RUNNER) + roster.count(PlayerRole.HUNTER);
     }
     
     // ==================== 复活管理 ====================
@@ -282,6 +276,7 @@ public class ManhuntGame {
         int current = respawnCounts.getOrDefault(uuid, 0);
         if (current > 0) {
             respawnCounts.put(uuid, current - 1);
+            version++;
         }
     }
     
@@ -306,6 +301,7 @@ public class ManhuntGame {
         }
         
         state = GameState.MATCHING;
+        version++;
         matchingStartTime = System.currentTimeMillis();
         matchingEndTime = matchingStartTime + (matchingTimeout * 1000L);
         
@@ -313,7 +309,7 @@ public class ManhuntGame {
         plugin.getLogger().info("游戏 " + gameId + " 进入匹配阶段");
         
         // 为所有玩家更新计分板和道具为匹配状态
-        for (UUID uuid : spectators) {
+        for (UUID uuid : roster.view(PlayerRole.SPECTATOR)) {
             org.bukkit.entity.Player player = plugin.getServer().getPlayer(uuid);
             if (player != null && player.isOnline()) {
                 // 更新计分板
@@ -340,6 +336,7 @@ public class ManhuntGame {
         }
         
         state = GameState.PREPARING;
+        version++;
         startTime = System.currentTimeMillis();
         prepareEndTime = startTime + (prepareTime * 1000L);
         
@@ -356,6 +353,7 @@ public class ManhuntGame {
         }
         
         state = GameState.PLAYING;
+        version++;
         plugin.getLogger().info("游戏 " + gameId + " 正式开始");
     }
     
@@ -368,6 +366,7 @@ public class ManhuntGame {
         }
         
         state = GameState.ENDING;
+        version++;
         plugin.getLogger().info("游戏 " + gameId + " 结束");
     }
     
@@ -407,29 +406,32 @@ public class ManhuntGame {
     }
     
     /**
-     * 获取存活的逃亡者
+     * 获取存活的逃亡者（只读实时视图）
+     * 被淘汰的逃亡者会转为观战者，因此逃亡者分区即为存活的逃亡者
      */
     public List<UUID> getAliveRunners() {
-        List<UUID> alive = new ArrayList<>();
-        for (UUID uuid : runners) {
-            if (!spectators.contains(uuid)) {
-                alive.add(uuid);
-            }
-        }
-        return alive;
+        return roster.view(PlayerRole.RUNNER);
     }
     
     /**
-     * 获取存活的猎人（新增）
+     * 获取存活的猎人（只读实时视图）
      */
     public List<UUID> getAliveHunters() {
-        List<UUID> alive = new ArrayList<>();
-        for (UUID uuid : hunters) {
-            if (!spectators.contains(uuid)) {
-                alive.add(uuid);
-            }
-        }
-        return alive;
+        return roster.view(PlayerRole.HUNTER);
+    }
+    
+    /**
+     * 获取角色人数（不创建列表）
+     */
+    public int getRoleCount(PlayerRole role) {
+        return roster.count(role);
+    }
+    
+    /**
+     * 获取本局比赛ID（游戏ID + 开始时间），同一游戏的每一局都不同
+     */
+    public String getMatchId() {
+        return gameId + "-" + startTime;
     }
     
     /**
@@ -530,24 +532,49 @@ public class ManhuntGame {
         return worldName;
     }
     
+    /**
+     * 设置游戏世界（开始游戏时从世界池租用世界后调用）
+     */
+    public void setWorldName(String worldName) {
+        this.worldName = worldName;
+    }
+    
     public GameState getState() {
         return state;
     }
     
     public void setState(GameState state) {
         this.state = state;
+        version++;
     }
     
+    /**
+     * 获取状态版本号
+     * 玩家、角色、复活次数或游戏状态变化时递增，可用于判断缓存是否过期
+     */
+    public int getVersion() {
+        return version;
+    }
+    
+    /**
+     * 获取逃亡者（只读实时视图）
+     */
     public List<UUID> getRunners() {
-        return new ArrayList<>(runners);
+        return roster.view(PlayerRole.RUNNER);
     }
     
+    /**
+     * 获取猎人（只读实时视图）
+     */
     public List<UUID> getHunters() {
-        return new ArrayList<>(hunters);
+        return roster.view(PlayerRole.HUNTER);
     }
     
+    /**
+     * 获取观战者（只读实时视图）
+     */
     public List<UUID> getSpectators() {
-        return new ArrayList<>(spectators);
+        return roster.view(PlayerRole.SPECTATOR);
     }
     
     public boolean isDragonDefeated() {
@@ -586,6 +613,18 @@ public class ManhuntGame {
         return maxGameTime;
     }
     
+    /**
+     * 获取游戏时间结束时间戳
+     * 
+     * @return 时间戳，未开始或无时间限制返回0
+     */
+    public long getGameEndTime() {
+        if (maxGameTime == 0 || startTime == 0) {
+            return 0;
+        }
+        return startTime + maxGameTime * 1000L;
+    }
+    
     public int getMatchingTimeout() {
         return matchingTimeout;
     }
@@ -632,11 +671,20 @@ public class ManhuntGame {
      * 向游戏中的所有玩家广播消息
      */
     public void broadcast(String message) {
-        for (UUID uuid : getAllPlayers()) {
-            Player player = plugin.getServer().getPlayer(uuid);
-            if (player != null && player.isOnline()) {
-                player.sendMessage(message);
-            }
-        }
+        audience.sendMessage(message);
+    }
+    
+    /**
+     * 获取全部玩家的消息接收者
+     */
+    public GameAudience getAudience() {
+        return audience;
+    }
+    
+    /**
+     * 获取指定角色的消息接收者
+     */
+    public GameAudience getAudience(PlayerRole role) {
+        return audiences.get(role);
     }
 }
@@ -0,0 +1,275 @@
+package com.minecraft.huntergame.game;
+
+import org.bukkit.entity.Player;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * 游戏玩家名册
+ * 所有玩家保存在一个按角色分区的数组中（逃亡者 | 猎人 | 观战者），
+ * 并维护 UUID -> 下标 的映射。查询角色、判断成员和计数都是 O(1)，
+ * 角色视图直接读取分区，不复制列表。
+ * 每个玩家同时保存加入时解析的 Player 对象，供 {@link GameAudience} 发送消息时直接使用
+ * 视图是实时的：遍历期间修改名册会导致遍历结果不确定，需要修改时先复制
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+final class PlayerRoster {
+
+    // 分区顺序
+    private static final PlayerRole[] REGIONS = {PlayerRole.RUNNER, PlayerRole.HUNTER, PlayerRole.SPECTATOR};
+
+    private UUID[] members;
+    private Player[] players;
+
+    // 第i个分区为 [start[i], start[i+1])，start[REGIONS.length] 为总人数
+    private final int[] start;
+
+    private final Map<UUID, Integer> slots;
+
+    // 只读视图（每个名册只创建一次）
+    private final List<UUID>[] views;
+    private final List<UUID> allView;
+
+    @SuppressWarnings("unchecked")
+    PlayerRoster() {
+        this.members = new UUID[8];
+        this.players = new Player[8];
+        this.start = new int[REGIONS.length + 1];
+        this.slots = new HashMap<>();
+        this.views = new List[REGIONS.length];
+        for (int i = 0; i < REGIONS.length; i++) {
+            views[i] = new RegionView(i, i + 1);
+        }
+        this.allView = new RegionView(0, REGIONS.length);
+    }
+
+    private static int regionOf(PlayerRole role) {
+        switch (role) {
+            case RUNNER:
+                return 0;
+            case HUNTER:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    /**
+     * 添加玩家或修改玩家角色
+     */
+    void setRole(UUID uuid, PlayerRole role) {
+        Integer slot = slots.get(uuid);
+        int region = regionOf(role);
+        Player player = null;
+        if (slot != null) {
+            if (regionAt(slot) == region) {
+                return;
+            }
+            player = players[slot];
+            removeAt(slot);
+        }
+        insert(uuid, region);
+        if (player != null) {
+            players[slots.get(uuid)] = player;
+        }
+    }
+
+    /**
+     * 设置玩家对象（加入游戏时解析，玩家离开时随名册条目一起移除）
+     */
+    void setPlayer(UUID uuid, Player player) {
+        Integer slot = slots.get(uuid);
+        if (slot != null) {
+            players[slot] = player;
+        }
+    }
+
+    /**
+     * 获取玩家对象
+     *
+     * @return 玩家，不在名册中或未解析返回null
+     */
+    Player getPlayer(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        return slot != null ? players[slot] : null;
+    }
+
+    /**
+     * 获取指定位置的玩家对象
+     */
+    Player playerAt(int slot) {
+        return players[slot];
+    }
+
+    /**
+     * 获取角色分区的起始位置
+     */
+    int regionStart(PlayerRole role) {
+        return start[regionOf(role)];
+    }
+
+    /**
+     * 获取角色分区的结束位置（不包含）
+     */
+    int regionEnd(PlayerRole role) {
+        return start[regionOf(role) + 1];
+    }
+
+    /**
+     * 移除玩家
+     *
+     * @return 玩家是否在名册中
+     */
+    boolean remove(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        if (slot == null) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * 获取玩家角色
+     *
+     * @return 角色，不在名册中返回null
+     */
+    PlayerRole getRole(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        return slot != null ? REGIONS[regionAt(slot)] : null;
+    }
+
+    boolean contains(UUID uuid) {
+        return slots.containsKey(uuid);
+    }
+
+    /**
+     * 获取角色人数
+     */
+    int count(PlayerRole role) {
+        int region = regionOf(role);
+        return start[region + 1] - start[region];
+    }
+
+    int size() {
+        return start[REGIONS.length];
+    }
+
+    /**
+     * 获取角色的只读实时视图
+     */
+    List<UUID> view(PlayerRole role) {
+        return views[regionOf(role)];
+    }
+
+    /**
+     * 获取所有玩家的只读实时视图（按逃亡者、猎人、观战者顺序）
+     */
+    List<UUID> all() {
+        return allView;
+    }
+
+    private int regionAt(int slot) {
+        int region = 0;
+        while (slot >= start[region + 1]) {
+            region++;
+        }
+        return region;
+    }
+
+    /**
+     * 在分区末尾插入：后续每个分区把第一个元素移到末尾，空位逐段前移
+     */
+    private void insert(UUID uuid, int region) {
+        int size = size();
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+            players = Arrays.copyOf(players, size * 2);
+        }
+
+        int hole = size;
+        start[REGIONS.length]++;
+        for (int r = REGIONS.length - 1; r > region; r--) {
+            int first = start[r];
+            move(first, hole);
+            hole = first;
+            start[r]++;
+        }
+        members[hole] = uuid;
+        players[hole] = null;
+        slots.put(uuid, hole);
+    }
+
+    /**
+     * 移除指定位置：用分区最后一个元素填补，空位逐段后移到数组末尾
+     */
+    private void removeAt(int slot) {
+        int region = regionAt(slot);
+        slots.remove(members[slot]);
+
+        int hole = slot;
+        for (int r = region; r < REGIONS.length; r++) {
+            int last = start[r + 1] - 1;
+            move(last, hole);
+            hole = last;
+            start[r + 1]--;
+        }
+        members[hole] = null;
+        players[hole] = null;
+    }
+
+    private void move(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        UUID uuid = members[from];
+        members[to] = uuid;
+        players[to] = players[from];
+        slots.put(uuid, to);
+    }
+
+    /**
+     * 分区只读视图
+     */
+    private final class RegionView extends AbstractList<UUID> implements RandomAccess {
+        private final int fromRegion;
+        private final int toRegion;
+
+        private RegionView(int fromRegion, int toRegion) {
+            this.fromRegion = fromRegion;
+            this.toRegion = toRegion;
+        }
+
+        @Override
+        public UUID get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return members[start[fromRegion] + index];
+        }
+
+        @Override
+        public int size() {
+            return start[toRegion] - start[fromRegion];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer slot = slots.get(o);
+            return slot != null && slot >= start[fromRegion] && slot < start[toRegion];
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return contains(o) ? slots.get(o) - start[fromRegion] : -1;
+        }
+    }
+}
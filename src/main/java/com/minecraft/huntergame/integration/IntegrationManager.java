@@ -47,6 +47,7 @@ public class IntegrationManager {
                 try {
                     placeholderAPIIntegration = new PlaceholderAPIIntegration(plugin);
                     if (placeholderAPIIntegration.register()) {
+                        placeholderAPIIntegration.startNetworkStatsTask();
                         plugin.getLogger().info("已集成 PlaceholderAPI，提供 60+ 个变量支持");
                         plugin.getLogger().info("变量前缀: %huntergame_<变量名>%");
                     } else {
@@ -90,6 +91,7 @@ public class IntegrationManager {
     public void unregisterAll() {
         // 注销 PlaceholderAPI
         if (placeholderAPIIntegration != null) {
+            placeholderAPIIntegration.shutdown();
             placeholderAPIIntegration.unregister();
             plugin.getLogger().info("已注销 PlaceholderAPI 集成");
         }
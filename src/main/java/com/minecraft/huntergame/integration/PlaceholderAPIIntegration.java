@@ -2,39 +2,68 @@ package com.minecraft.huntergame.integration;
 
 import com.minecraft.huntergame.HunterGame;
 import com.minecraft.huntergame.config.ServerType;
+import com.minecraft.huntergame.game.GameState;
+import com.minecraft.huntergame.game.ManhuntGame;
 import com.minecraft.huntergame.game.PlayerRole;
 import com.minecraft.huntergame.models.PlayerData;
 import com.minecraft.huntergame.util.TimeUtil;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * PlaceholderAPI 集成
  * 提供游戏相关的变量支持
  * 
+ * 变量通过解析表直接定位到解析器；玩家相关的值保存在按玩家缓存的快照中，
+ * 只有段位数据或所在游戏发生变化时才重新计算，请求过程中不访问数据库或Redis
+ * 
  * @author YourName
  * @version 2.0.0 - Manhunt模式
  */
 public class PlaceholderAPIIntegration extends PlaceholderExpansion {
     
+    // 排行榜变量数量
+    private static final int TOP_RANK_SIZE = 10;
+    
     private final HunterGame plugin;
     
-    // 排行榜缓存
-    private final Map<String, List<PlayerData>> leaderboardCache;
-    private long lastCacheUpdate;
-    private static final long CACHE_DURATION = 5 * 60 * 1000; // 5分钟
+    // 变量解析表 (变量名 -> 解析器)
+    private final Map<String, Resolver> resolvers;
+    
+    // 在线玩家变量快照
+    private final Map<UUID, Snapshot> snapshots;
+    
+    // 排行榜快照
+    private volatile List<PlayerData> topRanks;
+    private volatile long topRanksVersion;
+    
+    // 跨服务器统计（由异步任务刷新）
+    private volatile String totalServers;
+    private volatile String availableServers;
+    private volatile String totalPlayers;
+    private BukkitTask networkStatsTask;
     
     public PlaceholderAPIIntegration(HunterGame plugin) {
         this.plugin = plugin;
-        this.leaderboardCache = new ConcurrentHashMap<>();
-        this.lastCacheUpdate = 0;
+        this.resolvers = new HashMap<>();
+        this.snapshots = new ConcurrentHashMap<>();
+        this.topRanks = Collections.emptyList();
+        this.topRanksVersion = -1;
+        this.totalServers = "1";
+        this.availableServers = "0";
+        this.totalPlayers = null;
+        
+        registerResolvers();
     }
     
     @Override
@@ -62,8 +91,10 @@ public class PlaceholderAPIIntegration extends PlaceholderExpansion {
     
     @Override
     public String onRequest(OfflinePlayer offlinePlayer, @NotNull String params) {
-        // 更新排行榜缓存
-        updateLeaderboardCache();
+        Resolver resolver = resolvers.get(params);
+        if (resolver == null) {
+            return null; // 未知占位符
+        }
         
         // 检查玩家是否在线
         if (offlinePlayer == null || !offlinePlayer.isOnline()) {
@@ -75,490 +106,422 @@ public class PlaceholderAPIIntegration extends PlaceholderExpansion {
             return null;
         }
         
-        // ==================== 玩家段位变量 ====================
-        PlayerData data = plugin.getStatsManager().getPlayerData(player);
-        
-        // 当前段位
-        if (params.equals("rank") || params.equals("current_rank")) {
-            return data != null ? data.getCurrentRank().getDisplayName() : "未定级";
-        }
-        
-        // 当前段位颜色
-        if (params.equals("rank_color") || params.equals("current_rank_color")) {
-            return data != null ? data.getCurrentRank().getColor().toString() : "&7";
-        }
-        
-        // 当前段位颜色（MiniMessage格式）
-        if (params.equals("rank_color_mm") || params.equals("current_rank_color_mm")) {
-            return data != null ? data.getCurrentRank().getMiniMessageColor() : "<gray>";
-        }
-        
-        // 当前分数
-        if (params.equals("score") || params.equals("rank_score")) {
-            return data != null ? String.valueOf(data.getScore()) : "0";
-        }
-        
-        // 历史最高段位
-        if (params.equals("highest_rank")) {
-            return data != null ? data.getHighestRank().getDisplayName() : "未定级";
-        }
-        
-        // 历史最高段位颜色
-        if (params.equals("highest_rank_color")) {
-            return data != null ? data.getHighestRank().getColor().toString() : "&7";
-        }
-        
-        // 历史最高段位颜色（MiniMessage格式）
-        if (params.equals("highest_rank_color_mm")) {
-            return data != null ? data.getHighestRank().getMiniMessageColor() : "<gray>";
-        }
-        
-        // 当前赛季
-        if (params.equals("season") || params.equals("season_id")) {
-            return data != null ? String.valueOf(data.getSeasonId()) : "1";
-        }
-        
-        // 到下一段位所需分数
-        if (params.equals("score_to_next") || params.equals("score_to_next_rank")) {
-            if (data != null) {
-                int scoreToNext = data.getScoreToNextRank();
-                return scoreToNext > 0 ? String.valueOf(scoreToNext) : "已满级";
-            }
-            return "0";
-        }
-        
-        // 玩家排名
-        if (params.equals("ranking") || params.equals("rank_position")) {
-            int ranking = plugin.getStatsManager().getPlayerRanking(player.getUniqueId());
-            return ranking > 0 ? String.valueOf(ranking) : "未上榜";
-        }
-        
-        // ==================== 当前游戏状态变量 ====================
-        com.minecraft.huntergame.game.ManhuntGame game = plugin.getManhuntManager().getPlayerGame(player);
-        
-        // 基础玩家信息
-        if (params.equals("player_name")) {
-            return player.getName();
-        }
-        
-        if (params.equals("player_uuid")) {
-            return player.getUniqueId().toString();
-        }
-        
-        // 游戏状态
-        if (params.equals("in_game")) {
-            return game != null ? "true" : "false";
-        }
-        
-        if (params.equals("game_state")) {
-            if (game != null) {
-                switch (game.getState()) {
-                    case WAITING:
-                        return "等待中";
-                    case PREPARING:
-                        return "准备中";
-                    case PLAYING:
-                        return "进行中";
-                    case ENDING:
-                        return "结束中";
-                    default:
-                        return "未知";
-                }
-            }
-            return "无";
-        }
-        
-        if (params.equals("game_state_color")) {
-            if (game != null) {
-                switch (game.getState()) {
-                    case WAITING:
-                        return "&e";
-                    case PREPARING:
-                        return "&6";
-                    case PLAYING:
-                        return "&c";
-                    case ENDING:
-                        return "&7";
-                    default:
-                        return "&f";
-                }
-            }
-            return "&f";
-        }
-        
-        // 角色信息
-        if (params.equals("current_role") || params.equals("player_role")) {
-            if (game != null) {
-                com.minecraft.huntergame.game.PlayerRole role = game.getPlayerRole(player.getUniqueId());
-                if (role != null) {
-                    switch (role) {
-                        case RUNNER:
-                            return "逃亡者";
-                        case HUNTER:
-                            return "猎人";
-                        case SPECTATOR:
-                            return "观战者";
-                        default:
-                            return "未知";
-                    }
-                }
-            }
-            return "无";
+        return resolver.resolve(player, getSnapshot(player));
+    }
+    
+    /**
+     * 移除玩家快照（玩家离开服务器时调用）
+     */
+    public void invalidate(UUID uuid) {
+        snapshots.remove(uuid);
+    }
+    
+    /**
+     * 启动跨服务器统计刷新任务
+     * Redis查询在异步线程中完成，变量请求只读取结果
+     */
+    public void startNetworkStatsTask() {
+        if (networkStatsTask != null) {
+            return;
         }
         
-        if (params.equals("current_role_color") || params.equals("player_role_color")) {
-            if (game != null) {
-                com.minecraft.huntergame.game.PlayerRole role = game.getPlayerRole(player.getUniqueId());
-                if (role != null) {
-                    switch (role) {
-                        case RUNNER:
-                            return "&a";
-                        case HUNTER:
-                            return "&c";
-                        case SPECTATOR:
-                            return "&7";
-                        default:
-                            return "&f";
-                    }
+        int interval = plugin.getMainConfig().getRedisUpdateInterval();
+        networkStatsTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            try {
+                if (plugin.getRedisManager() != null && plugin.getRedisManager().isConnected()) {
+                    totalServers = String.valueOf(plugin.getRedisManager().getOnlineServers().size());
+                    availableServers = String.valueOf(getAvailableServerCount());
+                    totalPlayers = String.valueOf(getTotalPlayerCount());
+                } else {
+                    totalServers = "1";
+                    availableServers = "0";
+                    totalPlayers = null;
                 }
+            } catch (Exception ex) {
+                plugin.debug("刷新跨服务器统计失败: " + ex.getMessage());
             }
-            return "&f";
-        }
-        
-        if (params.equals("is_runner")) {
-            if (game != null) {
-                com.minecraft.huntergame.game.PlayerRole role = game.getPlayerRole(player.getUniqueId());
-                return role == com.minecraft.huntergame.game.PlayerRole.RUNNER ? "true" : "false";
-            }
-            return "false";
-        }
-        
-        if (params.equals("is_hunter")) {
-            if (game != null) {
-                com.minecraft.huntergame.game.PlayerRole role = game.getPlayerRole(player.getUniqueId());
-                return role == com.minecraft.huntergame.game.PlayerRole.HUNTER ? "true" : "false";
-            }
-            return "false";
-        }
-        
-        if (params.equals("is_spectator")) {
-            if (game != null) {
-                com.minecraft.huntergame.game.PlayerRole role = game.getPlayerRole(player.getUniqueId());
-                return role == com.minecraft.huntergame.game.PlayerRole.SPECTATOR ? "true" : "false";
-            }
-            return "false";
-        }
-        
-        // 游戏房间信息
-        if (params.equals("current_game") || params.equals("game_id") || params.equals("room_id")) {
-            return game != null ? game.getGameId() : "无";
-        }
-        
-        if (params.equals("room_name")) {
-            return game != null ? game.getGameId() : "无";
-        }
-        
-        if (params.equals("room_mode")) {
-            return "Manhunt"; // 当前只有一种模式
-        }
-        
-        // 玩家数量
-        if (params.equals("game_players") || params.equals("player_count")) {
-            return game != null ? String.valueOf(game.getPlayerCount()) : "0";
-        }
-        
-        if (params.equals("game_max_players") || params.equals("max_players")) {
-            if (game != null) {
-                return String.valueOf(game.getMaxRunners() + game.getMaxHunters());
-            }
-            return "0";
-        }
-        
-        if (params.equals("game_runners") || params.equals("total_runners")) {
-            return game != null ? String.valueOf(game.getRunners().size()) : "0";
-        }
-        
-        if (params.equals("game_hunters") || params.equals("total_hunters")) {
-            return game != null ? String.valueOf(game.getHunters().size()) : "0";
-        }
-        
-        if (params.equals("game_alive_runners") || params.equals("alive_runners")) {
-            return game != null ? String.valueOf(game.getAliveRunners().size()) : "0";
-        }
-        
-        if (params.equals("alive_hunters")) {
-            return game != null ? String.valueOf(game.getHunters().size()) : "0";
+        }, 20L, interval * 20L);
+    }
+    
+    /**
+     * 停止后台任务并清空快照
+     */
+    public void shutdown() {
+        if (networkStatsTask != null) {
+            networkStatsTask.cancel();
+            networkStatsTask = null;
         }
-        
-        // 游戏时间
-        if (params.equals("game_time")) {
-            if (game != null && game.getState() == com.minecraft.huntergame.game.GameState.PLAYING) {
-                return formatTime((int) game.getElapsedTime());
-            }
-            return "0s";
+        snapshots.clear();
+    }
+    
+    /**
+     * 获取玩家快照，数据变化时重新计算
+     */
+    private Snapshot getSnapshot(Player player) {
+        UUID uuid = player.getUniqueId();
+        PlayerData data = plugin.getStatsManager().getPlayerData(uuid);
+        ManhuntGame game = plugin.getManhuntManager().getPlayerGame(player);
+        long leaderboardVersion = plugin.getStatsManager().getLeaderboardVersion();
+        
+        Snapshot snapshot = snapshots.get(uuid);
+        if (snapshot == null || !snapshot.isValid(data, game, leaderboardVersion)) {
+            int ranking = plugin.getStatsManager().getPlayerRanking(uuid);
+            snapshot = new Snapshot(uuid, data, game, ranking, leaderboardVersion);
+            snapshots.put(uuid, snapshot);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * 获取排行榜指定名次的玩家，排行榜变化时刷新
+     */
+    private PlayerData getTopRank(int position) {
+        long version = plugin.getStatsManager().getLeaderboardVersion();
+        if (version != topRanksVersion) {
+            topRanks = plugin.getStatsManager().getTopRanks(TOP_RANK_SIZE);
+            topRanksVersion = version;
         }
         
-        if (params.equals("game_time_seconds")) {
-            if (game != null && game.getState() == com.minecraft.huntergame.game.GameState.PLAYING) {
-                return String.valueOf((int) game.getElapsedTime());
-            }
-            return "0";
-        }
+        List<PlayerData> list = topRanks;
+        return position <= list.size() ? list.get(position - 1) : null;
+    }
+    
+    /**
+     * 注册变量解析器
+     */
+    private void registerResolvers() {
+        // ==================== 玩家段位变量 ====================
+        register((p, s) -> s.rank, "rank", "current_rank");
+        register((p, s) -> s.rankColor, "rank_color", "current_rank_color");
+        register((p, s) -> s.rankColorMm, "rank_color_mm", "current_rank_color_mm");
+        register((p, s) -> s.score, "score", "rank_score");
+        register((p, s) -> s.highestRank, "highest_rank");
+        register((p, s) -> s.highestRankColor, "highest_rank_color");
+        register((p, s) -> s.highestRankColorMm, "highest_rank_color_mm");
+        register((p, s) -> s.season, "season", "season_id");
+        register((p, s) -> s.scoreToNext, "score_to_next", "score_to_next_rank");
+        register((p, s) -> s.ranking, "ranking", "rank_position");
         
-        if (params.equals("remaining_time")) {
-            if (game != null && game.getState() == com.minecraft.huntergame.game.GameState.PLAYING) {
-                int maxTime = game.getMaxGameTime();
-                if (maxTime > 0) {
-                    int remaining = maxTime - (int) game.getElapsedTime();
-                    return formatTime(Math.max(0, remaining));
-                }
+        // ==================== 当前游戏状态变量 ====================
+        register((p, s) -> p.getName(), "player_name");
+        register((p, s) -> s.playerUuid, "player_uuid");
+        register((p, s) -> s.inGame, "in_game");
+        register((p, s) -> s.gameState, "game_state");
+        register((p, s) -> s.gameStateColor, "game_state_color");
+        register((p, s) -> s.role, "current_role", "player_role");
+        register((p, s) -> s.roleColor, "current_role_color", "player_role_color");
+        register((p, s) -> s.roleColorMm, "player_role_color_mm", "current_role_color_mm");
+        register((p, s) -> s.isRunner, "is_runner");
+        register((p, s) -> s.isHunter, "is_hunter");
+        register((p, s) -> s.isSpectator, "is_spectator");
+        register((p, s) -> s.gameId, "current_game", "game_id", "room_id", "room_name");
+        register((p, s) -> "Manhunt", "room_mode"); // 当前只有一种模式
+        register((p, s) -> s.playerCount, "game_players", "player_count");
+        register((p, s) -> s.maxPlayers, "game_max_players", "max_players");
+        register((p, s) -> s.totalRunners, "game_runners", "total_runners");
+        register((p, s) -> s.totalHunters, "game_hunters", "total_hunters", "alive_hunters");
+        register((p, s) -> s.aliveRunners, "game_alive_runners", "alive_runners");
+        register((p, s) -> s.respawns, "respawn_count", "respawns");
+        register((p, s) -> s.maxRespawns, "max_respawns");
+        
+        // 游戏时间（随时间变化，按请求计算）
+        register((p, s) -> isPlaying(s.game) ? formatTime((int) s.game.getElapsedTime()) : "0s", "game_time");
+        register((p, s) -> isPlaying(s.game) ? String.valueOf((int) s.game.getElapsedTime()) : "0", "game_time_seconds");
+        register((p, s) -> {
+            if (isPlaying(s.game) && s.game.getMaxGameTime() > 0) {
+                int remaining = s.game.getMaxGameTime() - (int) s.game.getElapsedTime();
+                return formatTime(Math.max(0, remaining));
             }
             return "无限制";
-        }
-        
-        if (params.equals("remaining_time_seconds")) {
-            if (game != null && game.getState() == com.minecraft.huntergame.game.GameState.PLAYING) {
-                int maxTime = game.getMaxGameTime();
-                if (maxTime > 0) {
-                    int remaining = maxTime - (int) game.getElapsedTime();
-                    return String.valueOf(Math.max(0, remaining));
-                }
-            }
-            return "0";
-        }
-        
-        // 复活次数
-        if (params.equals("respawn_count") || params.equals("respawns")) {
-            if (game != null) {
-                return String.valueOf(game.getRemainingRespawns(player.getUniqueId()));
+        }, "remaining_time");
+        register((p, s) -> {
+            if (isPlaying(s.game) && s.game.getMaxGameTime() > 0) {
+                int remaining = s.game.getMaxGameTime() - (int) s.game.getElapsedTime();
+                return String.valueOf(Math.max(0, remaining));
             }
             return "0";
-        }
-        
-        if (params.equals("max_respawns")) {
-            if (game != null) {
-                return String.valueOf(game.getRespawnLimit());
-            }
-            return "0";
-        }
+        }, "remaining_time_seconds");
         
         // 倒计时
-        if (params.equals("countdown")) {
-            if (game != null) {
-                if (game.getState() == com.minecraft.huntergame.game.GameState.WAITING) {
-                    return String.valueOf(game.getMatchingTimeRemaining());
-                } else if (game.getState() == com.minecraft.huntergame.game.GameState.PREPARING) {
-                    return String.valueOf(game.getPrepareTimeRemaining());
+        register((p, s) -> {
+            if (s.game != null) {
+                if (s.game.getState() == GameState.WAITING) {
+                    return String.valueOf(s.game.getMatchingTimeRemaining());
+                } else if (s.game.getState() == GameState.PREPARING) {
+                    return String.valueOf(s.game.getPrepareTimeRemaining());
                 }
             }
             return "0";
-        }
-        
-        // ==================== 角色颜色变量 ====================
-        if (params.equals("hunter_color")) {
-            return PlayerRole.HUNTER.getColor().toString();
-        }
-        
-        if (params.equals("runner_color")) {
-            return PlayerRole.RUNNER.getColor().toString();
-        }
-        
-        if (params.equals("spectator_color")) {
-            return PlayerRole.SPECTATOR.getColor().toString();
-        }
-        
-        // MiniMessage 格式的角色颜色
-        if (params.equals("player_role_color_mm") || params.equals("current_role_color_mm")) {
-            if (game != null) {
-                com.minecraft.huntergame.game.PlayerRole role = game.getPlayerRole(player.getUniqueId());
-                if (role != null) {
-                    switch (role) {
-                        case RUNNER:
-                            return "<green>";
-                        case HUNTER:
-                            return "<red>";
-                        case SPECTATOR:
-                            return "<gray>";
-                        default:
-                            return "<white>";
-                    }
-                }
+        }, "countdown");
+        register((p, s) -> {
+            if (s.game != null && s.game.getState() == GameState.WAITING) {
+                return formatTime(s.game.getMatchingTimeRemaining());
             }
-            return "<white>";
-        }
-        
-        if (params.equals("hunter_color_mm")) {
-            return "<red>";
-        }
-        
-        if (params.equals("runner_color_mm")) {
-            return "<green>";
-        }
+            return "0s";
+        }, "matching_time");
+        register((p, s) -> {
+            if (s.game != null && s.game.getState() == GameState.PREPARING) {
+                return formatTime(s.game.getPrepareTimeRemaining());
+            }
+            return "0s";
+        }, "prepare_time");
         
-        if (params.equals("spectator_color_mm")) {
-            return "<gray>";
-        }
+        // ==================== 角色颜色变量 ====================
+        String hunterColor = PlayerRole.HUNTER.getColor().toString();
+        String runnerColor = PlayerRole.RUNNER.getColor().toString();
+        String spectatorColor = PlayerRole.SPECTATOR.getColor().toString();
+        register((p, s) -> hunterColor, "hunter_color");
+        register((p, s) -> runnerColor, "runner_color");
+        register((p, s) -> spectatorColor, "spectator_color");
+        register((p, s) -> "<red>", "hunter_color_mm");
+        register((p, s) -> "<green>", "runner_color_mm");
+        register((p, s) -> "<gray>", "spectator_color_mm");
         
         // ==================== 服务器模式变量 ====================
-        if (params.equals("server_mode")) {
-            return plugin.getServerMode().name();
-        }
-        
-        if (params.equals("status")) {
-            if (game != null) {
-                switch (game.getState()) {
-                    case WAITING:
-                        return "等待中";
-                    case PREPARING:
-                        return "准备中";
-                    case PLAYING:
-                        return "游戏中";
-                    case ENDING:
-                        return "结束中";
-                    default:
-                        return "未知";
-                }
-            }
-            return "空闲";
-        }
-        
-        if (params.equals("server")) {
-            if (plugin.getRedisManager() != null) {
-                return plugin.getRedisManager().getServerName();
-            }
-            return "本地服务器";
-        }
+        register((p, s) -> plugin.getServerMode().name(), "server_mode");
+        register((p, s) -> s.status, "status");
+        register((p, s) -> plugin.getRedisManager() != null ? plugin.getRedisManager().getServerName() : "本地服务器", "server");
         
         // ==================== 段位排行榜变量 ====================
-        // top_rank_<rank> - 排行榜玩家名称
-        if (params.startsWith("top_rank_")) {
-            try {
-                int rank = Integer.parseInt(params.substring(9));
-                List<PlayerData> topRanks = leaderboardCache.get("ranks");
-                if (topRanks != null && rank > 0 && rank <= topRanks.size()) {
-                    return topRanks.get(rank - 1).getName();
-                }
-            } catch (NumberFormatException ignored) {
-            }
-            return "";
-        }
-        
-        // top_rank_<rank>_score - 排行榜玩家分数
-        if (params.startsWith("top_rank_") && params.endsWith("_score")) {
-            try {
-                String rankStr = params.substring(9, params.length() - 6);
-                int rank = Integer.parseInt(rankStr);
-                List<PlayerData> topRanks = leaderboardCache.get("ranks");
-                if (topRanks != null && rank > 0 && rank <= topRanks.size()) {
-                    return String.valueOf(topRanks.get(rank - 1).getScore());
-                }
-            } catch (NumberFormatException ignored) {
-            }
-            return "";
-        }
-        
-        // top_rank_<rank>_rank - 排行榜玩家段位
-        if (params.startsWith("top_rank_") && params.endsWith("_rank")) {
-            try {
-                String rankStr = params.substring(9, params.length() - 5);
-                int rank = Integer.parseInt(rankStr);
-                List<PlayerData> topRanks = leaderboardCache.get("ranks");
-                if (topRanks != null && rank > 0 && rank <= topRanks.size()) {
-                    return topRanks.get(rank - 1).getCurrentRank().getDisplayName();
-                }
-            } catch (NumberFormatException ignored) {
-            }
-            return "";
-        }
-        
-        // top_rank_<rank>_rank_color - 排行榜玩家段位颜色
-        if (params.startsWith("top_rank_") && params.endsWith("_rank_color")) {
-            try {
-                String rankStr = params.substring(9, params.length() - 11);
-                int rank = Integer.parseInt(rankStr);
-                List<PlayerData> topRanks = leaderboardCache.get("ranks");
-                if (topRanks != null && rank > 0 && rank <= topRanks.size()) {
-                    return topRanks.get(rank - 1).getCurrentRank().getColor().toString();
-                }
-            } catch (NumberFormatException ignored) {
-            }
-            return "";
+        for (int i = 1; i <= TOP_RANK_SIZE; i++) {
+            final int position = i;
+            register((p, s) -> {
+                PlayerData top = getTopRank(position);
+                return top != null ? top.getName() : "";
+            }, "top_rank_" + i);
+            register((p, s) -> {
+                PlayerData top = getTopRank(position);
+                return top != null ? String.valueOf(top.getScore()) : "";
+            }, "top_rank_" + i + "_score");
+            register((p, s) -> {
+                PlayerData top = getTopRank(position);
+                return top != null ? top.getCurrentRank().getDisplayName() : "";
+            }, "top_rank_" + i + "_rank");
+            register((p, s) -> {
+                PlayerData top = getTopRank(position);
+                return top != null ? top.getCurrentRank().getColor().toString() : "";
+            }, "top_rank_" + i + "_rank_color");
         }
         
         // ==================== Bungee 模式变量 ====================
-        
-        // 服务器名称
-        if (params.equals("server_name")) {
-            if (plugin.getRedisManager() != null) {
-                return plugin.getRedisManager().getServerName();
-            }
-            return "unknown";
-        }
-        
-        // 服务器类型
-        if (params.equals("server_type")) {
-            ServerType type = plugin.getManhuntConfig().getServerType();
-            return type == ServerType.MAIN_LOBBY ? "主大厅" : "子大厅";
-        }
-        
-        // 服务器状态
-        if (params.equals("server_status")) {
-            return getServerStatus();
-        }
-        
-        // 当前服务器玩家数
-        if (params.equals("server_players")) {
-            return String.valueOf(plugin.getServer().getOnlinePlayers().size());
-        }
-        
-        // 服务器最大玩家数
-        if (params.equals("server_max_players")) {
-            return String.valueOf(plugin.getServer().getMaxPlayers());
-        }
-        
-        // 总游戏服务器数量
-        if (params.equals("total_servers")) {
-            if (plugin.getRedisManager() != null && plugin.getRedisManager().isConnected()) {
-                return String.valueOf(plugin.getRedisManager().getOnlineServers().size());
-            }
-            return "1";
+        register((p, s) -> plugin.getRedisManager() != null ? plugin.getRedisManager().getServerName() : "unknown", "server_name");
+        register((p, s) -> plugin.getManhuntConfig().getServerType() == ServerType.MAIN_LOBBY ? "主大厅" : "子大厅", "server_type");
+        register((p, s) -> getServerStatus(), "server_status");
+        register((p, s) -> String.valueOf(plugin.getServer().getOnlinePlayers().size()), "server_players");
+        register((p, s) -> String.valueOf(plugin.getServer().getMaxPlayers()), "server_max_players");
+        register((p, s) -> totalServers, "total_servers");
+        register((p, s) -> availableServers, "available_servers");
+        register((p, s) -> {
+            String total = totalPlayers;
+            return total != null ? total : String.valueOf(plugin.getServer().getOnlinePlayers().size());
+        }, "total_players");
+    }
+    
+    /**
+     * 注册解析器到一个或多个变量名
+     */
+    private void register(Resolver resolver, String... keys) {
+        for (String key : keys) {
+            resolvers.put(key, resolver);
         }
-        
-        // 可用游戏服务器数量
-        if (params.equals("available_servers")) {
-            if (plugin.getRedisManager() != null && plugin.getRedisManager().isConnected()) {
-                return String.valueOf(getAvailableServerCount());
+    }
+    
+    /**
+     * 游戏是否处于进行中
+     */
+    private static boolean isPlaying(ManhuntGame game) {
+        return game != null && game.getState() == GameState.PLAYING;
+    }
+    
+    /**
+     * 变量解析器
+     */
+    @FunctionalInterface
+    private interface Resolver {
+        String resolve(Player player, Snapshot snapshot);
+    }
+    
+    /**
+     * 玩家变量快照
+     * 保存预先计算好的字符串，段位数据、排行榜或所在游戏变化后失效
+     */
+    private static final class Snapshot {
+        
+        // 失效判断依据
+        private final PlayerData data;
+        private final ManhuntGame game;
+        private final int gameVersion;
+        private final long leaderboardVersion;
+        
+        // 段位变量
+        private final String rank;
+        private final String rankColor;
+        private final String rankColorMm;
+        private final String score;
+        private final String highestRank;
+        private final String highestRankColor;
+        private final String highestRankColorMm;
+        private final String season;
+        private final String scoreToNext;
+        private final String ranking;
+        
+        // 游戏变量
+        private final String playerUuid;
+        private final String inGame;
+        private final String gameState;
+        private final String gameStateColor;
+        private final String status;
+        private final String role;
+        private final String roleColor;
+        private final String roleColorMm;
+        private final String isRunner;
+        private final String isHunter;
+        private final String isSpectator;
+        private final String gameId;
+        private final String playerCount;
+        private final String maxPlayers;
+        private final String totalRunners;
+        private final String totalHunters;
+        private final String aliveRunners;
+        private final String respawns;
+        private final String maxRespawns;
+        
+        private Snapshot(UUID uuid, PlayerData data, ManhuntGame game, int ranking, long leaderboardVersion) {
+            this.data = data;
+            this.game = game;
+            this.gameVersion = game != null ? game.getVersion() : 0;
+            this.leaderboardVersion = leaderboardVersion;
+            
+            // 段位变量
+            if (data != null) {
+                int scoreToNextRank = data.getScoreToNextRank();
+                this.rank = data.getCurrentRank().getDisplayName();
+                this.rankColor = data.getCurrentRank().getColor().toString();
+                this.rankColorMm = data.getCurrentRank().getMiniMessageColor();
+                this.score = String.valueOf(data.getScore());
+                this.highestRank = data.getHighestRank().getDisplayName();
+                this.highestRankColor = data.getHighestRank().getColor().toString();
+                this.highestRankColorMm = data.getHighestRank().getMiniMessageColor();
+                this.season = String.valueOf(data.getSeasonId());
+                this.scoreToNext = scoreToNextRank > 0 ? String.valueOf(scoreToNextRank) : "已满级";
+            } else {
+                this.rank = "未定级";
+                this.rankColor = "&7";
+                this.rankColorMm = "<gray>";
+                this.score = "0";
+                this.highestRank = "未定级";
+                this.highestRankColor = "&7";
+                this.highestRankColorMm = "<gray>";
+                this.season = "1";
+                this.scoreToNext = "0";
             }
-            return "0";
-        }
-        
-        // 所有服务器总玩家数
-        if (params.equals("total_players")) {
-            if (plugin.getRedisManager() != null && plugin.getRedisManager().isConnected()) {
-                return String.valueOf(getTotalPlayerCount());
+            this.ranking = ranking > 0 ? String.valueOf(ranking) : "未上榜";
+            
+            // 游戏变量
+            this.playerUuid = uuid.toString();
+            this.inGame = game != null ? "true" : "false";
+            
+            if (game == null) {
+                this.gameState = "无";
+                this.gameStateColor = "&f";
+                this.status = "空闲";
+                this.role = "无";
+                this.roleColor = "&f";
+                this.roleColorMm = "<white>";
+                this.isRunner = "false";
+                this.isHunter = "false";
+                this.isSpectator = "false";
+                this.gameId = "无";
+                this.playerCount = "0";
+                this.maxPlayers = "0";
+                this.totalRunners = "0";
+                this.totalHunters = "0";
+                this.aliveRunners = "0";
+                this.respawns = "0";
+                this.maxRespawns = "0";
+                return;
             }
-            return String.valueOf(plugin.getServer().getOnlinePlayers().size());
-        }
-        
-        // 匹配剩余时间
-        if (params.equals("matching_time")) {
-            if (game != null && game.getState() == com.minecraft.huntergame.game.GameState.WAITING) {
-                int remaining = game.getMatchingTimeRemaining();
-                return formatTime(remaining);
+            
+            switch (game.getState()) {
+                case WAITING:
+                    this.gameState = "等待中";
+                    this.gameStateColor = "&e";
+                    this.status = "等待中";
+                    break;
+                case PREPARING:
+                    this.gameState = "准备中";
+                    this.gameStateColor = "&6";
+                    this.status = "准备中";
+                    break;
+                case PLAYING:
+                    this.gameState = "进行中";
+                    this.gameStateColor = "&c";
+                    this.status = "游戏中";
+                    break;
+                case ENDING:
+                    this.gameState = "结束中";
+                    this.gameStateColor = "&7";
+                    this.status = "结束中";
+                    break;
+                default:
+                    this.gameState = "未知";
+                    this.gameStateColor = "&f";
+                    this.status = "未知";
+                    break;
             }
-            return "0s";
-        }
-        
-        // 准备剩余时间
-        if (params.equals("prepare_time")) {
-            if (game != null && game.getState() == com.minecraft.huntergame.game.GameState.PREPARING) {
-                int remaining = game.getPrepareTimeRemaining();
-                return formatTime(remaining);
+            
+            PlayerRole playerRole = game.getPlayerRole(uuid);
+            if (playerRole == null) {
+                this.role = "无";
+                this.roleColor = "&f";
+                this.roleColorMm = "<white>";
+            } else {
+                switch (playerRole) {
+                    case RUNNER:
+                        this.role = "逃亡者";
+                        this.roleColor = "&a";
+                        this.roleColorMm = "<green>";
+                        break;
+                    case HUNTER:
+                        this.role = "猎人";
+                        this.roleColor = "&c";
+                        this.roleColorMm = "<red>";
+                        break;
+                    case SPECTATOR:
+                        this.role = "观战者";
+                        this.roleColor = "&7";
+                        this.roleColorMm = "<gray>";
+                        break;
+                    default:
+                        this.role = "未知";
+                        this.roleColor = "&f";
+                        this.roleColorMm = "<white>";
+                        break;
+                }
             }
-            return "0s";
+            this.isRunner = playerRole == PlayerRole.RUNNER ? "true" : "false";
+            this.isHunter = playerRole == PlayerRole.HUNTER ? "true" : "false";
+            this.isSpectator = playerRole == PlayerRole.SPECTATOR ? "true" : "false";
+            
+            this.gameId = game.getGameId();
+            this.playerCount = String.valueOf(game.getPlayerCount());
+            this.maxPlayers = String.valueOf(game.getMaxRunners() + game.getMaxHunters());
+            this.totalRunners = String.valueOf(game.getRunners().size());
+            this.totalHunters = String.valueOf(game.getHunters().size());
+            this.aliveRunners = String.valueOf(game.getAliveRunners().size());
+            this.respawns = String.valueOf(game.getRemainingRespawns(uuid));
+            this.maxRespawns = String.valueOf(game.getRespawnLimit());
+        }
+        
+        /**
+         * 快照是否仍然有效
+         */
+        private boolean isValid(PlayerData currentData, ManhuntGame currentGame, long currentLeaderboardVersion) {
+            return data == currentData
+                && game == currentGame
+                && (game == null || game.getVersion() == gameVersion)
+                && leaderboardVersion == currentLeaderboardVersion;
         }
-        
-        return null; // 未知占位符
     }
     
     /**
@@ -623,25 +586,6 @@ public class PlaceholderAPIIntegration extends PlaceholderExpansion {
         return total;
     }
     
-    /**
-     * 更新排行榜缓存
-     */
-    private void updateLeaderboardCache() {
-        long now = System.currentTimeMillis();
-        if (now - lastCacheUpdate < CACHE_DURATION) {
-            return; // 缓存未过期
-        }
-        
-        try {
-            // 使用StatsManager的段位排行榜缓存系统
-            leaderboardCache.put("ranks", plugin.getStatsManager().getTopRanks(10));
-            
-            lastCacheUpdate = now;
-        } catch (Exception e) {
-            plugin.getLogger().warning("更新段位排行榜缓存失败: " + e.getMessage());
-        }
-    }
-    
     /**
      * 格式化时间
      * 将秒数转换为 "Xh Ym Zs" 格式
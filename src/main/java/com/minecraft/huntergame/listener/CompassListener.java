@@ -10,12 +10,14 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 /**
  * 指南针监听器
- * 处理追踪指南针的丢弃事件（Q键切换目标）
+ * 处理追踪指南针的丢弃事件（Q键切换目标）和手持时的显示刷新
  * 
  * @author YourName
  * @version 1.0.0
@@ -73,5 +75,44 @@ public class CompassListener implements Listener {
         plugin.getTrackerManager().switchTarget(player);
     }
     
+    /**
+     * 监听切换物品栏事件
+     * 拿起追踪指南针时刷新显示信息
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerItemHeld(PlayerItemHeldEvent event) {
+        ItemStack item = event.getPlayer().getInventory().getItem(event.getNewSlot());
+        if (item != null && item.getType() == Material.COMPASS) {
+            scheduleDisplayRefresh(event.getPlayer());
+        }
+    }
+    
+    /**
+     * 监听主副手交换事件
+     * 交换到手上的追踪指南针刷新显示信息
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerSwapHandItems(PlayerSwapHandItemsEvent event) {
+        ItemStack main = event.getMainHandItem();
+        ItemStack off = event.getOffHandItem();
+        if ((main != null && main.getType() == Material.COMPASS) ||
+            (off != null && off.getType() == Material.COMPASS)) {
+            scheduleDisplayRefresh(event.getPlayer());
+        }
+    }
+    
+    /**
+     * 下一tick刷新（事件处理时物品还未移动到手上）
+     */
+    private void scheduleDisplayRefresh(Player player) {
+        if (plugin.getTrackerManager() == null || !plugin.getTrackerManager().hasTracker(player.getUniqueId())) {
+            return;
+        }
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (player.isOnline()) {
+                plugin.getTrackerManager().refreshCompassDisplay(player);
+            }
+        });
+    }
 
 }
@@ -79,6 +79,9 @@ public class ManhuntListener implements Listener {
             default:
                 break;
         }
+        
+        // 复活次数和存活人数可能已变化
+        plugin.getManhuntManager().notifyGameChanged(game);
     }
     
     /**
@@ -561,11 +564,6 @@ public class ManhuntListener implements Listener {
      * 向游戏中所有玩家广播消息
      */
     private void broadcastToGame(ManhuntGame game, String message) {
-        for (java.util.UUID uuid : game.getAllPlayers()) {
-            Player player = plugin.getServer().getPlayer(uuid);
-            if (player != null && player.isOnline()) {
-                player.sendMessage(message);
-            }
-        }
+        game.broadcast(message);
     }
 }
@@ -6,7 +6,9 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
@@ -24,6 +26,28 @@ public class PlayerJoinLeaveListener implements Listener {
         this.plugin = plugin;
     }
     
+    /**
+     * 登录前预加载玩家数据（异步线程）
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        plugin.getStatsManager().preloadPlayerData(event.getUniqueId());
+    }
+    
+    /**
+     * 登录被拒绝时丢弃预加载的数据
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getStatsManager().discardPreloadedData(event.getPlayer().getUniqueId());
+        }
+    }
+    
     /**
      * 监听玩家加入服务器
      */
@@ -93,6 +117,11 @@ public class PlayerJoinLeaveListener implements Listener {
         // 保存并卸载玩家数据
         plugin.getStatsManager().unloadPlayerData(player.getUniqueId());
         
+        // 清理变量快照
+        if (plugin.getIntegrationManager() != null && plugin.getIntegrationManager().isPlaceholderAPIEnabled()) {
+            plugin.getIntegrationManager().getPlaceholderAPIIntegration().invalidate(player.getUniqueId());
+        }
+        
         plugin.getLogger().info("玩家 " + player.getName() + " 离开服务器");
     }
     
@@ -107,12 +136,7 @@ public class PlayerJoinLeaveListener implements Listener {
         plugin.getManhuntManager().leaveGame(player);
         
         // 广播离开消息
-        for (java.util.UUID uuid : game.getAllPlayers()) {
-            Player p = plugin.getServer().getPlayer(uuid);
-            if (p != null && p.isOnline()) {
-                p.sendMessage("§c玩家 " + player.getName() + " 离开了游戏");
-            }
-        }
+        game.broadcast("§c玩家 " + player.getName() + " 离开了游戏");
         
         plugin.getLogger().info("玩家 " + player.getName() + " 在游戏中离开");
     }
@@ -171,9 +195,8 @@ public class PlayerJoinLeaveListener implements Listener {
                 worldName = "manhunt_world";
             }
             
-            // 加载或创建游戏世界
-            org.bukkit.World gameWorld = plugin.getWorldManager().loadOrCreateWorld(worldName);
-            if (gameWorld == null) {
+            // 准备游戏世界
+            if (!plugin.getWorldManager().prepareGameWorld(worldName)) {
                 player.sendMessage("§c无法创建游戏世界！");
                 return;
             }
@@ -53,6 +53,11 @@ public class PortalListener implements Listener {
         plugin.getLogger().info("玩家 " + player.getName() + " 使用传送门: " + cause + 
                                " (从世界: " + from.getWorld().getName() + ")");
         
+        // 记录逃亡者使用的传送门，供其他维度的猎人追踪
+        if (plugin.getTrackerManager() != null) {
+            plugin.getTrackerManager().recordPortal(game, player, from);
+        }
+        
         // 处理下界门
         if (cause == PlayerTeleportEvent.TeleportCause.NETHER_PORTAL) {
             handleNetherPortal(event, player, game, gameWorldName, from);
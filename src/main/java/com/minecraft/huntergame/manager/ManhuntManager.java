@@ -5,10 +5,12 @@ import com.minecraft.huntergame.ServerMode;
 import com.minecraft.huntergame.game.ManhuntGame;
 import com.minecraft.huntergame.game.PlayerRole;
 import com.minecraft.huntergame.models.PlayerData;
+import com.minecraft.huntergame.util.TimingWheel;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,10 +33,30 @@ public class ManhuntManager {
     // 游戏ID计数器
     private int gameIdCounter = 0;
     
+    // 匹配倒计时 Title 的时间点（剩余秒数）
+    private static final int[] MATCHING_TITLE_SECONDS = {60, 30, 20, 10, 5, 3, 2, 1};
+    
+    // 准备倒计时广播的时间点（剩余秒数）
+    private static final int[] PREPARE_COUNTDOWN_SECONDS = {10, 5, 3, 2, 1};
+    
+    // 游戏剩余时间提醒的时间点（剩余秒数）
+    private static final int[] TIME_REMINDER_SECONDS = {3600, 1800, 600, 300, 60, 30, 10, 5, 3, 2, 1};
+    
+    // 阶段定时器：阶段开始时注册截止时间和倒计时提示，阶段结束时取消
+    private final TimingWheel timingWheel;
+    private final Map<String, List<TimingWheel.Timeout>> phaseTimers;  // gameId -> 当前阶段的定时任务
+    private BukkitTask timerTask;
+    
+    // 已在游戏结束时安排延迟重置的世界池世界（移除游戏时不再立即重置）
+    private final Set<String> scheduledPoolResets;
+    
     public ManhuntManager(HunterGame plugin) {
         this.plugin = plugin;
         this.games = new ConcurrentHashMap<>();
         this.playerGameMap = new ConcurrentHashMap<>();
+        this.timingWheel = new TimingWheel(512, plugin.getLogger());
+        this.phaseTimers = new HashMap<>();
+        this.scheduledPoolResets = new HashSet<>();
         
         plugin.getLogger().info("Manhunt管理器已初始化");
     }
@@ -103,6 +125,9 @@ public class ManhuntManager {
     public void removeGame(String gameId) {
         ManhuntGame game = games.remove(gameId);
         if (game != null) {
+            // 取消阶段定时器
+            cancelPhaseTimers(game);
+            
             // 移除所有玩家的计分板
             for (UUID uuid : game.getAllPlayers()) {
                 Player player = plugin.getServer().getPlayer(uuid);
@@ -116,9 +141,20 @@ public class ManhuntManager {
                 playerGameMap.remove(uuid);
             }
             
+            // 清理追踪指南针数据
+            if (plugin.getTrackerManager() != null) {
+                plugin.getTrackerManager().removeGame(game);
+            }
+            
             // 从Redis移除游戏状态（如果启用Bungee模式）
             removeGameStateFromRedis(gameId);
             
+            // 未经过结束流程（取消、强制停止）的游戏立即重置租用的世界池世界，归还后重新生成
+            if (plugin.getWorldManager().isPoolWorld(game.getWorldName())
+                    && !scheduledPoolResets.contains(game.getWorldName())) {
+                plugin.getWorldManager().resetWorld(game.getWorldName());
+            }
+            
             plugin.getLogger().info("移除游戏: " + gameId);
         }
     }
@@ -204,6 +240,7 @@ public class ManhuntManager {
         
         if (added) {
             playerGameMap.put(player.getUniqueId(), gameId);
+            notifyGameChanged(game);
             plugin.getLogger().info("玩家 " + player.getName() + " 加入游戏 " + gameId);
             plugin.debug("Player successfully joined game");
             
@@ -246,6 +283,14 @@ public class ManhuntManager {
                 plugin.debug("玩家加入后立即更新Redis状态: " + status + ", 玩家数: " + playerCount);
             }
             
+            // 人数达到要求时游戏进入匹配阶段，注册匹配定时器
+            if (state == com.minecraft.huntergame.game.GameState.WAITING && game.isMatching()) {
+                enterMatchingPhase(game);
+            }
+            
+            // 匹配中人数已满时立即开始
+            checkMatchingPlayers(game);
+            
             return true;
         }
         
@@ -262,6 +307,7 @@ public class ManhuntManager {
             ManhuntGame game = games.get(gameId);
             if (game != null) {
                 game.removePlayer(player.getUniqueId());
+                notifyGameChanged(game);
                 plugin.getLogger().info("玩家 " + player.getName() + " 离开游戏 " + gameId);
                 
                 // 传送玩家到大厅
@@ -357,6 +403,7 @@ public class ManhuntManager {
         
         // 从玩家-游戏映射中移除
         playerGameMap.remove(uuid);
+        notifyGameChanged(game);
         
         plugin.getLogger().info("玩家 " + player.getName() + " 已离开游戏 " + game.getGameId());
     }
@@ -387,20 +434,29 @@ public class ManhuntManager {
             return;
         }
         
-        // 分配角色
-        plugin.debug("Assigning roles...");
-        plugin.getRoleManager().assignRoles(game, players);
-        
-        // 通知角色
-        plugin.debug("Notifying roles...");
-        plugin.getRoleManager().notifyRoles(game);
+        // 优先使用世界池中预生成的世界
+        String leasedWorld = plugin.getWorldManager().leaseWorld();
+        if (leasedWorld != null) {
+            game.setWorldName(leasedWorld);
+            plugin.getLogger().info("使用预生成世界: " + leasedWorld);
+        }
         
-        // 随机选择安全的出生点
-        plugin.debug("Finding random safe spawn location...");
         World gameWorld = plugin.getServer().getWorld(game.getWorldName());
         
         // 如果世界不存在，尝试加载或创建世界
         if (gameWorld == null) {
+            // 需要复制模板时在后台复制，复制完成前不开始游戏（匹配阶段会重试）
+            if (plugin.getWorldManager().needsTemplateCopy(game.getWorldName())) {
+                String worldName = game.getWorldName();
+                plugin.getWorldManager().loadOrCreateWorldAsync(worldName, world -> {
+                    if (world != null) {
+                        plugin.getLogger().info("游戏世界加载成功: " + worldName);
+                    }
+                });
+                plugin.getLogger().warning("游戏世界正在从模板复制: " + worldName + "，稍后重试开始游戏");
+                return;
+            }
+            
             plugin.getLogger().warning("游戏世界未加载: " + game.getWorldName() + "，正在尝试加载...");
             gameWorld = plugin.getWorldManager().loadOrCreateWorld(game.getWorldName());
             
@@ -413,6 +469,20 @@ public class ManhuntManager {
             plugin.getLogger().info("游戏世界加载成功: " + game.getWorldName());
         }
         
+        // 预加载所有参与者的段位数据，结算时无需访问数据库
+        plugin.getStatsManager().prefetch(players);
+        
+        // 分配角色
+        plugin.debug("Assigning roles...");
+        plugin.getRoleManager().assignRoles(game, players);
+        
+        // 通知角色
+        plugin.debug("Notifying roles...");
+        plugin.getRoleManager().notifyRoles(game);
+        
+        // 随机选择安全的出生点
+        plugin.debug("Finding random safe spawn location...");
+        
         if (gameWorld != null) {
             Location spawnLocation = com.minecraft.huntergame.util.LocationUtil.findRandomSafeSpawn(gameWorld, 50);
             game.setSpawnLocation(spawnLocation);
@@ -457,6 +527,8 @@ public class ManhuntManager {
         // 开始游戏（进入准备阶段）
         plugin.debug("Starting game (entering PREPARING state)...");
         game.start();
+        notifyGameChanged(game);
+        enterPreparingPhase(game);
         plugin.debug("Game state after start: " + game.getState());
         
         // 广播准备阶段消息
@@ -497,6 +569,8 @@ public class ManhuntManager {
         }
         
         game.end();
+        cancelPhaseTimers(game);
+        notifyGameChanged(game);
         
         // 判定胜利方
         boolean runnersWin = reason.isRunnersWin();
@@ -579,8 +653,18 @@ public class ManhuntManager {
             }
         }, delayTicks);
         
+        // 世界池中的世界总是重置后归还，同样等玩家传送后再重置
+        String poolWorld = game.getWorldName();
+        if (plugin.getWorldManager().isPoolWorld(poolWorld) && scheduledPoolResets.add(poolWorld)) {
+            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+                scheduledPoolResets.remove(poolWorld);
+                plugin.getWorldManager().resetWorld(poolWorld);
+            }, delayTicks + 60L);
+        }
+        
         // 延迟重置世界，确保玩家已传送
-        if (plugin.getManhuntConfig().isResetWorldOnEnd()) {
+        if (plugin.getManhuntConfig().isResetWorldOnEnd() && 
+            !plugin.getWorldManager().isPoolWorld(game.getWorldName())) {
             String worldName = game.getWorldName();
             plugin.getLogger().info("准备重置游戏世界: " + worldName);
             
@@ -666,180 +750,255 @@ public class ManhuntManager {
         plugin.getLogger().info("游戏 " + gameId + " 已强制停止");
     }
     
-    // ==================== 游戏检测 ====================
+    // ==================== 阶段定时器 ====================
     
     /**
-     * 检查所有游戏状态
+     * 进入匹配阶段：注册匹配倒计时提示和匹配截止时间
      */
-    public void checkAllGames() {
-        for (ManhuntGame game : games.values()) {
-            // 检查匹配超时
-            if (game.isMatching()) {
-                long remainingSeconds = game.getMatchingRemainingTime();
-                
-                // 显示匹配倒计时（使用Title + ActionBar）
-                if (remainingSeconds == 60 || remainingSeconds == 30 || remainingSeconds == 20 ||
-                    remainingSeconds == 10 || remainingSeconds == 5 || 
-                    remainingSeconds == 3 || remainingSeconds == 2 || remainingSeconds == 1) {
-                    
-                    for (UUID uuid : game.getAllPlayers()) {
-                        Player player = plugin.getServer().getPlayer(uuid);
-                        if (player != null && player.isOnline()) {
-                            player.sendTitle(
-                                "§e§l匹配中",
-                                "§7" + remainingSeconds + "秒后自动开始 §8| §a" + game.getPlayerCount() + "§7/§a" + (game.getMaxRunners() + game.getMaxHunters()) + " §7玩家",
-                                10, 40, 10
-                            );
-                        }
-                    }
-                }
-                
-                // 每秒显示ActionBar倒计时（更明显的提示）
-                String actionBarMessage = "§e§l匹配中... §a" + remainingSeconds + "秒 §7| §a" + 
-                                         game.getPlayerCount() + "§7/§a" + (game.getMaxRunners() + game.getMaxHunters()) + " §7玩家";
-                
-                for (UUID uuid : game.getAllPlayers()) {
-                    Player player = plugin.getServer().getPlayer(uuid);
-                    if (player != null && player.isOnline()) {
-                        // 使用 spigot().sendMessage() 发送ActionBar
-                        player.spigot().sendMessage(net.md_5.bungee.api.ChatMessageType.ACTION_BAR, 
-                            net.md_5.bungee.api.chat.TextComponent.fromLegacyText(actionBarMessage));
-                    }
-                }
-                
-                // 检查人数是否不足最低要求
-                if (!game.hasMinPlayers()) {
-                    broadcastToGame(game, "§c人数不足，匹配已取消");
-                    cancelGame(game);
-                    continue;
-                }
-                
-                // 检查是否达到最大人数，自动开始
-                if (game.isFull()) {
-                    broadcastToGame(game, "§a人数已满，游戏即将开始！");
-                    startGame(game.getGameId());
-                    continue;
-                }
-                
-                // 检查匹配是否超时
-                if (game.isMatchingTimeout()) {
-                    if (plugin.getManhuntConfig().isMatchingAutoStart() && game.hasMinPlayers()) {
-                        broadcastToGame(game, "§e匹配时间结束，游戏即将开始！");
-                        startGame(game.getGameId());
-                    } else {
-                        broadcastToGame(game, "§c匹配超时，人数不足，游戏取消");
-                        cancelGame(game);
-                    }
-                    continue;
-                }
+    private void enterMatchingPhase(ManhuntGame game) {
+        cancelPhaseTimers(game);
+        
+        long endTime = game.getMatchingEndTime();
+        for (int seconds : MATCHING_TITLE_SECONDS) {
+            scheduleAt(game, endTime - seconds * 1000L, () -> sendMatchingTitle(game, seconds));
+        }
+        
+        // 每秒显示ActionBar倒计时（更明显的提示），同时检查人数
+        schedulePhase(game, 20L, 20L, () -> {
+            if (!checkMatchingPlayers(game)) {
+                sendMatchingActionBar(game);
             }
+        });
+        
+        scheduleDeadline(game, endTime, () -> onMatchingTimeout(game));
+    }
+    
+    /**
+     * 检查匹配中的人数：人数不足取消匹配，人数已满立即开始
+     * 
+     * @return 是否已离开匹配阶段
+     */
+    private boolean checkMatchingPlayers(ManhuntGame game) {
+        if (!game.isMatching()) {
+            return true;
+        }
+        
+        // 检查人数是否不足最低要求
+        if (!game.hasMinPlayers()) {
+            broadcastToGame(game, "§c人数不足，匹配已取消");
+            cancelGame(game);
+            return true;
+        }
+        
+        // 检查是否达到最大人数，自动开始
+        if (game.isFull()) {
+            broadcastToGame(game, "§a人数已满，游戏即将开始！");
+            startGame(game.getGameId());
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * 匹配截止
+     */
+    private void onMatchingTimeout(ManhuntGame game) {
+        if (!game.isMatching()) {
+            return;
+        }
+        
+        if (plugin.getManhuntConfig().isMatchingAutoStart() && game.hasMinPlayers()) {
+            broadcastToGame(game, "§e匹配时间结束，游戏即将开始！");
+            startGame(game.getGameId());
             
-            // 检查准备时间倒计时
-            if (game.isPreparing()) {
-                long remainingSeconds = (game.getPrepareEndTime() - System.currentTimeMillis()) / 1000;
-                
-                // 在特定时间点广播倒计时
-                if (remainingSeconds == 10 || remainingSeconds == 5 || 
-                    remainingSeconds == 3 || remainingSeconds == 2 || remainingSeconds == 1) {
-                    broadcastToGame(game, "§e准备时间剩余: §c" + remainingSeconds + " §e秒");
-                    
-                    // 为猎人显示 Title 倒计时提示
-                    for (UUID uuid : game.getHunters()) {
-                        Player hunter = plugin.getServer().getPlayer(uuid);
-                        if (hunter != null && hunter.isOnline()) {
-                            String titleColor;
-                            if (remainingSeconds <= 3) {
-                                titleColor = "§c§l"; // 红色加粗
-                            } else if (remainingSeconds <= 5) {
-                                titleColor = "§e§l"; // 黄色加粗
-                            } else {
-                                titleColor = "§a§l"; // 绿色加粗
-                            }
-                            
-                            hunter.sendTitle(
-                                titleColor + remainingSeconds,
-                                "§7定身时间剩余",
-                                5, 15, 5
-                            );
-                        }
-                    }
-                }
-                
-                // 检查准备时间是否结束
-                if (game.isPrepareTimeEnded()) {
-                    game.startPlaying();
-                    
-                    // 为猎人显示解除冻结的 Title
-                    for (UUID uuid : game.getHunters()) {
-                        Player hunter = plugin.getServer().getPlayer(uuid);
-                        if (hunter != null && hunter.isOnline()) {
-                            hunter.sendTitle(
-                                "§a§l解除冻结！",
-                                "§7开始追捕逃亡者",
-                                10, 40, 10
-                            );
-                        }
-                    }
-                    
-                    // 广播准备时间结束
-                    broadcastToGame(game, com.minecraft.huntergame.util.Constants.SEPARATOR);
-                    broadcastToGame(game, "§a§l准备时间结束！");
-                    broadcastToGame(game, "§e猎人已解除冻结，开始追捕！");
-                    broadcastToGame(game, com.minecraft.huntergame.util.Constants.SEPARATOR);
-                    
-                    // 同步状态到Redis
-                    syncGameStateToRedis(game);
-                    
-                    plugin.getLogger().info("游戏 " + game.getGameId() + " 准备时间结束，正式开始");
-                }
+            // 启动失败（如世界未加载）时1秒后重试
+            if (game.isMatching()) {
+                scheduleDeadline(game, System.currentTimeMillis() + 1000L, () -> onMatchingTimeout(game));
             }
-            
-            // 游戏进行中的时间提醒
+        } else {
+            broadcastToGame(game, "§c匹配超时，人数不足，游戏取消");
+            cancelGame(game);
+        }
+    }
+    
+    /**
+     * 显示匹配倒计时 Title
+     */
+    private void sendMatchingTitle(ManhuntGame game, int remainingSeconds) {
+        int maxPlayers = game.getMaxRunners() + game.getMaxHunters();
+        game.getAudience().sendTitle(
+            "§e§l匹配中",
+            "§7" + remainingSeconds + "秒后自动开始 §8| §a" + game.getPlayerCount() + "§7/§a" + maxPlayers + " §7玩家",
+            10, 40, 10
+        );
+    }
+    
+    /**
+     * 显示匹配倒计时 ActionBar
+     */
+    private void sendMatchingActionBar(ManhuntGame game) {
+        String actionBarMessage = "§e§l匹配中... §a" + game.getMatchingRemainingTime() + "秒 §7| §a" + 
+                                 game.getPlayerCount() + "§7/§a" + (game.getMaxRunners() + game.getMaxHunters()) + " §7玩家";
+        
+        // 组件只构建一次，发送给所有玩家
+        game.getAudience().sendActionBar(actionBarMessage);
+    }
+    
+    /**
+     * 进入准备阶段：注册准备倒计时提示和准备结束时间
+     */
+    private void enterPreparingPhase(ManhuntGame game) {
+        cancelPhaseTimers(game);
+        
+        long endTime = game.getPrepareEndTime();
+        for (int seconds : PREPARE_COUNTDOWN_SECONDS) {
+            scheduleAt(game, endTime - seconds * 1000L, () -> announcePrepareCountdown(game, seconds));
+        }
+        scheduleDeadline(game, endTime, () -> finishPreparing(game));
+    }
+    
+    /**
+     * 广播准备倒计时，并为猎人显示 Title
+     */
+    private void announcePrepareCountdown(ManhuntGame game, int remainingSeconds) {
+        broadcastToGame(game, "§e准备时间剩余: §c" + remainingSeconds + " §e秒");
+        
+        String titleColor;
+        if (remainingSeconds <= 3) {
+            titleColor = "§c§l"; // 红色加粗
+        } else if (remainingSeconds <= 5) {
+            titleColor = "§e§l"; // 黄色加粗
+        } else {
+            titleColor = "§a§l"; // 绿色加粗
+        }
+        
+        game.getAudience(PlayerRole.HUNTER).sendTitle(
+            titleColor + remainingSeconds,
+            "§7定身时间剩余",
+            5, 15, 5
+        );
+    }
+    
+    /**
+     * 准备时间结束，正式开始游戏
+     */
+    private void finishPreparing(ManhuntGame game) {
+        if (!game.isPreparing()) {
+            return;
+        }
+        
+        game.startPlaying();
+        notifyGameChanged(game);
+        enterPlayingPhase(game);
+        
+        // 为猎人显示解除冻结的 Title
+        game.getAudience(PlayerRole.HUNTER).sendTitle(
+            "§a§l解除冻结！",
+            "§7开始追捕逃亡者",
+            10, 40, 10
+        );
+        
+        // 广播准备时间结束
+        broadcastToGame(game, com.minecraft.huntergame.util.Constants.SEPARATOR);
+        broadcastToGame(game, "§a§l准备时间结束！");
+        broadcastToGame(game, "§e猎人已解除冻结，开始追捕！");
+        broadcastToGame(game, com.minecraft.huntergame.util.Constants.SEPARATOR);
+        
+        // 同步状态到Redis
+        syncGameStateToRedis(game);
+        
+        plugin.getLogger().info("游戏 " + game.getGameId() + " 准备时间结束，正式开始");
+    }
+    
+    /**
+     * 进入游戏阶段：有时间限制时注册剩余时间提醒和游戏结束时间
+     */
+    private void enterPlayingPhase(ManhuntGame game) {
+        cancelPhaseTimers(game);
+        
+        // 如果没有时间限制，无需定时器
+        long endTime = game.getGameEndTime();
+        if (endTime == 0) {
+            return;
+        }
+        
+        for (int seconds : TIME_REMINDER_SECONDS) {
+            scheduleAt(game, endTime - seconds * 1000L, () -> announceRemainingTime(game, seconds));
+        }
+        scheduleDeadline(game, endTime, () -> {
             if (game.getState() == com.minecraft.huntergame.game.GameState.PLAYING) {
-                checkGameTimeReminders(game);
-            }
-            
-            // 更新所有玩家的侧边栏
-            updateGameSidebars(game);
-            
-            // 检查游戏是否应该结束
-            if (game.shouldEnd()) {
-                // 判断结束原因
-                com.minecraft.huntergame.game.GameEndReason reason = determineEndReason(game);
-                endGame(game.getGameId(), reason);
+                endGame(game.getGameId(), determineEndReason(game));
             }
+        });
+    }
+    
+    /**
+     * 广播剩余游戏时间
+     */
+    private void announceRemainingTime(ManhuntGame game, int remainingSeconds) {
+        if (remainingSeconds >= 3600) {
+            broadcastToGame(game, "§e游戏剩余时间: §c" + (remainingSeconds / 3600) + "小时");
+        } else if (remainingSeconds >= 60) {
+            broadcastToGame(game, "§e游戏剩余时间: §c" + (remainingSeconds / 60) + "分钟");
+        } else {
+            broadcastToGame(game, "§e游戏剩余时间: §c" + remainingSeconds + " §e秒");
         }
     }
     
     /**
-     * 检查游戏时间提醒
+     * 在指定时间点执行提示任务，时间点已过则跳过
      */
-    private void checkGameTimeReminders(ManhuntGame game) {
-        // 如果没有时间限制，跳过
-        if (game.getMaxGameTime() == 0) {
+    private void scheduleAt(ManhuntGame game, long timeMillis, Runnable task) {
+        long delay = timeMillis - System.currentTimeMillis();
+        if (delay < 0) {
             return;
         }
-        
-        long remainingTime = game.getRemainingTime();
-        
-        // 在特定时间点广播提醒
-        if (remainingTime == 3600) { // 1小时
-            broadcastToGame(game, "§e游戏剩余时间: §c1小时");
-        } else if (remainingTime == 1800) { // 30分钟
-            broadcastToGame(game, "§e游戏剩余时间: §c30分钟");
-        } else if (remainingTime == 600) { // 10分钟
-            broadcastToGame(game, "§e游戏剩余时间: §c10分钟");
-        } else if (remainingTime == 300) { // 5分钟
-            broadcastToGame(game, "§e游戏剩余时间: §c5分钟");
-        } else if (remainingTime == 60) { // 1分钟
-            broadcastToGame(game, "§e游戏剩余时间: §c1分钟");
-        } else if (remainingTime == 30 || remainingTime == 10 || 
-                   remainingTime == 5 || remainingTime == 3 || 
-                   remainingTime == 2 || remainingTime == 1) {
-            broadcastToGame(game, "§e游戏剩余时间: §c" + remainingTime + " §e秒");
+        schedulePhase(game, toTicks(delay), 0L, task);
+    }
+    
+    /**
+     * 在截止时间执行阶段切换任务，截止时间已过则在下一tick执行
+     * 时间轮按tick计时，到期时按实际时间检查，未到截止时间则重新注册剩余时间
+     */
+    private void scheduleDeadline(ManhuntGame game, long timeMillis, Runnable task) {
+        schedulePhase(game, toTicks(timeMillis - System.currentTimeMillis()), 0L, () -> {
+            if (System.currentTimeMillis() < timeMillis) {
+                scheduleDeadline(game, timeMillis, task);
+            } else {
+                task.run();
+            }
+        });
+    }
+    
+    /**
+     * 注册当前阶段的定时任务，阶段结束时统一取消
+     */
+    private void schedulePhase(ManhuntGame game, long delayTicks, long periodTicks, Runnable task) {
+        TimingWheel.Timeout timeout = timingWheel.scheduleAtFixedRate(delayTicks, periodTicks, task);
+        List<TimingWheel.Timeout> timeouts = phaseTimers.computeIfAbsent(game.getGameId(), id -> new ArrayList<>());
+        timeouts.removeIf(TimingWheel.Timeout::isExpired);
+        timeouts.add(timeout);
+    }
+    
+    /**
+     * 取消游戏当前阶段的所有定时任务
+     */
+    private void cancelPhaseTimers(ManhuntGame game) {
+        List<TimingWheel.Timeout> timeouts = phaseTimers.remove(game.getGameId());
+        if (timeouts != null) {
+            for (TimingWheel.Timeout timeout : timeouts) {
+                timeout.cancel();
+            }
         }
     }
     
+    /**
+     * 毫秒转换为tick（向上取整，至少1tick）
+     */
+    private static long toTicks(long millis) {
+        return Math.max(1L, (millis + 49L) / 50L);
+    }
+    
     /**
      * 判断游戏结束原因（公开方法供外部调用）
      */
@@ -901,28 +1060,22 @@ public class ManhuntManager {
     }
     
     /**
-     * 更新游戏内所有玩家的侧边栏
+     * 通知游戏数据已变化（状态切换、死亡、玩家加入离开）
+     * 计分板的事件行在下个更新周期重建，计时器行由侧边栏任务单独刷新
      */
-    private void updateGameSidebars(ManhuntGame game) {
-        for (UUID uuid : game.getAllPlayers()) {
-            Player player = plugin.getServer().getPlayer(uuid);
-            if (player != null && player.isOnline()) {
-                plugin.getSidebarManager().updateSidebar(player);
-            }
+    public void notifyGameChanged(ManhuntGame game) {
+        if (plugin.getSidebarManager() != null) {
+            plugin.getSidebarManager().invalidateGame(game);
         }
     }
     
     /**
-     * 启动游戏检测任务
+     * 启动阶段定时器任务
+     * 时间轮每tick推进一次，只执行到期的倒计时提示和阶段截止任务，
+     * 没有进行中的阶段时不做任何工作
      */
     public void startGameCheckTask() {
-        plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
-            // 性能优化：如果没有游戏，跳过检查
-            if (games.isEmpty()) {
-                return;
-            }
-            checkAllGames();
-        }, 20L, 20L); // 每秒检测一次
+        timerTask = plugin.getServer().getScheduler().runTaskTimer(plugin, timingWheel::tick, 1L, 1L);
     }
     
     // ==================== 辅助方法 ====================
@@ -938,31 +1091,8 @@ public class ManhuntManager {
             PlayerRole role = game.getPlayerRole(uuid);
             if (role == null || role == PlayerRole.SPECTATOR) continue;
             
-            // 获取玩家数据（即使玩家离线也要更新）
-            PlayerData data = plugin.getStatsManager().getPlayerData(uuid);
-            
-            // 如果数据不在缓存中，尝试加载
-            if (data == null) {
-                plugin.debug("玩家数据不在缓存中，尝试加载: " + uuid);
-                // 同步加载玩家数据
-                try {
-                    data = plugin.getPlayerRepository().load(uuid);
-                    if (data == null) {
-                        plugin.getLogger().warning("无法加载玩家数据: " + uuid);
-                        continue;
-                    }
-                    plugin.debug("成功加载玩家数据: " + uuid);
-                } catch (Exception ex) {
-                    plugin.getLogger().warning("加载玩家数据失败: " + uuid + " - " + ex.getMessage());
-                    continue;
-                }
-            }
-            
             plugin.debug("更新玩家段位: " + uuid + ", 角色: " + role);
             
-            int oldScore = data.getScore();
-            com.minecraft.huntergame.rank.Rank oldRank = data.getCurrentRank();
-            
             // 判断是否胜利
             boolean isWinner = (role == PlayerRole.RUNNER && runnersWin) || 
                               (role == PlayerRole.HUNTER && !runnersWin);
@@ -987,8 +1117,21 @@ public class ManhuntManager {
                 }
             }
             
-            // 更新分数
-            data.addScore(scoreChange);
+            // 获取玩家数据（即使玩家离线也要更新，开局时已预加载）
+            PlayerData data = plugin.getStatsManager().getCachedPlayerData(uuid);
+            
+            // 缓存未命中时异步加载并应用分数变化，不在主线程等待数据库
+            if (data == null) {
+                plugin.debug("玩家数据不在缓存中，异步应用分数变化: " + uuid);
+                plugin.getStatsManager().applyScoreDeltaAsync(uuid, scoreChange, game.getMatchId());
+                continue;
+            }
+            
+            int oldScore = data.getScore();
+            com.minecraft.huntergame.rank.Rank oldRank = data.getCurrentRank();
+            
+            // 更新分数（同时写入分数日志）
+            plugin.getStatsManager().applyMatchResult(data, scoreChange, game.getMatchId());
             
             int newScore = data.getScore();
             com.minecraft.huntergame.rank.Rank newRank = data.getCurrentRank();
@@ -1024,16 +1167,6 @@ public class ManhuntManager {
                     player.sendMessage("§e段位分数: " + scoreColor + (scoreChange > 0 ? "+" : "") + scoreChange + " §7(当前: " + newScore + ")");
                 }
             }
-            
-            // 直接保存数据到数据库（异步保存）
-            final PlayerData finalData = data;
-            plugin.getPlayerRepository().saveAsync(data, success -> {
-                if (success) {
-                    plugin.debug("成功保存玩家段位数据: " + uuid);
-                } else {
-                    plugin.getLogger().warning("保存玩家段位数据失败: " + uuid);
-                }
-            });
         }
     }
     
@@ -1167,12 +1300,7 @@ public class ManhuntManager {
      * 向游戏内所有玩家广播消息
      */
     private void broadcastToGame(ManhuntGame game, String message) {
-        for (UUID uuid : game.getAllPlayers()) {
-            Player player = plugin.getServer().getPlayer(uuid);
-            if (player != null && player.isOnline()) {
-                player.sendMessage(message);
-            }
-        }
+        game.getAudience().sendMessage(message);
     }
     
 
@@ -1280,6 +1408,14 @@ public class ManhuntManager {
         games.clear();
         playerGameMap.clear();
         
+        // 停止阶段定时器
+        if (timerTask != null) {
+            timerTask.cancel();
+            timerTask = null;
+        }
+        timingWheel.clear();
+        phaseTimers.clear();
+        
         plugin.getLogger().info("Manhunt管理器已关闭");
     }
 }
@@ -1,15 +1,25 @@
 package com.minecraft.huntergame.manager;
 
 import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.database.OfflinePlayerDataCache;
+import com.minecraft.huntergame.database.PlayerDataPreloader;
+import com.minecraft.huntergame.database.PlayerDataWriteQueue;
 import com.minecraft.huntergame.database.PlayerRepository;
+import com.minecraft.huntergame.database.ScoreJournal;
+import com.minecraft.huntergame.ServerMode;
 import com.minecraft.huntergame.models.PlayerData;
+import com.minecraft.huntergame.rank.LeaderboardIndex;
 import com.minecraft.huntergame.rank.Rank;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 段位管理器
@@ -23,45 +33,150 @@ public class StatsManager {
     private final HunterGame plugin;
     private final PlayerRepository playerRepository;
     
+    // 延迟写入队列
+    private final PlayerDataWriteQueue writeQueue;
+    
+    // 分数变化日志
+    private final ScoreJournal journal;
+    
     // 数据缓存
     private final Map<UUID, PlayerData> dataCache;
     
+    // 离线/最近离开玩家的数据缓存
+    private final OfflinePlayerDataCache offlineCache;
+    
+    // 登录前预加载
+    private final PlayerDataPreloader preloader;
+    
+    // 排行榜内存索引
+    private final LeaderboardIndex leaderboard;
+    
     // 当前赛季ID
     private int currentSeasonId = 1;
     
     public StatsManager(HunterGame plugin, PlayerRepository playerRepository) {
         this.plugin = plugin;
         this.playerRepository = playerRepository;
-        this.dataCache = new HashMap<>();
+        this.dataCache = new ConcurrentHashMap<>();
+        this.offlineCache = new OfflinePlayerDataCache(
+            plugin.getMainConfig().getOfflineCacheMaxSize(),
+            plugin.getMainConfig().getOfflineCacheExpireMinutes() * 60L * 1000L);
+        this.preloader = new PlayerDataPreloader(plugin, playerRepository, offlineCache);
+        this.leaderboard = new LeaderboardIndex();
+        this.journal = new ScoreJournal(plugin);
+        this.writeQueue = new PlayerDataWriteQueue(plugin, playerRepository, journal, this::hasLiveData);
+        
+        try {
+            journal.open();
+        } catch (java.io.IOException ex) {
+            plugin.getLogger().severe("打开分数日志失败: " + ex.getMessage());
+        }
+        
+        // 写线程先重放上次未写入数据库的分数变化，再处理新的写入
+        this.writeQueue.start();
+    }
+    
+    /**
+     * 登录前预加载玩家数据（在 AsyncPlayerPreLoginEvent 线程调用）
+     */
+    public void preloadPlayerData(UUID uuid) {
+        preloader.preload(uuid);
+    }
+    
+    /**
+     * 丢弃预加载的玩家数据（登录被拒绝时）
+     */
+    public void discardPreloadedData(UUID uuid) {
+        preloader.discard(uuid);
+    }
+    
+    /**
+     * 获取预加载器
+     */
+    public PlayerDataPreloader getPreloader() {
+        return preloader;
     }
     
     /**
      * 加载玩家数据
+     * 优先使用离线缓存和登录前预加载的数据，都未命中时回退到异步加载；
+     * Bungee模式下玩家可能在其他服务器更新过数据，离线缓存只有比数据库/Redis中的数据更新时才使用
      */
     public void loadPlayerData(Player player) {
         UUID uuid = player.getUniqueId();
         
+        PlayerDataPreloader.Staged staged = preloader.take(uuid);
+        PlayerData cached = offlineCache.remove(uuid);
+        
+        if (staged != null) {
+            promote(player, newer(cached, staged.getData()));
+            return;
+        }
+        
+        // 单服模式下离线缓存中的数据总是最新的（如结算时的分数变化）
+        if (cached != null && plugin.getServerMode() != ServerMode.BUNGEE) {
+            promote(player, cached);
+            return;
+        }
+        
+        plugin.debug("玩家 " + player.getName() + " 未命中预加载，异步加载段位数据");
         playerRepository.loadAsync(uuid, data -> {
-            if (data == null) {
-                // 创建新数据
-                data = new PlayerData(uuid, player.getName());
-                data.setSeasonId(currentSeasonId);
-                plugin.getLogger().info("为玩家 " + player.getName() + " 创建新段位数据");
-            } else {
-                // 更新玩家名称
-                if (!data.getName().equals(player.getName())) {
-                    data.setName(player.getName());
-                }
-                
-                // 检查赛季是否需要重置
-                if (data.getSeasonId() != currentSeasonId) {
-                    plugin.getLogger().info("玩家 " + player.getName() + " 赛季数据过期，重置赛季");
-                    data.resetSeason(currentSeasonId);
-                }
+            // 加载期间数据可能已进入离线缓存
+            PlayerData offline = offlineCache.remove(uuid);
+            promote(player, newer(offline != null ? offline : cached, data));
+        });
+    }
+    
+    /**
+     * 在离线缓存的数据和加载到的数据中选择较新的一份
+     * 单服模式下数据库只由本服写入，离线缓存总是较新；
+     * Bungee模式下按更新时间比较，丢弃过期的离线数据，避免覆盖其他服务器写入的数据
+     * 
+     * @param offline 离线缓存中的数据，可为null
+     * @param loaded 数据库或Redis中的数据，可为null
+     */
+    private PlayerData newer(PlayerData offline, PlayerData loaded) {
+        if (offline == null) {
+            return loaded;
+        }
+        if (plugin.getServerMode() != ServerMode.BUNGEE || loaded == null
+                || offline.getUpdatedAt() >= loaded.getUpdatedAt()) {
+            return offline;
+        }
+        
+        plugin.debug("离线缓存中的数据已过期，使用其他服务器写入的数据: " + offline.getUuid());
+        writeQueue.discard(offline);
+        return loaded;
+    }
+    
+    /**
+     * 将加载到的数据放入在线缓存
+     * 
+     * @param data 数据库中的数据，为null时创建新数据
+     */
+    private void promote(Player player, PlayerData data) {
+        UUID uuid = player.getUniqueId();
+        
+        if (data == null) {
+            // 创建新数据
+            data = new PlayerData(uuid, player.getName());
+            data.setSeasonId(currentSeasonId);
+            plugin.getLogger().info("为玩家 " + player.getName() + " 创建新段位数据");
+        } else {
+            // 更新玩家名称
+            if (!data.getName().equals(player.getName())) {
+                data.setName(player.getName());
             }
             
-            dataCache.put(uuid, data);
-        });
+            // 检查赛季是否需要重置
+            if (data.getSeasonId() != currentSeasonId) {
+                plugin.getLogger().info("玩家 " + player.getName() + " 赛季数据过期，重置赛季");
+                data.resetSeason(currentSeasonId);
+            }
+        }
+        
+        dataCache.put(uuid, data);
+        leaderboard.update(data);
     }
     
     /**
@@ -83,6 +198,7 @@ public class StatsManager {
             }
             
             dataCache.put(uuid, data);
+            leaderboard.update(data);
         });
     }
     
@@ -90,14 +206,16 @@ public class StatsManager {
      * 保存玩家数据
      */
     public void savePlayerData(UUID uuid) {
-        PlayerData data = dataCache.get(uuid);
-        if (data != null) {
-            playerRepository.saveAsync(data, success -> {
-                if (!success) {
-                    plugin.getLogger().warning("保存玩家段位数据失败: " + data.getName());
-                }
-            });
-        }
+        queueSave(dataCache.get(uuid));
+    }
+    
+    /**
+     * 将玩家数据加入延迟写入队列
+     * 可用于不在缓存中的玩家数据（如离线玩家）
+     */
+    public void queueSave(PlayerData data) {
+        leaderboard.update(data);
+        writeQueue.markDirty(data);
     }
     
     /**
@@ -119,7 +237,162 @@ public class StatsManager {
      */
     public void unloadPlayerData(UUID uuid) {
         savePlayerData(uuid);
-        dataCache.remove(uuid);
+        publishPlayerCache(uuid);
+        
+        // 保留到离线缓存，游戏结算或短时间内重新加入时无需访问数据库
+        PlayerData data = dataCache.remove(uuid);
+        if (data != null) {
+            offlineCache.put(data);
+        }
+    }
+    
+    // ==================== 跨服数据缓存 ====================
+    
+    /**
+     * 是否启用Redis玩家数据缓存
+     */
+    public boolean isRedisCacheEnabled() {
+        return plugin.getServerMode() == ServerMode.BUNGEE
+            && plugin.getRedisManager() != null
+            && plugin.getMainConfig().isRedisPlayerCacheEnabled();
+    }
+    
+    /**
+     * 将玩家数据写入Redis缓存，供玩家即将进入的服务器读取
+     * 在玩家被传送到其他服务器前和离开服务器时调用
+     */
+    public void publishPlayerCache(UUID uuid) {
+        if (!isRedisCacheEnabled()) {
+            return;
+        }
+        
+        PlayerData data = dataCache.get(uuid);
+        if (data == null) {
+            return;
+        }
+        
+        // 在主线程复制数据；以数据的最后修改时间作为版本号，
+        // 之后重新发布的旧数据不会覆盖其他服务器已写入的较新数据
+        PlayerData copy;
+        synchronized (data) {
+            copy = data.copy();
+        }
+        long version = copy.getUpdatedAt();
+        int ttl = plugin.getMainConfig().getRedisPlayerCacheTtl();
+        
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () ->
+            plugin.getRedisManager().savePlayerDataCache(copy, version, ttl));
+    }
+    
+    // ==================== 离线数据缓存 ====================
+    
+    /**
+     * 获取在线或离线缓存中的玩家数据（不访问数据库）
+     */
+    public PlayerData getCachedPlayerData(UUID uuid) {
+        PlayerData data = dataCache.get(uuid);
+        if (data != null) {
+            return data;
+        }
+        
+        data = offlineCache.get(uuid);
+        if (data != null) {
+            checkSeason(data);
+        }
+        return data;
+    }
+    
+    /**
+     * 异步预加载玩家数据到离线缓存
+     * 游戏开始时调用，保证结算时中途离开的玩家数据已在内存中
+     */
+    public void prefetch(Collection<UUID> uuids) {
+        List<UUID> missing = new java.util.ArrayList<>();
+        for (UUID uuid : uuids) {
+            if (getCachedPlayerData(uuid) == null) {
+                missing.add(uuid);
+            }
+        }
+        
+        if (missing.isEmpty()) {
+            return;
+        }
+        
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            for (UUID uuid : missing) {
+                try {
+                    PlayerData data = playerRepository.load(uuid);
+                    if (data != null) {
+                        offlineCache.putIfAbsent(data);
+                    }
+                } catch (Exception ex) {
+                    plugin.getLogger().warning("预加载玩家数据失败: " + uuid + " - " + ex.getMessage());
+                }
+            }
+            plugin.debug("已预加载 " + missing.size() + " 名玩家的段位数据");
+        });
+    }
+    
+    /**
+     * 应用一局比赛的分数变化
+     * 先写入分数日志再修改数据，数据库不可用或服务器崩溃时可由日志重放
+     */
+    public void applyMatchResult(PlayerData data, int delta, String matchId) {
+        // 与写入队列的快照同步，日志记录与分数在同一个锁内交给写入队列，写入包含它的快照后才确认
+        synchronized (data) {
+            ScoreJournal.Record record = journal.append(data.getUuid(), delta, matchId);
+            data.addScore(delta);
+            writeQueue.attach(data, record);
+        }
+        queueSave(data);
+    }
+    
+    /**
+     * 异步为缓存未命中的玩家增加分数变化
+     * 分数变化立即写入日志；数据加载完成后回到主线程应用分数并加入延迟写入队列，
+     * 加载失败时由写入队列在数据库中重放
+     */
+    public void applyScoreDeltaAsync(UUID uuid, int delta, String matchId) {
+        ScoreJournal.Record record = journal.append(uuid, delta, matchId);
+        
+        playerRepository.loadAsync(uuid, loaded -> {
+            // 加载期间数据可能已进入缓存，以缓存为准
+            PlayerData data = getCachedPlayerData(uuid);
+            if (data == null) {
+                if (loaded == null) {
+                    plugin.getLogger().warning("无法加载玩家数据，分数变化将由日志重放: "
+                        + uuid + " (" + delta + ")");
+                    journal.orphan(record);
+                    writeQueue.requestReplay();
+                    return;
+                }
+                checkSeason(loaded);
+                data = offlineCache.putIfAbsent(loaded);
+            }
+            
+            synchronized (data) {
+                data.addScore(delta);
+                writeQueue.attach(data, record);
+            }
+            queueSave(data);
+            plugin.debug("已异步应用分数变化: " + uuid + " (" + (delta > 0 ? "+" : "") + delta + ")");
+        });
+    }
+    
+    /**
+     * 玩家是否有内存中的数据（在线缓存、离线缓存或登录前预加载结果）
+     */
+    private boolean hasLiveData(UUID uuid) {
+        return dataCache.containsKey(uuid) || offlineCache.contains(uuid) || preloader.isStaged(uuid);
+    }
+    
+    /**
+     * 数据赛季过期时重置
+     */
+    private void checkSeason(PlayerData data) {
+        if (data.getSeasonId() != currentSeasonId) {
+            data.resetSeason(currentSeasonId);
+        }
     }
     
     /**
@@ -145,6 +418,7 @@ public class StatsManager {
         PlayerData data = dataCache.get(uuid);
         if (data != null) {
             data.addScore(points);
+            leaderboard.update(data);
         }
     }
     
@@ -155,6 +429,7 @@ public class StatsManager {
         PlayerData data = dataCache.get(uuid);
         if (data != null) {
             data.removeScore(points);
+            leaderboard.update(data);
         }
     }
     
@@ -198,38 +473,52 @@ public class StatsManager {
     
     /**
      * 重置所有玩家的赛季数据
+     * 在线缓存、离线缓存和写入队列中的数据都在数据锁内重置并重新加入写入队列，
+     * 避免之后写入的旧赛季数据覆盖赛季结算的结果
      */
     public void resetAllSeasons(int newSeasonId) {
         this.currentSeasonId = newSeasonId;
         
-        for (PlayerData data : dataCache.values()) {
-            data.resetSeason(newSeasonId);
+        Set<PlayerData> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        all.addAll(dataCache.values());
+        all.addAll(offlineCache.values());
+        all.addAll(writeQueue.getPending());
+        
+        for (PlayerData data : all) {
+            synchronized (data) {
+                data.resetSeason(newSeasonId);
+            }
+            queueSave(data);
         }
         
-        plugin.getLogger().info("已重置所有玩家的赛季数据到赛季 " + newSeasonId);
+        plugin.getLogger().info("已重置所有玩家的赛季数据到赛季 " + newSeasonId + " (" + all.size() + " 名)");
+    }
+    
+    /**
+     * 开始新赛季的赛季结算
+     * 先在写线程写完队列中的旧赛季数据（结算时归档），再重置内存中的数据，最后启动结算任务
+     */
+    public void prepareSeasonRollover(int newSeasonId, Runnable startRollover) {
+        writeQueue.flushThen(() -> {
+            resetAllSeasons(newSeasonId);
+            startRollover.run();
+        });
     }
     
     // ==================== 排行榜系统 ====================
     
-    // 排行榜缓存
-    private List<PlayerData> topRanksCache = null;
-    private long lastCacheUpdate = 0;
-    private final long CACHE_DURATION = 5 * 60 * 1000; // 5分钟
+    /**
+     * 获取排行榜索引版本号（分数或排名变化时递增）
+     */
+    public long getLeaderboardVersion() {
+        return leaderboard.getVersion();
+    }
     
     /**
      * 获取段位排行榜
      */
     public List<PlayerData> getTopRanks(int limit) {
-        updateCacheIfNeeded();
-        if (topRanksCache == null || topRanksCache.isEmpty()) {
-            try {
-                return playerRepository.getTopRanks(limit);
-            } catch (Exception ex) {
-                plugin.getLogger().warning("获取段位排行榜失败: " + ex.getMessage());
-                return new java.util.ArrayList<>();
-            }
-        }
-        return topRanksCache.subList(0, Math.min(limit, topRanksCache.size()));
+        return leaderboard.getTop(limit);
     }
     
     /**
@@ -248,36 +537,34 @@ public class StatsManager {
      * 获取玩家排名
      */
     public int getPlayerRanking(UUID uuid) {
-        try {
-            return playerRepository.getPlayerRanking(uuid);
-        } catch (Exception ex) {
-            plugin.getLogger().warning("获取玩家排名失败: " + ex.getMessage());
-            return 0;
-        }
-    }
-    
-    /**
-     * 更新缓存（如果需要）
-     */
-    private void updateCacheIfNeeded() {
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastCacheUpdate > CACHE_DURATION) {
-            updateLeaderboardCache();
-        }
+        return leaderboard.getRank(uuid);
     }
     
     /**
-     * 更新排行榜缓存
+     * 从数据库重建排行榜索引
+     * 异步读取全表，完成后回到主线程替换索引并重新应用在线玩家的最新数据
      */
-    private void updateLeaderboardCache() {
+    private void rebuildLeaderboardIndex() {
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
             try {
-                topRanksCache = playerRepository.getTopRanks(100);
-                lastCacheUpdate = System.currentTimeMillis();
+                List<PlayerData> all = playerRepository.getAllPlayerData();
                 
-                plugin.getLogger().info("段位排行榜缓存已更新");
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    leaderboard.rebuild(all);
+                    // 内存中的数据可能比数据库更新（尚未写入），重新应用
+                    for (PlayerData data : writeQueue.getPending()) {
+                        leaderboard.update(data);
+                    }
+                    for (PlayerData data : offlineCache.values()) {
+                        leaderboard.update(data);
+                    }
+                    for (PlayerData data : dataCache.values()) {
+                        leaderboard.update(data);
+                    }
+                    plugin.debug("段位排行榜索引已重建: " + leaderboard.size() + " 名玩家");
+                });
             } catch (Exception ex) {
-                plugin.getLogger().warning("更新段位排行榜缓存失败: " + ex.getMessage());
+                plugin.getLogger().warning("重建段位排行榜索引失败: " + ex.getMessage());
             }
         });
     }
@@ -286,23 +573,25 @@ public class StatsManager {
      * 强制刷新缓存
      */
     public void refreshLeaderboardCache() {
-        lastCacheUpdate = 0;
-        updateLeaderboardCache();
+        rebuildLeaderboardIndex();
     }
     
     /**
      * 启动定时缓存更新任务
+     * 索引启动时从数据库加载一次，之后随分数变化增量更新；
+     * Bungee模式下其他服务器也会写入数据库，因此定期重建以同步
      */
     public void startCacheUpdateTask() {
-        // 立即更新一次
-        updateLeaderboardCache();
+        // 立即构建一次
+        rebuildLeaderboardIndex();
         
-        // 每5分钟更新一次
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            updateLeaderboardCache();
-        }, 20L * 60 * 5, 20L * 60 * 5);
+        if (plugin.getServerMode() == ServerMode.BUNGEE) {
+            // 每5分钟重建一次
+            plugin.getServer().getScheduler().runTaskTimer(plugin, this::rebuildLeaderboardIndex,
+                20L * 60 * 5, 20L * 60 * 5);
+        }
         
-        plugin.getLogger().info("段位排行榜缓存更新任务已启动");
+        plugin.getLogger().info("段位排行榜索引已启动");
     }
     
     // ==================== 兼容旧方法（避免编译错误） ====================
@@ -423,23 +712,22 @@ public class StatsManager {
     
     /**
      * 同步保存所有数据(用于插件关闭时)
+     * 停止写线程，并在期限内写完队列中剩余的数据
      */
     public void saveAllSync() {
         plugin.getLogger().info("正在同步保存所有玩家段位数据...");
         
-        int count = 0;
-        for (UUID uuid : dataCache.keySet()) {
-            PlayerData data = dataCache.get(uuid);
-            if (data != null) {
-                try {
-                    playerRepository.save(data);
-                    count++;
-                } catch (Exception ex) {
-                    plugin.getLogger().warning("保存玩家段位数据失败: " + data.getName() + " - " + ex.getMessage());
-                }
-            }
+        for (PlayerData data : dataCache.values()) {
+            writeQueue.markDirty(data);
         }
         
-        plugin.getLogger().info("已同步保存 " + count + " 个玩家段位数据");
+        int pending = writeQueue.getPendingCount();
+        int remaining = writeQueue.shutdown(plugin.getMainConfig().getWriteBehindShutdownTimeout());
+        
+        plugin.getLogger().info("已同步保存 " + (pending - remaining) + " 个玩家段位数据");
+        journal.close();
+        
+        plugin.getLogger().info("登录预加载统计: " + preloader.getMetricsSummary());
+        preloader.shutdown();
     }
 }
@@ -5,8 +5,12 @@ import org.bukkit.World;
 import org.bukkit.WorldCreator;
 import org.bukkit.WorldType;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 世界管理器
@@ -19,13 +23,154 @@ public class WorldManager {
     
     private final HunterGame plugin;
     
+    // 模板世界，未配置或模板不存在时为null
+    private final WorldTemplate worldTemplate;
+    
+    // 预生成世界池
+    private final WorldPool worldPool;
+    
+    // 正在后台复制模板的世界 -> 复制完成并加载后的回调
+    private final Map<String, List<Consumer<World>>> copying;
+    
     public WorldManager(HunterGame plugin) {
         this.plugin = plugin;
+        this.copying = new HashMap<>();
+        this.worldTemplate = loadTemplate();
+        this.worldPool = new WorldPool(plugin, this);
+        this.worldPool.start();
         plugin.getLogger().info("世界管理器已初始化");
     }
     
+    /**
+     * 加载模板世界配置
+     */
+    private WorldTemplate loadTemplate() {
+        String templateName = plugin.getManhuntConfig().getWorldTemplate();
+        if (templateName == null || templateName.isEmpty()) {
+            return null;
+        }
+        
+        WorldTemplate template = new WorldTemplate(plugin, templateName);
+        if (!template.isAvailable()) {
+            plugin.getLogger().warning("模板世界不存在: " + templateName + "，将重新生成游戏世界");
+            return null;
+        }
+        
+        plugin.getLogger().info("使用模板世界: " + templateName);
+        return template;
+    }
+    
+    /**
+     * 获取模板世界
+     * 
+     * @return 模板世界，未使用模板返回null
+     */
+    public WorldTemplate getWorldTemplate() {
+        return worldTemplate;
+    }
+    
+    /**
+     * 是否使用 Multiverse 管理世界
+     */
+    boolean isMultiverseMode() {
+        return plugin.getManhuntConfig().useMultiverse() && 
+            plugin.getIntegrationManager().isMultiverseEnabled();
+    }
+    
+    /**
+     * 准备游戏世界（创建游戏前调用）
+     * 启用世界池时世界在开始游戏时租用，这里不再同步生成；
+     * 需要复制模板时在后台复制，开始游戏前完成加载
+     * 
+     * @param worldName 世界名称
+     * @return 是否可以创建游戏
+     */
+    public boolean prepareGameWorld(String worldName) {
+        if (worldPool.isEnabled()) {
+            return true;
+        }
+        if (needsTemplateCopy(worldName)) {
+            loadOrCreateWorldAsync(worldName, world -> {
+                if (world == null) {
+                    plugin.getLogger().severe("准备游戏世界失败: " + worldName);
+                }
+            });
+            return true;
+        }
+        return loadOrCreateWorld(worldName) != null;
+    }
+    
+    /**
+     * 是否需要先复制模板（使用模板且世界文件尚未复制）
+     */
+    public boolean needsTemplateCopy(String worldName) {
+        return worldTemplate != null && !hasWorldFiles(worldName);
+    }
+    
+    /**
+     * 异步加载或创建游戏世界
+     * 需要复制模板时在后台线程复制，完成后回到主线程加载；否则直接在主线程加载。
+     * 同一世界正在复制时只追加回调，不重复复制
+     * 
+     * @param worldName 世界名称
+     * @param callback 主线程回调（主世界对象，失败为null）
+     */
+    public void loadOrCreateWorldAsync(String worldName, Consumer<World> callback) {
+        List<Consumer<World>> waiting = copying.get(worldName);
+        if (waiting != null) {
+            waiting.add(callback);
+            return;
+        }
+        
+        if (!needsTemplateCopy(worldName)) {
+            callback.accept(loadOrCreateWorld(worldName));
+            return;
+        }
+        
+        waiting = new ArrayList<>();
+        waiting.add(callback);
+        copying.put(worldName, waiting);
+        
+        plugin.getLogger().info("正在后台复制模板世界: " + worldName);
+        worldTemplate.cloneAsync(worldName, copied -> {
+            List<Consumer<World>> callbacks = copying.remove(worldName);
+            if (!copied) {
+                plugin.getLogger().warning("模板复制失败，将重新生成世界: " + worldName);
+            }
+            
+            World world = loadOrCreateWorld(worldName);
+            for (Consumer<World> waiter : callbacks) {
+                waiter.accept(world);
+            }
+        });
+    }
+    
+    /**
+     * 从世界池租用一组预生成的世界
+     * 
+     * @return 主世界名称，世界池未启用或没有就绪世界返回null
+     */
+    public String leaseWorld() {
+        return worldPool.lease();
+    }
+    
+    /**
+     * 是否为世界池中的世界
+     */
+    public boolean isPoolWorld(String worldName) {
+        return worldPool.contains(worldName);
+    }
+    
+    /**
+     * 获取世界池
+     */
+    public WorldPool getWorldPool() {
+        return worldPool;
+    }
+    
     /**
      * 加载或创建游戏世界（包括主世界、地狱、末地）
+     * 不复制模板：需要从模板创建的世界使用 {@link #loadOrCreateWorldAsync}
      * 
      * @param worldName 世界名称
      * @return 主世界对象，如果失败返回null
@@ -33,8 +178,7 @@ public class WorldManager {
     public World loadOrCreateWorld(String worldName) {
         try {
             // 如果启用 Multiverse 模式，使用 Multiverse 创建世界
-            if (plugin.getManhuntConfig().useMultiverse() && 
-                plugin.getIntegrationManager().isMultiverseEnabled()) {
+            if (isMultiverseMode()) {
                 
                 plugin.getLogger().info("使用 Multiverse-Core 创建游戏世界: " + worldName);
                 
@@ -95,7 +239,7 @@ public class WorldManager {
     /**
      * 使用原生方式创建单个世界
      */
-    private World createNativeWorld(String worldName, World.Environment environment) {
+    World createNativeWorld(String worldName, World.Environment environment) {
         try {
             // 检查世界是否已加载
             World world = plugin.getServer().getWorld(worldName);
@@ -222,67 +366,41 @@ public class WorldManager {
                 return false;
             }
             
-            // 如果启用 Multiverse 模式，使用 Multiverse 删除并重新创建世界
-            if (plugin.getManhuntConfig().useMultiverse() && 
-                plugin.getIntegrationManager().isMultiverseEnabled()) {
-                
-                plugin.getLogger().info("使用 Multiverse-Core 重置游戏世界: " + worldName);
-                
-                // 1. 删除旧世界
-                boolean deleteSuccess = plugin.getIntegrationManager()
-                    .getMultiverseIntegration()
-                    .deleteGameWorlds(worldName);
-                
-                if (!deleteSuccess) {
-                    plugin.getLogger().warning("Multiverse 删除世界失败: " + worldName);
-                    return false;
-                }
-                
-                plugin.getLogger().info("旧世界已删除，将在40 tick后重新创建...");
-                
-                // 2. 延迟重新创建世界（避免阻塞主线程）
-                plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                    boolean createSuccess = plugin.getIntegrationManager()
-                        .getMultiverseIntegration()
-                        .createGameWorlds(worldName);
-                    
-                    if (createSuccess) {
-                        plugin.getLogger().info("游戏世界已通过 Multiverse 重置完成: " + worldName);
-                        
-                        // 3. 设置新世界的配置
-                        World newWorld = plugin.getServer().getWorld(worldName);
-                        if (newWorld != null) {
-                            setupWorldSettings(newWorld);
-                        }
+            // 1. 删除旧世界
+            if (!deleteGameWorlds(worldName)) {
+                return false;
+            }
+            
+            // 世界池中的世界由预热任务在空闲时重新生成
+            if (worldPool.contains(worldName)) {
+                worldPool.release(worldName);
+                plugin.getLogger().info("世界池世界已删除，将在服务器空闲时重新生成: " + worldName);
+                return true;
+            }
+            
+            // 使用模板时在后台线程复制模板，完成后在主线程加载
+            if (worldTemplate != null) {
+                plugin.getLogger().info("旧世界已删除，正在后台复制模板世界...");
+                loadOrCreateWorldAsync(worldName, world -> {
+                    if (world != null) {
+                        plugin.getLogger().info("游戏世界已重置完成: " + worldName);
                     } else {
-                        plugin.getLogger().severe("Multiverse 重新创建世界失败: " + worldName);
+                        plugin.getLogger().severe("重新创建世界失败: " + worldName);
                     }
-                }, 40L); // 2秒后重新创建（40 tick = 2秒）
-                
+                });
                 return true;
             }
             
-            // 使用原生方式重置世界
-            plugin.getLogger().info("使用原生方式重置游戏世界: " + worldName);
-            
-            // 1. 先卸载所有相关世界（主世界、地狱、末地）
-            unloadWorld(worldName);
-            unloadWorld(worldName + "_nether");
-            unloadWorld(worldName + "_the_end");
-            
-            // 2. 删除世界文件夹（包括地狱和末地）
-            deleteWorldFiles(worldName);
-            
             plugin.getLogger().info("旧世界已删除，将在40 tick后重新创建...");
             
-            // 3. 延迟重新创建世界（避免阻塞主线程）
+            // 2. 延迟重新创建世界（避免阻塞主线程）
             plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
                 World world = loadOrCreateWorld(worldName);
                 
                 if (world != null) {
-                    plugin.getLogger().info("游戏世界已通过原生方式重置完成: " + worldName);
+                    plugin.getLogger().info("游戏世界已重置完成: " + worldName);
                 } else {
-                    plugin.getLogger().severe("原生方式重新创建世界失败: " + worldName);
+                    plugin.getLogger().severe("重新创建世界失败: " + worldName);
                 }
             }, 40L); // 2秒后重新创建（40 tick = 2秒）
             
@@ -295,6 +413,48 @@ public class WorldManager {
         }
     }
     
+    /**
+     * 删除游戏世界（主世界、地狱、末地）
+     * 
+     * @param worldName 世界名称
+     * @return 是否成功删除
+     */
+    boolean deleteGameWorlds(String worldName) {
+        // 如果启用 Multiverse 模式，使用 Multiverse 删除世界
+        if (isMultiverseMode()) {
+            plugin.getLogger().info("使用 Multiverse-Core 删除游戏世界: " + worldName);
+            
+            boolean success = plugin.getIntegrationManager()
+                .getMultiverseIntegration()
+                .deleteGameWorlds(worldName);
+            
+            if (!success) {
+                plugin.getLogger().warning("Multiverse 删除世界失败: " + worldName);
+            }
+            return success;
+        }
+        
+        // 使用原生方式删除世界
+        plugin.getLogger().info("使用原生方式删除游戏世界: " + worldName);
+        
+        // 先卸载所有相关世界（主世界、地狱、末地）
+        unloadWorld(worldName);
+        unloadWorld(worldName + "_nether");
+        unloadWorld(worldName + "_the_end");
+        
+        // 删除世界文件夹（包括地狱和末地）
+        deleteWorldFiles(worldName);
+        return true;
+    }
+    
+    /**
+     * 检查世界是否已加载或存在世界文件夹
+     */
+    boolean hasWorldFiles(String worldName) {
+        return plugin.getServer().getWorld(worldName) != null
+            || new java.io.File(plugin.getServer().getWorldContainer(), worldName).exists();
+    }
+    
     /**
      * 删除世界文件（包括主世界、地狱、末地）
      */
@@ -408,6 +568,7 @@ public class WorldManager {
      * 关闭管理器
      */
     public void shutdown() {
+        worldPool.shutdown();
         plugin.getLogger().info("世界管理器已关闭");
     }
 }
@@ -0,0 +1,261 @@
+package com.minecraft.huntergame.manager;
+
+import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.config.ServerType;
+import com.minecraft.huntergame.game.ManhuntGame;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 预生成世界池
+ * 服务器空闲（没有进行中的游戏）时在主线程逐步预生成K组游戏世界（主世界、地狱、末地），
+ * 原生模式每次只生成一个维度，把生成开销分散到多个周期；使用模板世界时先在后台复制模板文件。
+ * 开始游戏时直接租用已就绪的世界；世界重置后槽位回到空闲状态，由预热任务重新生成。
+ * 就绪数量通过 Redis 发布，作为服务器的容量信号
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class WorldPool {
+
+    // 池中世界名称: <游戏世界名称>_pool_<序号>
+    private static final String POOL_SUFFIX = "_pool_";
+
+    // 原生模式的生成顺序
+    private static final World.Environment[] DIMENSIONS = {
+        World.Environment.NORMAL, World.Environment.NETHER, World.Environment.THE_END
+    };
+
+    /**
+     * 槽位状态
+     */
+    private enum SlotState {
+        // 需要生成
+        EMPTY,
+        // 正在后台复制模板
+        COPYING,
+        // 正在生成（原生模式已生成部分维度）
+        GENERATING,
+        // 已就绪，可以租用
+        READY,
+        // 已被游戏租用
+        LEASED
+    }
+
+    private final HunterGame plugin;
+    private final WorldManager worldManager;
+
+    private final String[] names;
+    private final SlotState[] states;
+
+    // 原生模式下已生成的维度数
+    private final int[] progress;
+
+    // 就绪的槽位（先生成的先租用）
+    private final Deque<Integer> ready;
+
+    // 就绪数量（Redis 同步任务在异步线程读取）
+    private volatile int readyCount;
+
+    private BukkitTask warmupTask;
+
+    public WorldPool(HunterGame plugin, WorldManager worldManager) {
+        this.plugin = plugin;
+        this.worldManager = worldManager;
+
+        int size = plugin.getManhuntConfig().getWorldPoolSize();
+        String baseName = plugin.getManhuntConfig().getWorldName();
+        this.names = new String[size];
+        this.states = new SlotState[size];
+        this.progress = new int[size];
+        this.ready = new ArrayDeque<>(size);
+        for (int i = 0; i < size; i++) {
+            names[i] = baseName + POOL_SUFFIX + i;
+            states[i] = SlotState.EMPTY;
+        }
+    }
+
+    /**
+     * 启动预热任务
+     */
+    public void start() {
+        if (names.length == 0) {
+            return;
+        }
+
+        long interval = plugin.getManhuntConfig().getWorldPoolWarmupInterval() * 20L;
+        warmupTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::warmUp, interval, interval);
+        plugin.getLogger().info("世界池已启动 (容量: " + names.length + ", 预热间隔: " + interval / 20 + "秒)");
+    }
+
+    /**
+     * 预热一步：服务器空闲时为第一个未就绪的槽位生成一个维度
+     */
+    private void warmUp() {
+        if (!isServerIdle()) {
+            return;
+        }
+
+        for (int slot = 0; slot < names.length; slot++) {
+            if (states[slot] == SlotState.EMPTY || states[slot] == SlotState.GENERATING) {
+                generateStep(slot);
+                return;
+            }
+        }
+    }
+
+    private void generateStep(int slot) {
+        String name = names[slot];
+
+        // 开始生成前清理上次运行或使用后残留的世界
+        if (states[slot] == SlotState.EMPTY) {
+            if (worldManager.hasWorldFiles(name)) {
+                plugin.debug("清理世界池残留世界: " + name);
+                worldManager.deleteGameWorlds(name);
+            }
+            progress[slot] = 0;
+            
+            // 使用模板时先在后台复制，复制完成后的预热步骤只需加载世界
+            WorldTemplate template = worldManager.getWorldTemplate();
+            if (template != null) {
+                states[slot] = SlotState.COPYING;
+                template.cloneAsync(name, copied -> {
+                    if (states[slot] != SlotState.COPYING) {
+                        return;
+                    }
+                    if (!copied) {
+                        plugin.getLogger().warning("模板复制失败，将重新生成世界池世界: " + name);
+                    }
+                    states[slot] = SlotState.GENERATING;
+                });
+                return;
+            }
+            states[slot] = SlotState.GENERATING;
+        }
+
+        boolean done;
+        if (worldManager.isMultiverseMode()) {
+            // Multiverse 一次创建完整的三个维度
+            done = worldManager.loadOrCreateWorld(name) != null;
+        } else {
+            World.Environment environment = DIMENSIONS[progress[slot]];
+            done = worldManager.createNativeWorld(name, environment) != null
+                && ++progress[slot] == DIMENSIONS.length;
+        }
+
+        if (done) {
+            states[slot] = SlotState.READY;
+            ready.addLast(slot);
+            plugin.getLogger().info("世界池世界已就绪: " + name + " (就绪: " + ready.size() + "/" + names.length + ")");
+            publishDepth();
+        }
+    }
+
+    /**
+     * 服务器是否空闲（没有正在进行的游戏）
+     */
+    private boolean isServerIdle() {
+        for (ManhuntGame game : plugin.getManhuntManager().getAllGames()) {
+            if (game.getState().isRunning()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 租用一组已就绪的世界
+     *
+     * @return 主世界名称，没有就绪世界返回null
+     */
+    public String lease() {
+        Integer slot = ready.pollFirst();
+        if (slot == null) {
+            return null;
+        }
+
+        states[slot] = SlotState.LEASED;
+        plugin.debug("租用世界池世界: " + names[slot] + " (剩余就绪: " + ready.size() + ")");
+        publishDepth();
+        return names[slot];
+    }
+
+    /**
+     * 世界重置后归还槽位（等待预热任务重新生成）
+     */
+    public void release(String worldName) {
+        int slot = indexOf(worldName);
+        if (slot < 0) {
+            return;
+        }
+
+        if (states[slot] == SlotState.READY) {
+            ready.remove(slot);
+            publishDepth();
+        }
+        states[slot] = SlotState.EMPTY;
+        progress[slot] = 0;
+    }
+
+    /**
+     * 是否为世界池中的世界
+     */
+    public boolean contains(String worldName) {
+        return indexOf(worldName) >= 0;
+    }
+
+    private int indexOf(String worldName) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(worldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取就绪世界数量（可在任意线程调用）
+     */
+    public int getReadyCount() {
+        return readyCount;
+    }
+
+    /**
+     * 获取世界池容量
+     */
+    public int getSize() {
+        return names.length;
+    }
+
+    public boolean isEnabled() {
+        return names.length > 0;
+    }
+
+    /**
+     * 发布就绪数量到 Redis（仅子大厅服务器）
+     */
+    private void publishDepth() {
+        int depth = ready.size();
+        readyCount = depth;
+
+        if (plugin.getRedisManager() == null || !plugin.getRedisManager().isConnected()
+                || plugin.getManhuntConfig().getServerType() != ServerType.SUB_LOBBY) {
+            return;
+        }
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin,
+            () -> plugin.getRedisManager().updateWorldPoolDepth(depth, names.length));
+    }
+
+    /**
+     * 停止预热任务
+     */
+    public void shutdown() {
+        if (warmupTask != null) {
+            warmupTask.cancel();
+            warmupTask = null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.minecraft.huntergame.manager;
+
+import com.minecraft.huntergame.HunterGame;
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 世界模板
+ * 重置或预生成游戏世界时复制模板世界的文件夹（主世界、地狱、末地），代替重新生成地形。
+ * 文件先复制到临时文件夹，完成后整体移动为目标世界文件夹，复制一半的世界不会被加载。
+ * 异步复制在后台线程执行，完成后回到主线程，主线程只需加载复制好的世界
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class WorldTemplate {
+
+    // 不复制的文件：世界UID（同一服务器不能加载UID相同的世界）、锁文件和模板中的玩家数据
+    private static final Set<String> SKIPPED = new HashSet<>(Arrays.asList(
+        "uid.dat", "session.lock", "playerdata", "stats", "advancements"
+    ));
+
+    // 维度文件夹后缀
+    private static final String[] DIMENSION_SUFFIXES = {"", "_nether", "_the_end"};
+
+    // 临时文件夹后缀
+    private static final String STAGING_SUFFIX = ".copying";
+
+    private final HunterGame plugin;
+    private final String templateName;
+
+    public WorldTemplate(HunterGame plugin, String templateName) {
+        this.plugin = plugin;
+        this.templateName = templateName;
+    }
+
+    /**
+     * 模板是否可用（模板主世界文件夹存在）
+     */
+    public boolean isAvailable() {
+        return Files.isDirectory(container().resolve(templateName));
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    /**
+     * 异步复制模板，完成后在主线程回调
+     *
+     * @param worldName 目标世界名称
+     * @param callback 回调（是否成功）
+     */
+    public void cloneAsync(String worldName, Consumer<Boolean> callback) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean success = cloneTo(worldName);
+            Bukkit.getScheduler().runTask(plugin, () -> callback.accept(success));
+        });
+    }
+
+    /**
+     * 复制模板（后台线程执行）
+     *
+     * @param worldName 目标世界名称
+     * @return 是否成功
+     */
+    private boolean cloneTo(String worldName) {
+        long start = System.currentTimeMillis();
+        for (String suffix : DIMENSION_SUFFIXES) {
+            Path source = container().resolve(templateName + suffix);
+            if (!Files.isDirectory(source)) {
+                continue;
+            }
+
+            Path target = container().resolve(worldName + suffix);
+            if (!copyDimension(source, target)) {
+                return false;
+            }
+        }
+
+        plugin.debug("模板世界已复制: " + templateName + " -> " + worldName +
+            " (" + (System.currentTimeMillis() - start) + "ms)");
+        return true;
+    }
+
+    private boolean copyDimension(Path source, Path target) {
+        Path staging = target.resolveSibling(target.getFileName() + STAGING_SUFFIX);
+        try {
+            // 清理上次中断的复制
+            deleteTree(staging);
+
+            copyTree(source, staging);
+
+            // 目标文件夹已存在（例如复制期间被同步创建）时放弃本次复制
+            if (Files.exists(target)) {
+                throw new FileAlreadyExistsException(target.toString());
+            }
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+
+        } catch (FileAlreadyExistsException ex) {
+            plugin.getLogger().warning("世界文件夹已存在，跳过模板复制: " + target.getFileName());
+        } catch (IOException ex) {
+            plugin.getLogger().severe("复制模板世界失败: " + source.getFileName() + " -> " + target.getFileName());
+            ex.printStackTrace();
+        }
+
+        try {
+            deleteTree(staging);
+        } catch (IOException ex) {
+            plugin.getLogger().warning("无法删除临时文件夹: " + staging);
+        }
+        return false;
+    }
+
+    private void copyTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(source) && SKIPPED.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!SKIPPED.contains(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void deleteTree(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private Path container() {
+        return plugin.getServer().getWorldContainer().toPath();
+    }
+}
@@ -117,6 +117,20 @@ public class PlayerData {
     
     // ==================== 业务方法 ====================
     
+    /**
+     * 复制数据（用于在其他线程写入或序列化）
+     */
+    public PlayerData copy() {
+        PlayerData copy = new PlayerData(uuid, name);
+        copy.score = score;
+        copy.currentRank = currentRank;
+        copy.highestRank = highestRank;
+        copy.seasonId = seasonId;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+    
     /**
      * 增加分数
      */
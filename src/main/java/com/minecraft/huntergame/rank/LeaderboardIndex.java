@@ -0,0 +1,237 @@
+package com.minecraft.huntergame.rank;
+
+import com.minecraft.huntergame.models.PlayerData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * 段位排行榜内存索引
+ * 以分数为桶的树状数组(Fenwick)统计名次，按分数倒序的有序表提供前N名，
+ * 排名和排行榜查询均为 O(log n)，不访问数据库
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class LeaderboardIndex {
+
+    // 初始分数桶数量（超出时按倍数扩容）
+    private static final int INITIAL_CAPACITY = 4096;
+
+    // 树状数组，下标为 分数+1，值为该分数的玩家数
+    private int[] tree;
+
+    // 已索引玩家总数
+    private int size;
+
+    // 玩家 -> 索引条目
+    private final Map<UUID, Entry> entries;
+
+    // 分数 -> 该分数的玩家（倒序）
+    private final NavigableMap<Integer, Set<Entry>> byScore;
+
+    // 索引版本号，每次变更递增，供缓存判断是否过期
+    private volatile long version;
+
+    public LeaderboardIndex() {
+        this.tree = new int[INITIAL_CAPACITY + 1];
+        this.entries = new HashMap<>();
+        this.byScore = new TreeMap<>(Collections.reverseOrder());
+    }
+
+    /**
+     * 使用完整数据重建索引
+     */
+    public synchronized void rebuild(Collection<PlayerData> all) {
+        Arrays.fill(tree, 0);
+        size = 0;
+        entries.clear();
+        byScore.clear();
+
+        for (PlayerData data : all) {
+            update(data);
+        }
+        version++;
+    }
+
+    /**
+     * 更新玩家分数（不存在时插入）
+     */
+    public synchronized void update(PlayerData data) {
+        if (data == null) {
+            return;
+        }
+
+        int score = Math.max(0, data.getScore());
+        Entry entry = entries.get(data.getUuid());
+        version++;
+
+        if (entry == null) {
+            entry = new Entry(data.getUuid());
+            entries.put(entry.uuid, entry);
+            size++;
+        } else if (entry.score != score) {
+            removeFromScore(entry);
+        } else {
+            // 分数未变化，只刷新显示信息
+            entry.name = data.getName();
+            entry.highestRank = data.getHighestRank();
+            return;
+        }
+
+        entry.name = data.getName();
+        entry.highestRank = data.getHighestRank();
+        entry.score = score;
+        addToScore(entry);
+    }
+
+    /**
+     * 移除玩家
+     */
+    public synchronized void remove(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry != null) {
+            removeFromScore(entry);
+            size--;
+            version++;
+        }
+    }
+
+    /**
+     * 获取玩家排名（分数严格高于该玩家的人数 + 1）
+     *
+     * @return 排名，不在索引中返回0
+     */
+    public synchronized int getRank(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null) {
+            return 0;
+        }
+        return size - prefixCount(entry.score) + 1;
+    }
+
+    /**
+     * 获取前N名
+     */
+    public synchronized List<PlayerData> getTop(int limit) {
+        List<PlayerData> list = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+
+        for (Set<Entry> bucket : byScore.values()) {
+            for (Entry entry : bucket) {
+                if (list.size() >= limit) {
+                    return list;
+                }
+                list.add(entry.toPlayerData());
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * 获取索引版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取已索引玩家数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // ==================== 内部方法 ====================
+
+    private void addToScore(Entry entry) {
+        ensureCapacity(entry.score);
+        fenwickAdd(entry.score, 1);
+
+        Set<Entry> bucket = byScore.get(entry.score);
+        if (bucket == null) {
+            bucket = new LinkedHashSet<>();
+            byScore.put(entry.score, bucket);
+        }
+        bucket.add(entry);
+    }
+
+    private void removeFromScore(Entry entry) {
+        fenwickAdd(entry.score, -1);
+
+        Set<Entry> bucket = byScore.get(entry.score);
+        if (bucket != null) {
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                byScore.remove(entry.score);
+            }
+        }
+    }
+
+    /**
+     * 统计分数 <= score 的玩家数
+     */
+    private int prefixCount(int score) {
+        int count = 0;
+        for (int i = Math.min(score + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private void fenwickAdd(int score, int delta) {
+        for (int i = score + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 分数超出桶范围时扩容并重建树状数组
+     */
+    private void ensureCapacity(int score) {
+        if (score + 1 < tree.length) {
+            return;
+        }
+
+        int capacity = tree.length - 1;
+        while (score + 1 > capacity) {
+            capacity *= 2;
+        }
+
+        tree = new int[capacity + 1];
+        for (Map.Entry<Integer, Set<Entry>> bucket : byScore.entrySet()) {
+            fenwickAdd(bucket.getKey(), bucket.getValue().size());
+        }
+    }
+
+    /**
+     * 索引条目
+     */
+    private static final class Entry {
+        private final UUID uuid;
+        private String name;
+        private int score;
+        private Rank highestRank;
+
+        private Entry(UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        private PlayerData toPlayerData() {
+            PlayerData data = new PlayerData(uuid, name);
+            data.setScore(score);
+            data.setHighestRank(highestRank != null ? highestRank : Rank.UNRANKED);
+            return data;
+        }
+    }
+}
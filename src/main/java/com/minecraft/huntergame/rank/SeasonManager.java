@@ -24,6 +24,12 @@ public class SeasonManager {
     private long seasonStartTime;
     private long seasonEndTime;
     
+    // 当前/最近一次赛季结算任务
+    private SeasonRolloverJob rolloverJob;
+    
+    // 结算期间又开始了新赛季，需在当前任务完成后再结算一次
+    private boolean rolloverPending;
+    
     public SeasonManager(HunterGame plugin) {
         this.plugin = plugin;
         loadSeasonConfig();
@@ -169,6 +175,45 @@ public class SeasonManager {
         plugin.getStatsManager().setCurrentSeasonId(currentSeasonId);
         
         plugin.getLogger().info("新赛季已开始: S" + currentSeasonId);
+        
+        // 写完旧赛季数据并重置内存中的数据后，后台结算数据库中的旧赛季数据
+        plugin.getStatsManager().prepareSeasonRollover(currentSeasonId, this::startRollover);
+    }
+    
+    /**
+     * 启动赛季结算任务
+     * 已有任务运行时等待其完成后再启动（新任务的条件 season_id < 新赛季 会覆盖未完成的部分）
+     */
+    private void startRollover() {
+        if (rolloverJob != null && rolloverJob.isRunning()) {
+            rolloverPending = true;
+            plugin.getLogger().warning("上一次赛季结算仍在进行，完成后将继续结算到 S" + currentSeasonId);
+            return;
+        }
+        
+        rolloverPending = false;
+        
+        int chunkSize = seasonConfig.getInt("rollover-chunk-size", 1000);
+        rolloverJob = new SeasonRolloverJob(plugin, currentSeasonId, chunkSize);
+        rolloverJob.start();
+    }
+    
+    /**
+     * 赛季结算任务完成回调（主线程）
+     */
+    void onRolloverFinished() {
+        if (rolloverPending) {
+            startRollover();
+        }
+    }
+    
+    /**
+     * 获取最近一次赛季结算任务
+     * 
+     * @return 结算任务，未执行过返回null
+     */
+    public SeasonRolloverJob getRolloverJob() {
+        return rolloverJob;
     }
     
     /**
@@ -232,7 +277,8 @@ public class SeasonManager {
      */
     public void startSeasonCheckTask() {
         // 每小时检查一次赛季是否结束
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+        // 重置会修改缓存和广播消息，在主线程执行；数据库结算由结算任务异步完成
+        plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
             checkAutoReset();
         }, 20L * 60 * 60, 20L * 60 * 60); // 1小时
         
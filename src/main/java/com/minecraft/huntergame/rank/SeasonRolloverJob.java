@@ -0,0 +1,131 @@
+package com.minecraft.huntergame.rank;
+
+import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.database.PlayerRepository;
+import com.minecraft.huntergame.database.StorageBackend;
+
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 赛季结算任务
+ * 在异步线程中分批将旧赛季数据归档到 player_season_history 并重置分数，
+ * 每批一个事务，避免长时间锁表；完成后在主线程重建排行榜索引
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class SeasonRolloverJob implements Runnable {
+
+    // 两批之间的间隔(毫秒)，让出数据库给其他写入
+    private static final long CHUNK_PAUSE_MILLIS = 50L;
+
+    private final HunterGame plugin;
+    private final PlayerRepository playerRepository;
+    private final int newSeasonId;
+    private final int chunkSize;
+
+    private volatile int total;
+    private volatile int processed;
+    private volatile boolean running;
+
+    public SeasonRolloverJob(HunterGame plugin, int newSeasonId, int chunkSize) {
+        this.plugin = plugin;
+        this.playerRepository = plugin.getPlayerRepository();
+        this.newSeasonId = newSeasonId;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 异步启动任务
+     */
+    public void start() {
+        running = true;
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this);
+    }
+
+    @Override
+    public void run() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            total = playerRepository.countBeforeSeason(newSeasonId);
+            plugin.getLogger().info("开始结算赛季数据: " + total + " 名玩家 (每批 " + chunkSize + ")");
+
+            int lastPercent = 0;
+            String cursor = "";
+
+            while (true) {
+                // 写入交给数据库写线程，与玩家数据写入串行
+                String afterKey = cursor;
+                StorageBackend.RolloverChunk chunk = plugin.getDatabaseManager().getWriteExecutor()
+                    .submit(() -> playerRepository.rolloverSeasonChunk(newSeasonId, afterKey, chunkSize)).get();
+                if (chunk.isDone()) {
+                    break;
+                }
+                cursor = chunk.getLastKey();
+                processed += chunk.getCount();
+
+                int percent = getProgressPercent();
+                if (percent / 10 > lastPercent / 10) {
+                    plugin.getLogger().info("赛季结算进度: " + processed + "/" + total + " (" + percent + "%)");
+                    lastPercent = percent;
+                }
+
+                Thread.sleep(CHUNK_PAUSE_MILLIS);
+            }
+
+            plugin.getLogger().info("赛季数据结算完成: " + processed + " 名玩家，耗时 "
+                + (System.currentTimeMillis() - startTime) + "ms");
+        } catch (SQLException | ExecutionException ex) {
+            Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+            plugin.getLogger().severe("赛季数据结算失败 (" + processed + "/" + total + "): " + cause.getMessage());
+            plugin.getLogger().severe("未结算的玩家将在下次登录时按新赛季重置");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().warning("赛季数据结算被中断 (" + processed + "/" + total + ")");
+        } finally {
+            // 在主线程一次性重建排行榜索引
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                running = false;
+                plugin.getStatsManager().refreshLeaderboardCache();
+                plugin.getSeasonManager().onRolloverFinished();
+            });
+        }
+    }
+
+    /**
+     * 是否正在运行
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 获取结算的新赛季ID
+     */
+    public int getNewSeasonId() {
+        return newSeasonId;
+    }
+
+    /**
+     * 获取需要结算的玩家总数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * 获取已结算的玩家数
+     */
+    public int getProcessed() {
+        return processed;
+    }
+
+    /**
+     * 获取进度百分比
+     */
+    public int getProgressPercent() {
+        return total <= 0 ? 100 : Math.min(100, processed * 100 / total);
+    }
+}
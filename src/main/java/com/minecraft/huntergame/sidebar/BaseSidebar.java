@@ -1,6 +1,7 @@
 package com.minecraft.huntergame.sidebar;
 
 import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.config.LineTemplate;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.DisplaySlot;
@@ -8,6 +9,8 @@ import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.Team;
 
+import java.util.List;
+
 /**
  * 计分板基类
  * <p>
@@ -16,6 +19,15 @@ import org.bukkit.scoreboard.Team;
  * - 生成唯一的 entry
  * - 设置行内容
  * </p>
+ * <p>
+ * 每行的 entry 和 Team 只创建一次，并缓存已发送的前缀和后缀；
+ * 更新时只有文本变化的行才会修改 Team，未变化的行不发送任何数据包。
+ * 子类在 update() 中先调用 {@link #beginLines()}，设置完所有行后调用 {@link #finishLines()}
+ * </p>
+ * <p>
+ * 模板行按刷新类别更新：{@link #refresh()} 只在计分板被标记失效（游戏事件）时重建所有行，
+ * 否则只重新渲染计时器行；没有计时器行且未失效的计分板不做任何工作
+ * </p>
  * 
  * @author YourName
  * @version 1.0.0
@@ -32,11 +44,48 @@ public abstract class BaseSidebar {
      */
     protected static final int MAX_SUFFIX_LENGTH = 32;
     
+    /**
+     * 最大行号（计分板最多显示15行）
+     */
+    protected static final int MAX_LINES = 16;
+    
+    // 预生成的空行文本
+    private static final String[] EMPTY_LINES = new String[MAX_LINES];
+    
+    static {
+        StringBuilder spaces = new StringBuilder();
+        for (int i = 0; i < MAX_LINES; i++) {
+            spaces.append(" ");
+            EMPTY_LINES[i] = spaces.toString();
+        }
+    }
+    
     protected final HunterGame plugin;
     protected final Player player;
     protected Scoreboard scoreboard;
     protected Objective objective;
     
+    // 每行的 Team（首次使用时创建）
+    private final Team[] lineTeams = new Team[MAX_LINES];
+    
+    // 每行已发送的前缀和后缀，null表示该行未显示
+    private final String[] renderedPrefixes = new String[MAX_LINES];
+    private final String[] renderedSuffixes = new String[MAX_LINES];
+    
+    // 本次更新设置过的行
+    private final boolean[] touched = new boolean[MAX_LINES];
+    
+    // 模板渲染缓冲区（每次渲染前清空复用）
+    private final StringBuilder lineBuffer = new StringBuilder(MAX_SUFFIX_LENGTH);
+    
+    // 每行使用的模板（非模板行为null），用于只刷新计时器行
+    private final LineTemplate[] lineTemplates = new LineTemplate[MAX_LINES];
+    private LineTemplate.Resolver lineResolver;
+    private boolean hasTimerLines;
+    
+    // 是否需要重建所有行（创建时和游戏事件后）
+    private boolean dirty = true;
+    
     /**
      * 构造函数
      * 
@@ -69,43 +118,194 @@ public abstract class BaseSidebar {
      */
     public abstract void update();
     
+    /**
+     * 按刷新类别更新计分板
+     * <p>
+     * 已失效时完整更新，否则只重新渲染计时器行
+     * </p>
+     */
+    public void refresh() {
+        if (dirty) {
+            update();
+        } else if (hasTimerLines) {
+            renderTimerLines();
+        }
+    }
+    
+    /**
+     * 标记计分板失效（游戏事件导致事件行变化），下次刷新时重建所有行
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+    
+    /**
+     * 是否需要重建所有行
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+    
+    /**
+     * 是否包含计时器行
+     */
+    protected boolean hasTimerLines() {
+        return hasTimerLines;
+    }
+    
     /**
      * 使用 Team 设置行内容（高版本适配，移除右侧数字）
+     * <p>
+     * 只发送变化的部分：前缀、后缀都未变化时不修改 Team，
+     * 比较直接在文本上进行，未变化时不创建新字符串
+     * </p>
      * 
      * @param line 行号（用于排序）
      * @param text 显示文本
      */
-    protected void setLine(int line, String text) {
-        // 生成唯一的 entry（使用不可见字符）
-        String entry = generateUniqueEntry(line);
+    protected void setLine(int line, CharSequence text) {
+        if (line < 0 || line >= MAX_LINES) {
+            return; // 超出计分板可显示的行数
+        }
+        touched[line] = true;
+        
+        // 文本过长时分割显示
+        int length = text.length();
+        int prefixEnd = Math.min(length, MAX_PREFIX_LENGTH);
+        int suffixEnd = Math.max(prefixEnd, Math.min(length, MAX_SUFFIX_LENGTH));
         
-        // 创建或获取 Team
+        Team team = lineTeams[line];
+        if (team == null) {
+            team = createLineTeam(line);
+        }
+        
+        if (renderedPrefixes[line] == null) {
+            // 该行之前未显示，设置分数使其出现（用于排序，但不会显示因为使用了 Team）
+            objective.getScore(generateUniqueEntry(line)).setScore(line);
+        }
+        
+        if (!regionEquals(renderedPrefixes[line], text, 0, prefixEnd)) {
+            String prefix = text.subSequence(0, prefixEnd).toString();
+            team.setPrefix(prefix);
+            renderedPrefixes[line] = prefix;
+        }
+        if (!regionEquals(renderedSuffixes[line], text, prefixEnd, suffixEnd)) {
+            String suffix = text.subSequence(prefixEnd, suffixEnd).toString();
+            team.setSuffix(suffix);
+            renderedSuffixes[line] = suffix;
+        }
+    }
+    
+    /**
+     * 比较已发送的文本与新文本的指定区间
+     */
+    private static boolean regionEquals(String rendered, CharSequence text, int from, int to) {
+        if (rendered == null || rendered.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (rendered.charAt(i - from) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 按顺序渲染编译后的行模板
+     * 
+     * @param templates 行模板
+     * @param line 起始行号（向下递减）
+     * @param emptyCounter 空行计数器
+     * @param resolver 变量值提供者
+     */
+    protected void renderLines(List<LineTemplate> templates, int line, int emptyCounter,
+                               LineTemplate.Resolver resolver) {
+        lineResolver = resolver;
+        for (LineTemplate template : templates) {
+            if (!isLineVisible(template)) {
+                continue;
+            }
+            if (template.isBlank()) {
+                setLine(line--, generateEmptyLine(emptyCounter++));
+            } else {
+                if (line >= 0 && line < MAX_LINES) {
+                    lineTemplates[line] = template;
+                    hasTimerLines |= template.getRefreshClass() == LineTemplate.RefreshClass.TIMER;
+                }
+                lineBuffer.setLength(0);
+                template.render(lineBuffer, resolver);
+                setLine(line--, lineBuffer);
+            }
+        }
+    }
+    
+    /**
+     * 只重新渲染计时器行（行布局不变）
+     */
+    protected void renderTimerLines() {
+        for (int i = 0; i < MAX_LINES; i++) {
+            LineTemplate template = lineTemplates[i];
+            if (template != null && template.getRefreshClass() == LineTemplate.RefreshClass.TIMER) {
+                lineBuffer.setLength(0);
+                template.render(lineBuffer, lineResolver);
+                setLine(i, lineBuffer);
+            }
+        }
+    }
+    
+    /**
+     * 行模板是否显示（子类可根据显示开关隐藏部分行）
+     * 
+     * @param template 行模板
+     * @return 是否显示
+     */
+    protected boolean isLineVisible(LineTemplate template) {
+        return true;
+    }
+    
+    /**
+     * 创建行的 Team 并添加 entry（每行只执行一次）
+     */
+    private Team createLineTeam(int line) {
         String teamName = "line_" + line;
         Team team = scoreboard.getTeam(teamName);
         if (team == null) {
             team = scoreboard.registerNewTeam(teamName);
         }
         
-        // 清除旧的 entry
-        for (String oldEntry : team.getEntries()) {
-            team.removeEntry(oldEntry);
+        String entry = generateUniqueEntry(line);
+        if (!team.hasEntry(entry)) {
+            team.addEntry(entry);
         }
         
-        // 设置显示文本
-        if (text.length() <= MAX_PREFIX_LENGTH) {
-            team.setPrefix(text);
-            team.setSuffix("");
-        } else {
-            // 文本过长，分割显示
-            team.setPrefix(text.substring(0, MAX_PREFIX_LENGTH));
-            team.setSuffix(text.substring(MAX_PREFIX_LENGTH, Math.min(text.length(), MAX_SUFFIX_LENGTH)));
+        lineTeams[line] = team;
+        return team;
+    }
+    
+    /**
+     * 开始一次更新
+     */
+    protected void beginLines() {
+        for (int i = 0; i < MAX_LINES; i++) {
+            touched[i] = false;
+            lineTemplates[i] = null;
         }
-        
-        // 添加 entry 到 team
-        team.addEntry(entry);
-        
-        // 设置分数（用于排序，但不会显示因为使用了 Team）
-        objective.getScore(entry).setScore(line);
+        hasTimerLines = false;
+    }
+    
+    /**
+     * 结束一次更新，隐藏本次未设置的行
+     */
+    protected void finishLines() {
+        for (int i = 0; i < MAX_LINES; i++) {
+            if (!touched[i] && renderedPrefixes[i] != null) {
+                scoreboard.resetScores(generateUniqueEntry(i));
+                renderedPrefixes[i] = null;
+                renderedSuffixes[i] = null;
+            }
+        }
+        dirty = false;
     }
     
     /**
@@ -135,6 +335,9 @@ public abstract class BaseSidebar {
      * @return 空行字符串
      */
     protected String generateEmptyLine(int counter) {
+        if (counter >= 0 && counter < MAX_LINES) {
+            return EMPTY_LINES[counter];
+        }
         StringBuilder spaces = new StringBuilder();
         for (int i = 0; i <= counter; i++) {
             spaces.append(" ");
@@ -147,6 +350,10 @@ public abstract class BaseSidebar {
      */
     protected void clearLines() {
         scoreboard.getEntries().forEach(scoreboard::resetScores);
+        for (int i = 0; i < MAX_LINES; i++) {
+            renderedPrefixes[i] = null;
+            renderedSuffixes[i] = null;
+        }
     }
     
     /**
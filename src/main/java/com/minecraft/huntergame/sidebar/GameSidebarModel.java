@@ -0,0 +1,122 @@
+package com.minecraft.huntergame.sidebar;
+
+import com.minecraft.huntergame.game.GameState;
+import com.minecraft.huntergame.game.ManhuntGame;
+
+/**
+ * 游戏计分板数据
+ * 每局游戏一个，每个更新周期在主线程计算一次全局数据（状态、人数、时间），
+ * 同一游戏的所有玩家计分板共享，玩家计分板只需补充角色和复活次数。
+ * 时间数据每个周期重新计算；状态和人数只在游戏事件标记失效 ({@link #invalidate()}) 后重新计算
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class GameSidebarModel {
+
+    private final ManhuntGame game;
+
+    // 构建时所在的更新周期
+    private long cycle;
+
+    // 状态和人数是否需要重新计算
+    private boolean dirty;
+
+    private GameState state;
+    private int aliveRunners;
+    private int totalRunners;
+    private int hunters;
+    private int aliveHunters;
+    private boolean preparing;
+    private long prepareRemaining;
+    private long elapsed;
+    private long remaining;
+
+    public GameSidebarModel(ManhuntGame game) {
+        this.game = game;
+        this.cycle = -1;
+        this.dirty = true;
+    }
+
+    /**
+     * 重新计算游戏数据（主线程调用），同一周期内重复调用直接返回
+     *
+     * @param cycle 当前更新周期
+     * @return 当前对象
+     */
+    public GameSidebarModel refresh(long cycle) {
+        if (this.cycle == cycle) {
+            return this;
+        }
+        this.cycle = cycle;
+
+        if (dirty) {
+            dirty = false;
+            state = game.getState();
+            aliveRunners = game.getAliveRunners().size();
+            totalRunners = game.getRunners().size();
+            hunters = game.getHunters().size();
+            aliveHunters = game.getAliveHunters().size();
+            preparing = game.isPreparing();
+        }
+        prepareRemaining = (game.getPrepareEndTime() - System.currentTimeMillis()) / 1000;
+        elapsed = game.getElapsedTime();
+        remaining = game.getRemainingTime();
+        return this;
+    }
+
+    /**
+     * 标记状态和人数失效（游戏事件后调用），同一周期内已计算的数据也会重新计算
+     */
+    public void invalidate() {
+        dirty = true;
+        cycle = -1;
+    }
+
+    public ManhuntGame getGame() {
+        return game;
+    }
+
+    public long getCycle() {
+        return cycle;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public int getAliveRunners() {
+        return aliveRunners;
+    }
+
+    public int getTotalRunners() {
+        return totalRunners;
+    }
+
+    public int getHunters() {
+        return hunters;
+    }
+
+    public int getAliveHunters() {
+        return aliveHunters;
+    }
+
+    public boolean isPreparing() {
+        return preparing;
+    }
+
+    public long getPrepareRemaining() {
+        return prepareRemaining;
+    }
+
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * 获取剩余游戏时间(秒)，-1表示无限制
+     */
+    public long getRemaining() {
+        return remaining;
+    }
+}
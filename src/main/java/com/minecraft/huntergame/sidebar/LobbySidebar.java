@@ -1,7 +1,7 @@
 package com.minecraft.huntergame.sidebar;
 
 import com.minecraft.huntergame.HunterGame;
-import org.bukkit.ChatColor;
+import com.minecraft.huntergame.config.LineTemplate;
 import org.bukkit.entity.Player;
 
 /**
@@ -18,6 +18,9 @@ import org.bukkit.entity.Player;
  */
 public class LobbySidebar extends BaseSidebar {
     
+    // 变量值提供者（复用同一实例）
+    private final LineTemplate.Resolver resolver = this::appendVariable;
+    
     /**
      * 构造函数
      * 
@@ -36,34 +39,36 @@ public class LobbySidebar extends BaseSidebar {
      */
     @Override
     public void update() {
-        clearLines();
+        beginLines();
         
-        int line = 10;
-        int emptyCounter = 0;
+        // 使用配置的行（加载时已编译）
+        renderLines(plugin.getScoreboardConfig().getLobbyTemplates(), 10, 0, resolver);
         
-        // 使用配置的行
-        for (String lineText : plugin.getScoreboardConfig().getLobbyLines()) {
-            if (lineText.isEmpty()) {
-                setLine(line--, generateEmptyLine(emptyCounter++));
-            } else {
-                String formatted = formatLine(lineText);
-                setLine(line--, formatted);
-            }
-        }
+        finishLines();
     }
     
     /**
-     * 格式化行（替换变量）
+     * 追加变量值
      * 
-     * @param line 原始行文本
-     * @return 格式化后的文本
+     * @param variable 变量
+     * @param out 输出
      */
-    private String formatLine(String line) {
-        line = ChatColor.translateAlternateColorCodes('&', line);
-        line = line.replace("{player_count}", "0");
-        line = line.replace("{max_players}", String.valueOf(plugin.getManhuntConfig().getMaxPlayers()));
-        line = line.replace("{status}", "等待中");
-        line = line.replace("{server}", "Server");
-        return line;
+    private void appendVariable(LineTemplate.Variable variable, StringBuilder out) {
+        switch (variable) {
+            case PLAYER_COUNT:
+                out.append('0');
+                break;
+            case MAX_PLAYERS:
+                out.append(plugin.getManhuntConfig().getMaxPlayers());
+                break;
+            case STATUS:
+                out.append("等待中");
+                break;
+            case SERVER:
+                out.append("Server");
+                break;
+            default:
+                break;
+        }
     }
 }
@@ -1,11 +1,16 @@
 package com.minecraft.huntergame.sidebar;
 
 import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.config.LineTemplate;
+import com.minecraft.huntergame.config.ScoreboardConfig;
+import com.minecraft.huntergame.game.GameState;
 import com.minecraft.huntergame.game.ManhuntGame;
 import com.minecraft.huntergame.game.PlayerRole;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
+import java.util.List;
+
 /**
  * Manhunt 游戏计分板
  * <p>
@@ -23,6 +28,13 @@ public class ManhuntSidebar extends BaseSidebar {
     
     private final ManhuntGame game;
     
+    // 变量值提供者（复用同一实例）
+    private final LineTemplate.Resolver resolver = this::appendVariable;
+    
+    // 渲染模板使用的数据（角色在完整更新时读取，游戏数据每次刷新时设置）
+    private GameSidebarModel model;
+    private PlayerRole role;
+    
     /**
      * 构造函数
      * 
@@ -40,12 +52,58 @@ public class ManhuntSidebar extends BaseSidebar {
     }
     
     /**
-     * 更新侧边栏
+     * 更新侧边栏（单独计算游戏数据）
      */
     @Override
     public void update() {
-        // 清除旧分数
-        clearLines();
+        update(new GameSidebarModel(game).refresh(0));
+    }
+    
+    /**
+     * 按刷新类别更新侧边栏（单独计算游戏数据）
+     */
+    @Override
+    public void refresh() {
+        refresh(new GameSidebarModel(game).refresh(0));
+    }
+    
+    /**
+     * 使用本周期共享的游戏数据按刷新类别更新侧边栏
+     * 已失效或使用内置布局时完整更新，否则只刷新计时器行
+     * 
+     * @param model 游戏计分板数据
+     */
+    public void refresh(GameSidebarModel model) {
+        if (isDirty() || plugin.getScoreboardConfig().getGameTemplates().isEmpty()) {
+            update(model);
+            return;
+        }
+        if (hasTimerLines()) {
+            this.model = model;
+            renderTimerLines();
+            this.model = null;
+        }
+    }
+    
+    /**
+     * 使用本周期共享的游戏数据更新侧边栏
+     * 
+     * @param model 游戏计分板数据
+     */
+    public void update(GameSidebarModel model) {
+        // 开始更新（只发送变化的行）
+        beginLines();
+        
+        // 配置了自定义行时使用编译后的模板
+        List<LineTemplate> templates = plugin.getScoreboardConfig().getGameTemplates();
+        if (!templates.isEmpty()) {
+            this.model = model;
+            this.role = game.getPlayerRole(player.getUniqueId());
+            renderLines(templates, 15, 0, resolver);
+            this.model = null;
+            finishLines();
+            return;
+        }
         
         int line = 15;
         int emptyLineCounter = 0; // 用于生成唯一的空行
@@ -55,7 +113,7 @@ public class ManhuntSidebar extends BaseSidebar {
         
         // 游戏状态
         if (plugin.getScoreboardConfig().isShowState()) {
-            String state = getStateDisplay();
+            String state = getStateDisplay(model.getState());
             setLine(line--, ChatColor.YELLOW + "状态: " + state);
             
             // 空行
@@ -82,13 +140,10 @@ public class ManhuntSidebar extends BaseSidebar {
         
         // 存活人数
         if (plugin.getScoreboardConfig().isShowAliveCount()) {
-            int aliveRunners = game.getAliveRunners().size();
-            int totalRunners = game.getRunners().size();
-            setLine(line--, ChatColor.YELLOW + "逃亡者: " + ChatColor.GREEN + aliveRunners + 
-                ChatColor.GRAY + "/" + totalRunners);
+            setLine(line--, ChatColor.YELLOW + "逃亡者: " + ChatColor.GREEN + model.getAliveRunners() + 
+                ChatColor.GRAY + "/" + model.getTotalRunners());
             
-            int hunters = game.getHunters().size();
-            setLine(line--, ChatColor.YELLOW + "猎人: " + ChatColor.RED + hunters);
+            setLine(line--, ChatColor.YELLOW + "猎人: " + ChatColor.RED + model.getHunters());
             
             // 空行
             setLine(line--, generateEmptyLine(emptyLineCounter++));
@@ -96,26 +151,113 @@ public class ManhuntSidebar extends BaseSidebar {
         
         // 游戏时间
         if (plugin.getScoreboardConfig().isShowTime()) {
-            if (game.isPreparing()) {
-                long remaining = (game.getPrepareEndTime() - System.currentTimeMillis()) / 1000;
-                setLine(line--, ChatColor.YELLOW + "准备: " + ChatColor.GREEN + remaining + "秒");
-            } else if (game.getState() == com.minecraft.huntergame.game.GameState.PLAYING) {
-                long elapsed = game.getElapsedTime();
-                setLine(line--, ChatColor.YELLOW + "时间: " + ChatColor.AQUA + formatTime(elapsed));
+            if (model.isPreparing()) {
+                setLine(line--, ChatColor.YELLOW + "准备: " + ChatColor.GREEN + model.getPrepareRemaining() + "秒");
+            } else if (model.getState() == GameState.PLAYING) {
+                setLine(line--, ChatColor.YELLOW + "时间: " + ChatColor.AQUA + formatTime(model.getElapsed()));
             }
             
             // 空行
             setLine(line--, generateEmptyLine(emptyLineCounter++));
         }
+        
+        // 隐藏本次未显示的行
+        finishLines();
+    }
+    
+    /**
+     * 根据显示开关和玩家角色判断模板行是否显示
+     */
+    @Override
+    protected boolean isLineVisible(LineTemplate template) {
+        ScoreboardConfig config = plugin.getScoreboardConfig();
+        if (template.uses(LineTemplate.Variable.STATE) && !config.isShowState()) {
+            return false;
+        }
+        if ((template.uses(LineTemplate.Variable.ROLE) || template.uses(LineTemplate.Variable.ROLE_COLOR))
+                && (!config.isShowRole() || role == null)) {
+            return false;
+        }
+        // 复活次数仅逃亡者显示
+        if ((template.uses(LineTemplate.Variable.RESPAWNS) || template.uses(LineTemplate.Variable.MAX_RESPAWNS))
+                && (!config.isShowRespawns() || role != PlayerRole.RUNNER)) {
+            return false;
+        }
+        if ((template.uses(LineTemplate.Variable.ALIVE_RUNNERS) || template.uses(LineTemplate.Variable.TOTAL_RUNNERS)
+                || template.uses(LineTemplate.Variable.ALIVE_HUNTERS) || template.uses(LineTemplate.Variable.TOTAL_HUNTERS))
+                && !config.isShowAliveCount()) {
+            return false;
+        }
+        if (template.uses(LineTemplate.Variable.TIME) || template.uses(LineTemplate.Variable.REMAINING_TIME)) {
+            // 只在准备阶段和游戏进行中显示时间
+            return config.isShowTime() && (model.isPreparing() || model.getState() == GameState.PLAYING);
+        }
+        return true;
+    }
+    
+    /**
+     * 追加变量值
+     * 
+     * @param variable 变量
+     * @param out 输出
+     */
+    private void appendVariable(LineTemplate.Variable variable, StringBuilder out) {
+        ScoreboardConfig config = plugin.getScoreboardConfig();
+        switch (variable) {
+            case STATE:
+                out.append(config.getStateText(model.getState().name()));
+                break;
+            case ROLE:
+                out.append(config.getRoleName(role.name()));
+                break;
+            case ROLE_COLOR:
+                out.append(config.getRoleColor(role.name()));
+                break;
+            case RESPAWNS:
+                out.append(game.getRemainingRespawns(player.getUniqueId()));
+                break;
+            case MAX_RESPAWNS:
+                out.append(game.getRespawnLimit());
+                break;
+            case ALIVE_RUNNERS:
+                out.append(model.getAliveRunners());
+                break;
+            case TOTAL_RUNNERS:
+                out.append(model.getTotalRunners());
+                break;
+            case ALIVE_HUNTERS:
+                out.append(model.getAliveHunters());
+                break;
+            case TOTAL_HUNTERS:
+                out.append(model.getHunters());
+                break;
+            case TIME:
+                if (model.isPreparing()) {
+                    out.append(model.getPrepareRemaining()).append('秒');
+                } else {
+                    appendTime(out, model.getElapsed());
+                }
+                break;
+            case REMAINING_TIME:
+                if (model.getRemaining() < 0) {
+                    out.append("无限制");
+                } else {
+                    appendTime(out, model.getRemaining());
+                }
+                break;
+            default:
+                break;
+        }
     }
     
     /**
      * 获取状态显示
      * 
+     * @param state 游戏状态
      * @return 格式化的状态文本
      */
-    private String getStateDisplay() {
-        switch (game.getState()) {
+    private String getStateDisplay(GameState state) {
+        switch (state) {
             case WAITING:
                 return ChatColor.GRAY + "等待中";
             case PREPARING:
@@ -129,6 +271,10 @@ public class ManhuntSidebar extends BaseSidebar {
         }
     }
     
+    public ManhuntGame getGame() {
+        return game;
+    }
+    
     /**
      * 获取角色显示
      * 
@@ -148,6 +294,34 @@ public class ManhuntSidebar extends BaseSidebar {
         }
     }
     
+    /**
+     * 追加格式化的时间（HH:MM:SS 或 MM:SS）
+     * 
+     * @param out 输出
+     * @param seconds 秒数
+     */
+    private static void appendTime(StringBuilder out, long seconds) {
+        long hours = seconds / 3600;
+        long minutes = (seconds % 3600) / 60;
+        long secs = seconds % 60;
+        
+        if (hours > 0) {
+            out.append(hours).append(':');
+            appendTwoDigits(out, minutes);
+        } else {
+            out.append(minutes);
+        }
+        out.append(':');
+        appendTwoDigits(out, secs);
+    }
+    
+    private static void appendTwoDigits(StringBuilder out, long value) {
+        if (value < 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+    
     /**
      * 格式化时间
      * 
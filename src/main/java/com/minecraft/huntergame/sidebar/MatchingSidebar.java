@@ -1,8 +1,8 @@
 package com.minecraft.huntergame.sidebar;
 
 import com.minecraft.huntergame.HunterGame;
+import com.minecraft.huntergame.config.LineTemplate;
 import com.minecraft.huntergame.game.ManhuntGame;
-import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
 /**
@@ -21,6 +21,9 @@ public class MatchingSidebar extends BaseSidebar {
     
     private final ManhuntGame game;
     
+    // 变量值提供者（复用同一实例）
+    private final LineTemplate.Resolver resolver = this::appendVariable;
+    
     /**
      * 构造函数
      * 
@@ -41,33 +44,37 @@ public class MatchingSidebar extends BaseSidebar {
      */
     @Override
     public void update() {
-        clearLines();
+        beginLines();
         
-        int line = 10;
-        int emptyCounter = 0;
+        // 使用配置的行（加载时已编译）
+        renderLines(plugin.getScoreboardConfig().getMatchingTemplates(), 10, 0, resolver);
         
-        // 使用配置的行
-        for (String lineText : plugin.getScoreboardConfig().getMatchingLines()) {
-            if (lineText.isEmpty()) {
-                setLine(line--, generateEmptyLine(emptyCounter++));
-            } else {
-                String formatted = formatLine(lineText);
-                setLine(line--, formatted);
-            }
-        }
+        finishLines();
+    }
+    
+    public ManhuntGame getGame() {
+        return game;
     }
     
     /**
-     * 格式化行（替换变量）
+     * 追加变量值
      * 
-     * @param line 原始行文本
-     * @return 格式化后的文本
+     * @param variable 变量
+     * @param out 输出
      */
-    private String formatLine(String line) {
-        line = ChatColor.translateAlternateColorCodes('&', line);
-        line = line.replace("{player_count}", String.valueOf(game.getPlayerCount()));
-        line = line.replace("{max_players}", String.valueOf(plugin.getManhuntConfig().getMaxPlayers()));
-        line = line.replace("{countdown}", String.valueOf(game.getMatchingRemainingTime()));
-        return line;
+    private void appendVariable(LineTemplate.Variable variable, StringBuilder out) {
+        switch (variable) {
+            case PLAYER_COUNT:
+                out.append(game.getPlayerCount());
+                break;
+            case MAX_PLAYERS:
+                out.append(plugin.getManhuntConfig().getMaxPlayers());
+                break;
+            case COUNTDOWN:
+                out.append(game.getMatchingRemainingTime());
+                break;
+            default:
+                break;
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.minecraft.huntergame.HunterGame;
 import com.minecraft.huntergame.game.ManhuntGame;
 import org.bukkit.entity.Player;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -11,6 +12,8 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * 侧边栏管理器
  * 管理所有玩家的侧边栏显示
+ * 定时任务只刷新计时器行；状态、角色、人数等事件行在游戏事件后通过
+ * {@link #invalidateGame(ManhuntGame)} 标记失效，下个周期重建
  * 
  * @author YourName
  * @version 1.0.0
@@ -22,11 +25,16 @@ public class SidebarManager {
     private final Map<UUID, LobbySidebar> lobbySidebars;
     private final Map<UUID, MatchingSidebar> matchingSidebars;
     
+    // 每局游戏的计分板数据（每个更新周期计算一次，只在主线程访问）
+    private final Map<ManhuntGame, GameSidebarModel> gameModels;
+    private long updateCycle;
+    
     public SidebarManager(HunterGame plugin) {
         this.plugin = plugin;
         this.gameSidebars = new ConcurrentHashMap<>();
         this.lobbySidebars = new ConcurrentHashMap<>();
         this.matchingSidebars = new ConcurrentHashMap<>();
+        this.gameModels = new HashMap<>();
         
         // 启动更新任务
         startUpdateTask();
@@ -177,26 +185,65 @@ public class SidebarManager {
             return;
         }
         
-        // 更新游戏侧边栏
+        // 刷新游戏侧边栏（同一游戏的数据每周期只计算一次）
+        updateCycle++;
         if (!gameSidebars.isEmpty()) {
-            if (gameSidebars.size() > com.minecraft.huntergame.util.Constants.SIDEBAR_PARALLEL_THRESHOLD) {
-                gameSidebars.values().parallelStream().forEach(ManhuntSidebar::update);
-            } else {
-                gameSidebars.values().forEach(ManhuntSidebar::update);
+            for (ManhuntSidebar sidebar : gameSidebars.values()) {
+                sidebar.refresh(getGameModel(sidebar.getGame()));
             }
         }
+        // 移除已没有侧边栏的游戏数据
+        gameModels.values().removeIf(model -> model.getCycle() != updateCycle);
         
-        // 更新大厅侧边栏
+        // 刷新大厅侧边栏（没有计时器行，未失效时不做任何工作）
         if (!lobbySidebars.isEmpty()) {
-            lobbySidebars.values().forEach(LobbySidebar::update);
+            lobbySidebars.values().forEach(LobbySidebar::refresh);
         }
         
-        // 更新匹配侧边栏
+        // 刷新匹配侧边栏
         if (!matchingSidebars.isEmpty()) {
-            matchingSidebars.values().forEach(MatchingSidebar::update);
+            matchingSidebars.values().forEach(MatchingSidebar::refresh);
+        }
+    }
+    
+    /**
+     * 标记游戏的计分板失效（状态切换、死亡、玩家加入离开后调用）
+     * 该游戏所有玩家的计分板在下个更新周期重建事件行
+     */
+    public void invalidateGame(ManhuntGame game) {
+        GameSidebarModel model = gameModels.get(game);
+        if (model != null) {
+            model.invalidate();
+        }
+        for (ManhuntSidebar sidebar : gameSidebars.values()) {
+            if (sidebar.getGame() == game) {
+                sidebar.invalidate();
+            }
+        }
+        for (MatchingSidebar sidebar : matchingSidebars.values()) {
+            if (sidebar.getGame() == game) {
+                sidebar.invalidate();
+            }
         }
     }
     
+    /**
+     * 标记所有计分板失效（重载配置后调用）
+     */
+    public void invalidateAll() {
+        gameModels.values().forEach(GameSidebarModel::invalidate);
+        gameSidebars.values().forEach(BaseSidebar::invalidate);
+        lobbySidebars.values().forEach(BaseSidebar::invalidate);
+        matchingSidebars.values().forEach(BaseSidebar::invalidate);
+    }
+    
+    /**
+     * 获取游戏本周期的计分板数据
+     */
+    private GameSidebarModel getGameModel(ManhuntGame game) {
+        return gameModels.computeIfAbsent(game, GameSidebarModel::new).refresh(updateCycle);
+    }
+    
     /**
      * 启动更新任务
      */
@@ -239,6 +286,7 @@ public class SidebarManager {
         gameSidebars.clear();
         lobbySidebars.clear();
         matchingSidebars.clear();
+        gameModels.clear();
     }
     
     /**
@@ -0,0 +1,116 @@
+package com.minecraft.huntergame.tracker;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 传送门记录
+ * 每局游戏一个，记录每个逃亡者在每个维度最后一次进入传送门的位置。
+ * 猎人与目标不在同一维度时，指南针指向目标离开猎人所在维度时使用的传送门。
+ * 每个逃亡者的记录在写入时整体替换（写时复制），读取到的映射不会再改变，可在计算线程使用
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class PortalRegistry {
+
+    // 逃亡者UUID -> (世界UID -> 传送门位置)
+    private final Map<UUID, Map<UUID, PortalPoint>> portals;
+
+    public PortalRegistry() {
+        this.portals = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 记录逃亡者进入传送门的位置（主线程调用）
+     *
+     * @param from 传送门所在位置（传送前的位置）
+     */
+    public void record(UUID runnerUUID, Location from) {
+        World world = from.getWorld();
+        if (world == null) {
+            return;
+        }
+
+        Map<UUID, PortalPoint> previous = portals.getOrDefault(runnerUUID, Collections.emptyMap());
+        Map<UUID, PortalPoint> updated = new HashMap<>(previous);
+        updated.put(world.getUID(), new PortalPoint(world, from.getX(), from.getY(), from.getZ()));
+        portals.put(runnerUUID, Collections.unmodifiableMap(updated));
+    }
+
+    /**
+     * 获取逃亡者在各维度的传送门记录
+     *
+     * @return 世界UID -> 传送门位置，没有记录返回空映射
+     */
+    public Map<UUID, PortalPoint> getPortals(UUID runnerUUID) {
+        return portals.getOrDefault(runnerUUID, Collections.emptyMap());
+    }
+
+    /**
+     * 获取逃亡者在指定维度的传送门位置
+     *
+     * @return 传送门位置，没有记录返回null
+     */
+    public PortalPoint getPortal(UUID runnerUUID, World world) {
+        return getPortals(runnerUUID).get(world.getUID());
+    }
+
+    /**
+     * 移除逃亡者的记录
+     */
+    public void remove(UUID runnerUUID) {
+        portals.remove(runnerUUID);
+    }
+
+    /**
+     * 清除所有记录
+     */
+    public void clear() {
+        portals.clear();
+    }
+
+    /**
+     * 传送门位置（不可变）
+     */
+    public static final class PortalPoint {
+        private final World world;
+        private final double x;
+        private final double y;
+        private final double z;
+
+        private PortalPoint(World world, double x, double y, double z) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        /**
+         * 计算到指定坐标的距离平方
+         */
+        public double distanceSquared(double px, double py, double pz) {
+            double dx = x - px;
+            double dy = y - py;
+            double dz = z - pz;
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        /**
+         * 获取位置（新建Location对象）
+         */
+        public Location toLocation() {
+            return new Location(world, x, y, z);
+        }
+
+        public World getWorld() {
+            return world;
+        }
+    }
+}
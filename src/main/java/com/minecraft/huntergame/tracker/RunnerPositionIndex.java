@@ -0,0 +1,268 @@
+package com.minecraft.huntergame.tracker;
+
+import com.minecraft.huntergame.game.ManhuntGame;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 逃亡者位置快照
+ * 每个更新周期为每局游戏构建一次，坐标按世界分段保存在基本类型数组中，
+ * 同一游戏的所有猎人共享该快照查询最近目标，查询只比较距离平方
+ * 启用传送门记录时，不同维度的逃亡者以其在查询维度的传送门位置参与比较
+ * 快照只能在主线程构建；构建后只读，可交给工作线程查询（查询不访问Bukkit）
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class RunnerPositionIndex {
+
+    private final ManhuntGame game;
+    private final PortalRegistry portalRegistry;
+
+    // 条目数据（按世界连续分段）
+    private final UUID[] uuids;
+    private final Player[] players;
+    private final World[] worlds;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final Map<UUID, PortalRegistry.PortalPoint>[] portals;
+    private int size;
+
+    // 世界分段: 第i段为 [segmentStart[i], segmentStart[i+1])
+    private final World[] segmentWorlds;
+    private final int[] segmentStart;
+    private int segments;
+
+    private RunnerPositionIndex(ManhuntGame game, PortalRegistry portalRegistry, int capacity) {
+        this.game = game;
+        this.portalRegistry = portalRegistry;
+        this.uuids = new UUID[capacity];
+        this.players = new Player[capacity];
+        this.worlds = new World[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.zs = new double[capacity];
+        this.portals = newPortalArray(capacity);
+        this.segmentWorlds = new World[capacity];
+        this.segmentStart = new int[capacity + 1];
+    }
+
+    /**
+     * 读取所有存活且在线逃亡者的位置构建快照（主线程调用）
+     *
+     * @param portalRegistry 传送门记录，null表示不进行跨维度追踪
+     */
+    public static RunnerPositionIndex snapshot(ManhuntGame game, PortalRegistry portalRegistry) {
+        List<UUID> alive = game.getAliveRunners();
+        RunnerPositionIndex index = new RunnerPositionIndex(game, portalRegistry, alive.size());
+        index.build(alive);
+        return index;
+    }
+
+    private void build(List<UUID> alive) {
+        // 先收集在线玩家，再按世界分段写入数组
+        Player[] scratch = new Player[alive.size()];
+        int online = 0;
+        for (UUID uuid : alive) {
+            Player runner = Bukkit.getPlayer(uuid);
+            if (runner != null && runner.isOnline()) {
+                scratch[online++] = runner;
+            }
+        }
+
+        size = 0;
+        segments = 0;
+        for (int i = 0; i < online; i++) {
+            Player runner = scratch[i];
+            if (runner == null) {
+                continue;
+            }
+            World world = runner.getWorld();
+            segmentWorlds[segments] = world;
+            segmentStart[segments] = size;
+            segments++;
+
+            // 收集同一世界的逃亡者（保持原始顺序）
+            for (int j = i; j < online; j++) {
+                Player other = scratch[j];
+                if (other != null && other.getWorld() == world) {
+                    scratch[j] = null;
+                    put(other, world);
+                }
+            }
+        }
+        segmentStart[segments] = size;
+    }
+
+    private void put(Player runner, World world) {
+        Location location = runner.getLocation();
+        uuids[size] = runner.getUniqueId();
+        players[size] = runner;
+        worlds[size] = world;
+        xs[size] = location.getX();
+        ys[size] = location.getY();
+        zs[size] = location.getZ();
+        portals[size] = portalRegistry != null ? portalRegistry.getPortals(uuids[size]) : null;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<UUID, PortalRegistry.PortalPoint>[] newPortalArray(int capacity) {
+        return new Map[capacity];
+    }
+
+    /**
+     * 查找离指定位置最近的逃亡者
+     * 优先在同一世界中按距离平方比较；同一世界没有逃亡者时，比较其他世界逃亡者在该世界的传送门，
+     * 都没有传送门记录时返回其他世界的第一个逃亡者
+     *
+     * @return 条目下标，没有在线逃亡者返回-1
+     */
+    public int nearest(World world, double x, double y, double z) {
+        for (int s = 0; s < segments; s++) {
+            if (segmentWorlds[s] != world) {
+                continue;
+            }
+
+            int best = -1;
+            double bestDistance = Double.MAX_VALUE;
+            for (int i = segmentStart[s]; i < segmentStart[s + 1]; i++) {
+                double dx = xs[i] - x;
+                double dy = ys[i] - y;
+                double dz = zs[i] - z;
+                double distance = dx * dx + dy * dy + dz * dz;
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        // 跨维度：没有同世界的目标，按传送门距离比较
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            PortalRegistry.PortalPoint portal = getPortal(i, world);
+            if (portal == null) {
+                continue;
+            }
+            double distance = portal.distanceSquared(x, y, z);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            return best;
+        }
+        return size > 0 ? 0 : -1;
+    }
+
+    /**
+     * 获取条目在指定世界的传送门记录
+     *
+     * @return 传送门位置，条目在该世界或没有记录时返回null
+     */
+    public PortalRegistry.PortalPoint getPortal(int index, World world) {
+        if (worlds[index] == world || portals[index] == null || world == null) {
+            return null;
+        }
+        return portals[index].get(world.getUID());
+    }
+
+    /**
+     * 查找逃亡者的条目下标
+     *
+     * @return 条目下标，不在快照中（已淘汰或离线）返回-1
+     */
+    public int indexOf(UUID uuid) {
+        for (int i = 0; i < size; i++) {
+            if (uuids[i].equals(uuid)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 计算条目到指定位置的距离平方，不同世界返回-1
+     */
+    public double distanceSquared(int index, World world, double x, double y, double z) {
+        if (worlds[index] != world) {
+            return -1;
+        }
+        double dx = xs[index] - x;
+        double dy = ys[index] - y;
+        double dz = zs[index] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * 计算条目到指定位置的追踪距离（方块）
+     * 不同世界时为到该逃亡者在指定世界的传送门的距离
+     *
+     * @return 距离，条目下标无效或不同世界且没有传送门记录返回-1
+     */
+    public int distance(int index, World world, double x, double y, double z) {
+        if (index < 0) {
+            return -1;
+        }
+        double distanceSquared = distanceSquared(index, world, x, y, z);
+        if (distanceSquared < 0) {
+            PortalRegistry.PortalPoint portal = getPortal(index, world);
+            if (portal == null) {
+                return -1;
+            }
+            distanceSquared = portal.distanceSquared(x, y, z);
+        }
+        return (int) Math.sqrt(distanceSquared);
+    }
+
+    /**
+     * 获取指定世界中追踪该条目时指南针应指向的位置
+     * 同一世界为逃亡者位置，不同世界有传送门记录时为传送门位置，否则为逃亡者位置
+     */
+    public Location getTrackLocation(int index, World world) {
+        PortalRegistry.PortalPoint portal = getPortal(index, world);
+        return portal != null ? portal.toLocation() : getLocation(index);
+    }
+
+    /**
+     * 获取条目位置（新建Location对象）
+     */
+    public Location getLocation(int index) {
+        return new Location(worlds[index], xs[index], ys[index], zs[index]);
+    }
+
+    public UUID getUuid(int index) {
+        return uuids[index];
+    }
+
+    public Player getPlayer(int index) {
+        return players[index];
+    }
+
+    public World getWorld(int index) {
+        return worlds[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public ManhuntGame getGame() {
+        return game;
+    }
+}
@@ -1,6 +1,7 @@
 package com.minecraft.huntergame.tracker;
 
 import com.minecraft.huntergame.game.ManhuntGame;
+import com.minecraft.huntergame.game.PlayerRole;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -32,10 +33,39 @@ public class TrackerCompass {
     private int cooldown;           // 冷却时间(秒)
     private boolean manualTarget;   // 是否手动选择目标（true=手动切换，false=自动选择最近）
     
-    public TrackerCompass(UUID hunterUUID, ManhuntGame game, int cooldown) {
+    // 传送门记录（null表示不进行跨维度追踪）
+    private final PortalRegistry portalRegistry;
+    
+    // 增量写入
+    private final boolean deltaRender;  // 是否只在显示状态变化时写入指南针
+    private final int renderThreshold;  // 触发写入的最小变化(方块)
+    private final boolean lightweight;  // 是否在主世界同维度时使用 setCompassTarget
+    
+    // 上次写入指南针的显示状态
+    private UUID renderedTarget;
+    private World renderedWorld;
+    private World renderedTrackWorld;
+    private int renderedX;
+    private int renderedY;
+    private int renderedZ;
+    private int renderedDistance;
+    private boolean renderedNoTarget;
+    private boolean renderedCompassTarget;  // 指针是否由 setCompassTarget 驱动
+    
+    // 最新的显示信息（轻量模式下按需写入）
+    private String displayName;
+    private World displayWorld;
+    private int displayDistance;
+    
+    public TrackerCompass(UUID hunterUUID, ManhuntGame game, int cooldown, PortalRegistry portalRegistry,
+                          boolean deltaRender, int renderThreshold, boolean lightweight) {
         this.hunterUUID = hunterUUID;
         this.game = game;
+        this.portalRegistry = portalRegistry;
         this.cooldown = cooldown;
+        this.deltaRender = deltaRender;
+        this.renderThreshold = Math.max(1, renderThreshold);
+        this.lightweight = lightweight;
         this.lastUpdateTime = 0;
         this.lastManualTime = 0;
         this.manualTarget = false; // 默认自动选择
@@ -45,72 +75,90 @@ public class TrackerCompass {
      * 更新指南针指向（自动选择最近目标）
      */
     public void updateTarget(Player hunter) {
-        // 查找最近的存活逃亡者
-        UUID nearest = findNearestRunner(hunter);
-        
-        if (nearest == null) {
-            // 无目标
-            targetRunnerUUID = null;
-            manualTarget = false;
-            updateCompassDisplay(hunter, null);
-            return;
-        }
-        
-        targetRunnerUUID = nearest;
-        manualTarget = false; // 标记为自动选择
-        Player target = Bukkit.getPlayer(nearest);
-        
-        if (target == null || !target.isOnline()) {
-            return;
-        }
-        
-        // 更新指南针指向（使用Lodestone机制）
-        updateCompassLodestone(hunter, target.getLocation());
-        
-        // 更新指南针显示信息
-        updateCompassDisplay(hunter, target);
-        
-        // 更新时间
-        lastUpdateTime = System.currentTimeMillis();
+        updateTarget(hunter, RunnerPositionIndex.snapshot(game, portalRegistry));
+    }
+    
+    /**
+     * 更新指南针指向（自动选择最近目标），使用位置快照
+     */
+    public void updateTarget(Player hunter, RunnerPositionIndex index) {
+        Location location = hunter.getLocation();
+        int nearest = findNearestRunner(hunter, index);
+        selectNearest(hunter, index, nearest,
+            index.distance(nearest, location.getWorld(), location.getX(), location.getY(), location.getZ()));
     }
     
     /**
-     * 仅更新当前目标的位置（不切换目标）
-     * 用于自动更新任务
+     * 应用已计算好的最近目标和当前目标（主线程调用）
+     *
+     * @param nearest 最近逃亡者在快照中的下标，无目标为-1
+     * @param nearestDistance 到最近逃亡者的距离，跨维度为-1
+     * @param current 当前目标在快照中的下标，不在快照中为-1
+     * @param currentDistance 到当前目标的距离，跨维度为-1
      */
-    public void updateCurrentTargetLocation(Player hunter) {
+    public void applyUpdate(Player hunter, RunnerPositionIndex index,
+                            int nearest, int nearestDistance, int current, int currentDistance) {
         // 如果刚刚手动操作过（2秒内），跳过自动更新，避免闪烁
-        long timeSinceManual = System.currentTimeMillis() - lastManualTime;
-        if (timeSinceManual < 2000) { // 2秒保护期
+        if (isSwitchProtected()) {
             return;
         }
         
         // 如果没有目标，自动选择最近的
         if (targetRunnerUUID == null) {
-            updateTarget(hunter);
+            selectNearest(hunter, index, nearest, nearestDistance);
             return;
         }
         
-        // 检查当前目标是否还存活
-        List<UUID> aliveRunners = game.getAliveRunners();
-        if (!aliveRunners.contains(targetRunnerUUID)) {
+        // 检查当前目标是否还存活（快照只包含存活且在线的逃亡者）
+        if (current < 0) {
+            if (game.getPlayerRole(targetRunnerUUID) == PlayerRole.RUNNER) {
+                // 目标存活但暂时离线，保持指向上次的位置
+                return;
+            }
             // 当前目标已死亡，重新选择
             if (manualTarget) {
                 // 如果是手动选择的，切换到下一个
                 switchToNextTarget(hunter);
             } else {
                 // 如果是自动选择的，选择最近的
-                updateTarget(hunter);
+                selectNearest(hunter, index, nearest, nearestDistance);
             }
             return;
         }
         
         // 更新当前目标的位置
-        Player target = Bukkit.getPlayer(targetRunnerUUID);
-        if (target != null && target.isOnline()) {
-            updateCompassLodestone(hunter, target.getLocation());
-            updateCompassDisplay(hunter, target);
+        renderTarget(hunter, index.getUuid(current), index.getPlayer(current).getName(),
+            index.getWorld(current), index.getTrackLocation(current, hunter.getWorld()), currentDistance);
+    }
+    
+    /**
+     * 是否处于手动切换后的保护期（2秒内不自动更新）
+     */
+    public boolean isSwitchProtected() {
+        return System.currentTimeMillis() - lastManualTime < 2000;
+    }
+    
+    /**
+     * 选择快照中的最近目标
+     */
+    private void selectNearest(Player hunter, RunnerPositionIndex index, int nearest, int distance) {
+        if (nearest < 0) {
+            // 无目标
+            targetRunnerUUID = null;
+            manualTarget = false;
+            renderNoTarget(hunter);
+            return;
         }
+        
+        targetRunnerUUID = index.getUuid(nearest);
+        manualTarget = false; // 标记为自动选择
+        
+        // 更新指南针指向（使用Lodestone机制）和显示信息
+        renderTarget(hunter, targetRunnerUUID, index.getPlayer(nearest).getName(),
+            index.getWorld(nearest), index.getTrackLocation(nearest, hunter.getWorld()), distance);
+        
+        // 更新时间
+        lastUpdateTime = System.currentTimeMillis();
     }
     
     /**
@@ -121,7 +169,7 @@ public class TrackerCompass {
         if (runners.isEmpty()) {
             targetRunnerUUID = null;
             manualTarget = false;
-            updateCompassDisplay(hunter, null);
+            renderNoTarget(hunter);
             lastManualTime = System.currentTimeMillis(); // 记录手动操作时间
             return;
         }
@@ -132,8 +180,7 @@ public class TrackerCompass {
             manualTarget = true; // 标记为手动选择
             Player target = Bukkit.getPlayer(targetRunnerUUID);
             if (target != null && target.isOnline()) {
-                updateCompassLodestone(hunter, target.getLocation());
-                updateCompassDisplay(hunter, target);
+                renderTarget(hunter, target);
             }
             hunter.sendMessage(ChatColor.YELLOW + "只有一个逃亡者，无需切换");
             lastManualTime = System.currentTimeMillis(); // 记录手动操作时间
@@ -153,8 +200,7 @@ public class TrackerCompass {
         
         Player target = Bukkit.getPlayer(targetRunnerUUID);
         if (target != null && target.isOnline()) {
-            updateCompassLodestone(hunter, target.getLocation());
-            updateCompassDisplay(hunter, target);
+            renderTarget(hunter, target);
             hunter.sendMessage(ChatColor.GREEN + "已切换追踪目标: " + target.getName());
         }
         
@@ -164,33 +210,156 @@ public class TrackerCompass {
     }
     
     /**
-     * 使用Lodestone机制更新指南针指向
+     * 将指南针指向玩家目标并刷新显示
      */
-    private void updateCompassLodestone(Player hunter, Location targetLocation) {
-        ItemStack compass = findCompassInInventory(hunter);
-        if (compass == null || compass.getType() != Material.COMPASS) {
+    private void renderTarget(Player hunter, Player target) {
+        Location hunterLocation = hunter.getLocation();
+        Location trackLocation = target.getLocation();
+        
+        // 不同维度时指向目标在猎人所在维度使用的传送门
+        if (portalRegistry != null && target.getWorld() != hunter.getWorld()) {
+            PortalRegistry.PortalPoint portal = portalRegistry.getPortal(target.getUniqueId(), hunter.getWorld());
+            if (portal != null) {
+                trackLocation = portal.toLocation();
+            }
+        }
+        
+        renderTarget(hunter, target.getUniqueId(), target.getName(), target.getWorld(), trackLocation,
+            calculateDistance(hunterLocation, trackLocation));
+    }
+    
+    /**
+     * 将指南针指向目标并刷新显示
+     * 增量模式下目标、维度未变化，指向的方块位置和距离的变化都小于阈值时不写入，
+     * 避免每次写入都使物品槽变脏并向客户端发送物品更新包。
+     * 轻量模式下，猎人在主世界且指向位置在同一世界时使用 {@link Player#setCompassTarget} 驱动指针，
+     * 只在切换模式或目标时写入一次物品，之后的距离显示在手持指南针时按需刷新 ({@link #refreshDisplay})；
+     * 其他情况（下界、末地或跨维度）使用Lodestone，位置和显示信息合并为一次ItemMeta写入
+     *
+     * @param targetWorld 目标所在维度
+     * @param trackLocation 指南针指向的位置（目标位置或目标使用的传送门位置）
+     * @param distance 到指向位置的距离（方块），无法到达为-1
+     */
+    private void renderTarget(Player hunter, UUID targetUUID, String targetName, World targetWorld,
+                              Location trackLocation, int distance) {
+        World trackWorld = trackLocation.getWorld();
+        int blockX = trackLocation.getBlockX();
+        int blockY = trackLocation.getBlockY();
+        int blockZ = trackLocation.getBlockZ();
+        
+        // 普通指南针的指针只在主世界有效
+        boolean useCompassTarget = lightweight && trackWorld == hunter.getWorld()
+            && trackWorld.getEnvironment() == World.Environment.NORMAL;
+        
+        boolean sameTarget = targetUUID.equals(renderedTarget) && targetWorld == renderedWorld
+            && useCompassTarget == renderedCompassTarget;
+        boolean needleUnchanged = sameTarget && trackWorld == renderedTrackWorld
+            && Math.abs(blockX - renderedX) < renderThreshold
+            && Math.abs(blockY - renderedY) < renderThreshold
+            && Math.abs(blockZ - renderedZ) < renderThreshold;
+        
+        displayName = targetName;
+        displayWorld = targetWorld;
+        displayDistance = distance;
+        
+        if (useCompassTarget) {
+            if (!deltaRender || !needleUnchanged) {
+                hunter.setCompassTarget(trackLocation);
+            }
+            // 切换到轻量模式或切换目标时写入一次物品（清除Lodestone并刷新显示）
+            if (!sameTarget && !writeCompass(hunter, null, targetName, targetWorld, distance)) {
+                return;
+            }
+        } else {
+            boolean displayUnchanged = (distance < 0) == (renderedDistance < 0)
+                && Math.abs(distance - renderedDistance) < renderThreshold;
+            if (deltaRender && needleUnchanged && displayUnchanged) {
+                return;
+            }
+            if (!writeCompass(hunter, trackLocation, targetName, targetWorld, distance)) {
+                return;
+            }
+        }
+        
+        renderedTarget = targetUUID;
+        renderedWorld = targetWorld;
+        renderedTrackWorld = trackWorld;
+        renderedX = blockX;
+        renderedY = blockY;
+        renderedZ = blockZ;
+        renderedCompassTarget = useCompassTarget;
+        renderedNoTarget = false;
+    }
+    
+    /**
+     * 刷新指南针显示信息（轻量模式下猎人手持指南针或切换物品栏时调用）
+     * 只在显示的距离变化达到阈值时写入
+     */
+    public void refreshDisplay(Player hunter) {
+        if (!renderedCompassTarget || renderedNoTarget || displayName == null) {
             return;
         }
+        if (deltaRender && (displayDistance < 0) == (renderedDistance < 0)
+                && Math.abs(displayDistance - renderedDistance) < renderThreshold) {
+            return;
+        }
+        writeCompass(hunter, null, displayName, displayWorld, displayDistance);
+    }
+    
+    /**
+     * 写入指南针物品（Lodestone位置和显示信息合并为一次ItemMeta写入）
+     *
+     * @param lodestone Lodestone位置，null表示清除（由 setCompassTarget 驱动指针）
+     * @return 是否写入成功（猎人背包中没有指南针时返回false）
+     */
+    private boolean writeCompass(Player hunter, Location lodestone, String targetName, World targetWorld, int distance) {
+        ItemStack compass = findCompassInInventory(hunter);
+        if (compass == null) {
+            return false;
+        }
         
         ItemMeta meta = compass.getItemMeta();
         if (!(meta instanceof CompassMeta)) {
-            return;
+            return false;
         }
         
         CompassMeta compassMeta = (CompassMeta) meta;
         
         // 设置Lodestone位置（即使没有实际的Lodestone方块）
-        compassMeta.setLodestone(targetLocation);
-        // 设置为追踪Lodestone
+        compassMeta.setLodestone(lodestone);
         compassMeta.setLodestoneTracked(false); // false表示不需要实际的Lodestone方块
         
+        String dimension = getDimensionName(targetWorld);
+        String distanceStr;
+        if (targetWorld == hunter.getWorld()) {
+            distanceStr = distance + "方块";
+        } else if (distance >= 0) {
+            distanceStr = "跨维度 (传送门 " + distance + "方块)";
+        } else {
+            distanceStr = "跨维度";
+        }
+        
+        compassMeta.setDisplayName(ChatColor.GREEN + "追踪指南针 - " + targetName);
+        compassMeta.setLore(Arrays.asList(
+            ChatColor.GRAY + "按Q键切换目标",
+            ChatColor.YELLOW + "维度: " + dimension,
+            ChatColor.YELLOW + "距离: " + distanceStr,
+            ChatColor.GRAY + "自动追踪中..."
+        ));
+        
         compass.setItemMeta(compassMeta);
+        renderedDistance = distance;
+        return true;
     }
     
     /**
-     * 更新指南针显示信息
+     * 将指南针显示为无目标
      */
-    private void updateCompassDisplay(Player hunter, Player target) {
+    private void renderNoTarget(Player hunter) {
+        if (deltaRender && renderedNoTarget) {
+            return;
+        }
+        
         ItemStack compass = findCompassInInventory(hunter);
         if (compass == null) {
             return;
@@ -203,31 +372,34 @@ public class TrackerCompass {
         
         CompassMeta compassMeta = (CompassMeta) meta;
         
-        if (target == null) {
-            compassMeta.setDisplayName(ChatColor.RED + "追踪指南针 - 无目标");
-            compassMeta.setLore(Arrays.asList(
-                ChatColor.GRAY + "按Q键切换目标",
-                ChatColor.RED + "当前无存活逃亡者"
-            ));
-            // 清除Lodestone追踪
-            compassMeta.setLodestone(null);
-            compassMeta.setLodestoneTracked(false);
-        } else {
-            String dimension = getDimensionName(target.getWorld());
-            int distance = calculateDistance(hunter.getLocation(), target.getLocation());
-            
-            String distanceStr = distance >= 0 ? distance + "方块" : "跨维度";
-            
-            compassMeta.setDisplayName(ChatColor.GREEN + "追踪指南针 - " + target.getName());
-            compassMeta.setLore(Arrays.asList(
-                ChatColor.GRAY + "按Q键切换目标",
-                ChatColor.YELLOW + "维度: " + dimension,
-                ChatColor.YELLOW + "距离: " + distanceStr,
-                ChatColor.GRAY + "自动追踪中..."
-            ));
-        }
+        compassMeta.setDisplayName(ChatColor.RED + "追踪指南针 - 无目标");
+        compassMeta.setLore(Arrays.asList(
+            ChatColor.GRAY + "按Q键切换目标",
+            ChatColor.RED + "当前无存活逃亡者"
+        ));
+        // 清除Lodestone追踪
+        compassMeta.setLodestone(null);
+        compassMeta.setLodestoneTracked(false);
         
         compass.setItemMeta(compassMeta);
+        
+        // 轻量模式下指针不再指向上一个目标
+        if (renderedCompassTarget) {
+            hunter.setCompassTarget(hunter.getWorld().getSpawnLocation());
+        }
+        
+        renderedTarget = null;
+        renderedWorld = null;
+        renderedCompassTarget = false;
+        renderedNoTarget = true;
+        displayName = null;
+    }
+    
+    /**
+     * 指针当前是否由 setCompassTarget 驱动
+     */
+    public boolean isUsingCompassTarget() {
+        return renderedCompassTarget;
     }
     
     /**
@@ -257,47 +429,17 @@ public class TrackerCompass {
     
     /**
      * 查找最近的逃亡者
+     * 同一维度按距离平方比较，同一维度没有逃亡者时选择其他维度的逃亡者
+     *
+     * @return 快照中的条目下标，无目标返回-1
      */
-    private UUID findNearestRunner(Player hunter) {
-        List<UUID> runners = game.getAliveRunners();
-        if (runners.isEmpty()) {
-            return null;
-        }
-        
-        UUID nearest = null;
-        double minDistance = Double.MAX_VALUE;
-        
-        for (UUID runnerUUID : runners) {
-            Player runner = Bukkit.getPlayer(runnerUUID);
-            if (runner == null || !runner.isOnline()) {
-                continue;
-            }
-            
-            // 跨维度距离计算
-            double distance = calculateCrossDimensionDistance(
-                hunter.getLocation(), 
-                runner.getLocation()
-            );
-            
-            if (distance < minDistance) {
-                minDistance = distance;
-                nearest = runnerUUID;
-            }
-        }
-        
-        return nearest;
-    }
-    
-    /**
-     * 跨维度距离计算
-     */
-    private double calculateCrossDimensionDistance(Location loc1, Location loc2) {
-        if (loc1.getWorld().equals(loc2.getWorld())) {
-            return loc1.distance(loc2);
+    private int findNearestRunner(Player hunter, RunnerPositionIndex index) {
+        if (index.isEmpty()) {
+            return -1;
         }
         
-        // 不同维度，返回一个很大的值表示无法直接到达
-        return com.minecraft.huntergame.util.Constants.CROSS_DIMENSION_DISTANCE;
+        Location location = hunter.getLocation();
+        return index.nearest(location.getWorld(), location.getX(), location.getY(), location.getZ());
     }
     
     /**
@@ -363,6 +505,14 @@ public class TrackerCompass {
         return hunterUUID;
     }
     
+    public ManhuntGame getGame() {
+        return game;
+    }
+    
+    public PortalRegistry getPortalRegistry() {
+        return portalRegistry;
+    }
+    
     public UUID getTargetRunnerUUID() {
         return targetRunnerUUID;
     }
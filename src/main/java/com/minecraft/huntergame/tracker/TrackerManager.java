@@ -2,17 +2,32 @@ package com.minecraft.huntergame.tracker;
 
 import com.minecraft.huntergame.HunterGame;
 import com.minecraft.huntergame.game.ManhuntGame;
+import com.minecraft.huntergame.game.PlayerRole;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 追踪管理器
@@ -23,11 +38,34 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class TrackerManager {
     
+    // 写回指南针时每检查一次时间预算处理的猎人数
+    private static final int APPLY_CHUNK = 8;
+    
     private final HunterGame plugin;
     private final Map<UUID, TrackerCompass> compasses;  // 猎人UUID -> 追踪指南针
     private final int updateCooldown;  // 更新冷却时间(秒)
     private final boolean autoUpdate;  // 是否自动更新
     private final int autoUpdateInterval;  // 自动更新间隔(秒)
+    private final boolean deltaRender;  // 是否增量写入指南针
+    private final int renderThreshold;  // 增量写入阈值(方块)
+    private final boolean lightweight;  // 是否启用轻量模式（主世界同维度时使用 setCompassTarget）
+    private final boolean crossDimension;  // 是否跨维度追踪（指向目标使用的传送门）
+    private final Map<ManhuntGame, PortalRegistry> portalRegistries;  // 游戏 -> 传送门记录
+    
+    // 计算线程池：猎人较多时最近目标计算在此执行，结果回到主线程写入
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final Set<UUID> inFlight;  // 计算中的猎人（只在主线程访问）
+    private final ConcurrentLinkedQueue<Runnable> completed;  // 工作线程已完成计算、等待写回的批次
+    
+    // 分片更新：猎人按UUID哈希分到 bucketCount 个分片，每tick更新一个分片
+    private final int bucketCount;
+    private final List<UUID>[] buckets;
+    private final Set<UUID> deferred;  // 超出时间预算、顺延到下一tick的猎人
+    private final long tickBudgetNanos;  // 每tick时间预算(纳秒)
+    private long tickDeadline;  // 本tick的截止时间(System.nanoTime)，采集、计算和写回共用
+    private long tick;
+    private BukkitTask updateTask;
     
     public TrackerManager(HunterGame plugin) {
         this.plugin = plugin;
@@ -35,6 +73,29 @@ public class TrackerManager {
         this.updateCooldown = plugin.getManhuntConfig().getCompassCooldown();
         this.autoUpdate = plugin.getManhuntConfig().isAutoUpdateCompass();
         this.autoUpdateInterval = plugin.getManhuntConfig().getAutoUpdateInterval();
+        this.deltaRender = plugin.getManhuntConfig().isTrackerDeltaRender();
+        this.renderThreshold = plugin.getManhuntConfig().getTrackerRenderThreshold();
+        this.lightweight = plugin.getManhuntConfig().isTrackerLightweightMode();
+        this.crossDimension = plugin.getManhuntConfig().isCrossDimensionTracking();
+        this.portalRegistries = new ConcurrentHashMap<>();
+        this.bucketCount = autoUpdateInterval * 20;
+        this.buckets = createBuckets(bucketCount);
+        this.deferred = new LinkedHashSet<>();
+        this.tickBudgetNanos = (long) (plugin.getManhuntConfig().getTrackerTickBudget() * 1000000L);
+        this.workerCount = plugin.getManhuntConfig().getTrackerWorkerThreads();
+        this.inFlight = new HashSet<>();
+        this.completed = new ConcurrentLinkedQueue<>();
+        
+        if (workerCount > 0) {
+            AtomicInteger threadId = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+                Thread thread = new Thread(runnable, "HunterGame-Tracker-" + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.workers = null;
+        }
         
         // 启动自动更新任务
         if (autoUpdate) {
@@ -67,8 +128,11 @@ public class TrackerManager {
         hunter.getInventory().setItem(0, compass);
         
         // 创建追踪器对象
-        TrackerCompass tracker = new TrackerCompass(hunter.getUniqueId(), game, updateCooldown);
-        compasses.put(hunter.getUniqueId(), tracker);
+        TrackerCompass tracker = new TrackerCompass(hunter.getUniqueId(), game, updateCooldown,
+            getPortalRegistry(game), deltaRender, renderThreshold, lightweight);
+        if (compasses.put(hunter.getUniqueId(), tracker) == null) {
+            bucketOf(hunter.getUniqueId()).add(hunter.getUniqueId());
+        }
         
         // 立即更新一次目标
         tracker.updateTarget(hunter);
@@ -80,12 +144,78 @@ public class TrackerManager {
      * 移除猎人的追踪指南针
      */
     public void removeTrackerCompass(UUID hunterUUID) {
-        compasses.remove(hunterUUID);
+        TrackerCompass tracker = compasses.remove(hunterUUID);
+        if (tracker != null) {
+            bucketOf(hunterUUID).remove(hunterUUID);
+            deferred.remove(hunterUUID);
+        }
         
         Player hunter = Bukkit.getPlayer(hunterUUID);
         if (hunter != null && hunter.isOnline()) {
             // 移除背包中的指南针
             hunter.getInventory().remove(Material.COMPASS);
+            
+            // 恢复指南针默认指向
+            if (tracker != null && tracker.isUsingCompassTarget()) {
+                hunter.setCompassTarget(hunter.getWorld().getSpawnLocation());
+            }
+        }
+    }
+    
+    /**
+     * 记录逃亡者进入传送门的位置（传送门事件触发）
+     *
+     * @param from 传送前的位置
+     */
+    public void recordPortal(ManhuntGame game, Player player, Location from) {
+        if (!crossDimension || game.getPlayerRole(player.getUniqueId()) != PlayerRole.RUNNER) {
+            return;
+        }
+        
+        PortalRegistry registry = getPortalRegistry(game);
+        if (registry != null) {
+            registry.record(player.getUniqueId(), from);
+        }
+    }
+    
+    /**
+     * 获取游戏的传送门记录
+     *
+     * @return 传送门记录，未启用跨维度追踪返回null
+     */
+    private PortalRegistry getPortalRegistry(ManhuntGame game) {
+        if (!crossDimension) {
+            return null;
+        }
+        return portalRegistries.computeIfAbsent(game, key -> new PortalRegistry());
+    }
+    
+    /**
+     * 移除游戏的追踪数据（游戏移除时调用）
+     * 只清理追踪器和传送门记录，不修改玩家背包
+     */
+    public void removeGame(ManhuntGame game) {
+        portalRegistries.remove(game);
+        
+        Iterator<TrackerCompass> iterator = compasses.values().iterator();
+        while (iterator.hasNext()) {
+            TrackerCompass tracker = iterator.next();
+            if (tracker.getGame() == game) {
+                iterator.remove();
+                bucketOf(tracker.getHunterUUID()).remove(tracker.getHunterUUID());
+                deferred.remove(tracker.getHunterUUID());
+            }
+        }
+    }
+    
+    /**
+     * 刷新指南针显示信息（猎人手持指南针或切换物品栏时调用）
+     * 轻量模式下距离显示不随定时任务写入，在此按需刷新
+     */
+    public void refreshCompassDisplay(Player hunter) {
+        TrackerCompass tracker = compasses.get(hunter.getUniqueId());
+        if (tracker != null) {
+            tracker.refreshDisplay(hunter);
         }
     }
     
@@ -104,46 +234,168 @@ public class TrackerManager {
     }
     
     /**
-     * 自动更新指南针
+     * 获取需要自动更新的猎人
+     *
+     * @return 猎人，离线、死亡、不再是猎人、未手持指南针或正在计算中时返回null
      */
-    public void autoUpdateCompass(UUID hunterUUID) {
-        TrackerCompass tracker = compasses.get(hunterUUID);
-        if (tracker == null) {
-            return;
+    private Player getUpdatableHunter(TrackerCompass tracker) {
+        UUID hunterUUID = tracker.getHunterUUID();
+        if (inFlight.contains(hunterUUID) || tracker.isSwitchProtected()) {
+            return null;
         }
         
         Player hunter = Bukkit.getPlayer(hunterUUID);
-        if (hunter == null || !hunter.isOnline()) {
-            return;
+        if (hunter == null || !hunter.isOnline() || hunter.isDead()) {
+            return null;
         }
         
-        // 检查玩家背包中是否有指南针（不仅限于手持）
+        // 已淘汰或转为观战的猎人不再追踪
+        if (tracker.getGame().getPlayerRole(hunterUUID) != PlayerRole.HUNTER) {
+            return null;
+        }
+        
+        // 只有手持指南针时才更新（避免不必要的计算和物品更新）
         ItemStack mainHand = hunter.getInventory().getItemInMainHand();
         ItemStack offHand = hunter.getInventory().getItemInOffHand();
-        ItemStack slot0 = hunter.getInventory().getItem(0);
         
-        boolean hasCompass = (mainHand != null && mainHand.getType() == Material.COMPASS) ||
-                            (offHand != null && offHand.getType() == Material.COMPASS) ||
-                            (slot0 != null && slot0.getType() == Material.COMPASS);
+        boolean holdingCompass = (mainHand != null && mainHand.getType() == Material.COMPASS) ||
+                                 (offHand != null && offHand.getType() == Material.COMPASS);
+        return holdingCompass ? hunter : null;
+    }
+    
+    /**
+     * 分片更新（每tick执行）
+     * 先写回工作线程已完成的批次，再采集上一tick顺延的猎人和本tick对应分片的猎人；
+     * 写回、采集和计算共用每tick的时间预算，超出预算的猎人顺延到下一tick
+     */
+    private void updateShard() {
+        tickDeadline = System.nanoTime() + tickBudgetNanos;
+        long deadline = tickDeadline;
+        
+        Runnable apply;
+        while ((apply = completed.poll()) != null) {
+            apply.run();
+        }
+        
+        int bucket = (int) (tick++ % bucketCount);
+        List<UUID> shard = buckets[bucket];
+        TrackerUpdateBatch batch = new TrackerUpdateBatch(deferred.size() + shard.size());
+        
+        // 顺延的猎人可能也在本tick的分片中，本tick只采集一次
+        Set<UUID> carried = deferred.isEmpty() ? Collections.emptySet() : new HashSet<>(deferred);
         
-        // 只有当玩家有指南针时才更新（避免不必要的计算）
-        if (!hasCompass) {
+        Iterator<UUID> pending = deferred.iterator();
+        while (pending.hasNext()) {
+            if (System.nanoTime() > deadline) {
+                for (UUID hunterUUID : shard) {
+                    if (!carried.contains(hunterUUID)) {
+                        deferred.add(hunterUUID);
+                    }
+                }
+                runBatch(batch, deadline);
+                return;
+            }
+            TrackerCompass tracker = compasses.get(pending.next());
+            pending.remove();
+            collect(batch, tracker);
+        }
+        
+        for (int i = 0; i < shard.size(); i++) {
+            if (System.nanoTime() > deadline) {
+                deferred.addAll(shard.subList(i, shard.size()));
+                break;
+            }
+            UUID hunterUUID = shard.get(i);
+            if (!carried.contains(hunterUUID)) {
+                collect(batch, compasses.get(hunterUUID));
+            }
+        }
+        
+        runBatch(batch, deadline);
+    }
+    
+    /**
+     * 采集猎人位置（第一阶段，主线程）
+     */
+    private void collect(TrackerUpdateBatch batch, TrackerCompass tracker) {
+        if (tracker == null) {
+            return;
+        }
+        Player hunter = getUpdatableHunter(tracker);
+        if (hunter != null) {
+            batch.add(tracker, hunter);
+        }
+    }
+    
+    /**
+     * 执行批量更新
+     * 猎人数量不超过并行阈值时在主线程分段计算并写回；
+     * 否则计算分到工作线程（第二阶段），全部完成后回到主线程写回（第三阶段）
+     *
+     * @param deadline 主线程计算和写回的截止时间(System.nanoTime)
+     */
+    private void runBatch(TrackerUpdateBatch batch, long deadline) {
+        if (batch.isEmpty()) {
             return;
         }
         
-        // 自动更新：只更新当前目标的位置，不切换目标
-        tracker.updateCurrentTargetLocation(hunter);
+        batch.prepare();
+        int size = batch.size();
+        
+        if (workers == null || size <= com.minecraft.huntergame.util.Constants.PARALLEL_PROCESSING_THRESHOLD) {
+            applyWithinBudget(batch, true, deadline);
+            return;
+        }
+        
+        for (int i = 0; i < size; i++) {
+            inFlight.add(batch.getHunterUUID(i));
+        }
+        
+        int chunk = (size + workerCount - 1) / workerCount;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[(size + chunk - 1) / chunk];
+        for (int i = 0; i < futures.length; i++) {
+            int from = i * chunk;
+            int to = Math.min(size, from + chunk);
+            futures[i] = CompletableFuture.runAsync(() -> batch.compute(from, to), workers);
+        }
+        
+        // 写回在之后某个tick的分片更新开始时执行，与该tick的采集共用同一截止时间
+        CompletableFuture.allOf(futures).whenComplete((ignored, ex) -> completed.add(() -> {
+            for (int i = 0; i < size; i++) {
+                inFlight.remove(batch.getHunterUUID(i));
+            }
+            if (ex != null) {
+                plugin.getLogger().warning("追踪指南针计算失败: " + ex.getMessage());
+                return;
+            }
+            applyWithinBudget(batch, false, tickDeadline);
+        }));
     }
     
     /**
-     * 更新所有指南针
+     * 分段写回指南针（主线程），每段后检查截止时间
+     * 至少写回一段保证进度，未写回的猎人顺延到下一tick重新采集
+     *
+     * @param compute 是否在写回前计算（主线程计算模式）
      */
-    public void updateAllCompasses() {
-        // 使用并行流提高性能（如果追踪器数量较多）
-        if (compasses.size() > com.minecraft.huntergame.util.Constants.PARALLEL_PROCESSING_THRESHOLD) {
-            compasses.keySet().parallelStream().forEach(this::autoUpdateCompass);
-        } else {
-            compasses.keySet().forEach(this::autoUpdateCompass);
+    private void applyWithinBudget(TrackerUpdateBatch batch, boolean compute, long deadline) {
+        int size = batch.size();
+        int done = 0;
+        while (done < size) {
+            int to = Math.min(size, done + APPLY_CHUNK);
+            if (compute) {
+                batch.compute(done, to);
+            }
+            batch.apply(compasses, done, to);
+            done = to;
+            
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+        }
+        
+        for (int i = done; i < size; i++) {
+            deferred.add(batch.getHunterUUID(i));
         }
     }
     
@@ -151,14 +403,24 @@ public class TrackerManager {
      * 启动自动更新任务
      */
     private void startAutoUpdateTask() {
-        // 使用更短的更新间隔（1秒 = 20 ticks）以实现实时追踪
-        long interval = 20L; // 每秒更新一次
-        
-        plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
-            updateAllCompasses();
-        }, interval, interval);
+        // 每tick更新一个分片，每个猎人每 auto-update-interval 秒更新一次
+        updateTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::updateShard, 1L, 1L);
         
-        plugin.getLogger().info("追踪指南针自动更新任务已启动 (Lodestone模式，间隔: 1秒)");
+        plugin.getLogger().info("追踪指南针自动更新任务已启动 (Lodestone模式，间隔: " + autoUpdateInterval
+            + "秒, 分片: " + bucketCount + ")");
+    }
+    
+    private List<UUID> bucketOf(UUID hunterUUID) {
+        return buckets[Math.floorMod(hunterUUID.hashCode(), bucketCount)];
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<UUID>[] createBuckets(int count) {
+        List<UUID>[] buckets = new List[count];
+        for (int i = 0; i < count; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        return buckets;
     }
     
     /**
@@ -183,12 +445,26 @@ public class TrackerManager {
             removeTrackerCompass(hunterUUID);
         }
         compasses.clear();
+        portalRegistries.clear();
+        deferred.clear();
+        inFlight.clear();
+        completed.clear();
+        for (List<UUID> bucket : buckets) {
+            bucket.clear();
+        }
     }
     
     /**
      * 关闭管理器
      */
     public void shutdown() {
+        if (updateTask != null) {
+            updateTask.cancel();
+            updateTask = null;
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
         clearAll();
         plugin.getLogger().info("追踪管理器已关闭");
     }
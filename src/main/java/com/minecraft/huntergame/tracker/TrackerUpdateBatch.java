@@ -0,0 +1,152 @@
+package com.minecraft.huntergame.tracker;
+
+import com.minecraft.huntergame.game.ManhuntGame;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 追踪指南针批量更新
+ * 分三个阶段：主线程采集猎人和逃亡者位置快照 ({@link #add})，
+ * 任意线程计算最近目标和距离 ({@link #compute})，主线程写回指南针 ({@link #apply})。
+ * 计算阶段只读取快照中的基本类型数据，不访问Bukkit
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+class TrackerUpdateBatch {
+
+    // 本批次每局游戏的逃亡者位置快照（批次独占，计算期间不会被重建）
+    private final Map<ManhuntGame, RunnerPositionIndex> indexes;
+
+    // 采集阶段数据
+    private TrackerCompass[] trackers;
+    private UUID[] targets;
+    private RunnerPositionIndex[] hunterIndexes;
+    private World[] worlds;
+    private double[] xs;
+    private double[] ys;
+    private double[] zs;
+    private int size;
+
+    // 计算阶段结果
+    private int[] nearest;
+    private int[] nearestDistance;
+    private int[] current;
+    private int[] currentDistance;
+
+    TrackerUpdateBatch(int capacity) {
+        int initial = Math.max(4, capacity);
+        this.indexes = new HashMap<>();
+        this.trackers = new TrackerCompass[initial];
+        this.targets = new UUID[initial];
+        this.hunterIndexes = new RunnerPositionIndex[initial];
+        this.worlds = new World[initial];
+        this.xs = new double[initial];
+        this.ys = new double[initial];
+        this.zs = new double[initial];
+    }
+
+    /**
+     * 采集猎人位置（主线程调用）
+     */
+    void add(TrackerCompass tracker, Player hunter) {
+        if (size == trackers.length) {
+            int newCapacity = size * 2;
+            trackers = Arrays.copyOf(trackers, newCapacity);
+            targets = Arrays.copyOf(targets, newCapacity);
+            hunterIndexes = Arrays.copyOf(hunterIndexes, newCapacity);
+            worlds = Arrays.copyOf(worlds, newCapacity);
+            xs = Arrays.copyOf(xs, newCapacity);
+            ys = Arrays.copyOf(ys, newCapacity);
+            zs = Arrays.copyOf(zs, newCapacity);
+        }
+
+        Location location = hunter.getLocation();
+        trackers[size] = tracker;
+        targets[size] = tracker.getTargetRunnerUUID();
+        RunnerPositionIndex index = indexes.get(tracker.getGame());
+        if (index == null) {
+            index = RunnerPositionIndex.snapshot(tracker.getGame(), tracker.getPortalRegistry());
+            indexes.put(tracker.getGame(), index);
+        }
+        hunterIndexes[size] = index;
+        worlds[size] = location.getWorld();
+        xs[size] = location.getX();
+        ys[size] = location.getY();
+        zs[size] = location.getZ();
+        size++;
+    }
+
+    /**
+     * 计算 [from, to) 范围内猎人的最近目标和当前目标距离（可在工作线程调用）
+     * 必须先调用 {@link #prepare()}，不同线程处理的范围不能重叠
+     */
+    void compute(int from, int to) {
+        for (int i = from; i < to; i++) {
+            RunnerPositionIndex index = hunterIndexes[i];
+            World world = worlds[i];
+
+            int nearestIndex = index.nearest(world, xs[i], ys[i], zs[i]);
+            nearest[i] = nearestIndex;
+            nearestDistance[i] = index.distance(nearestIndex, world, xs[i], ys[i], zs[i]);
+
+            int currentIndex = targets[i] == null ? -1 : index.indexOf(targets[i]);
+            current[i] = currentIndex;
+            currentDistance[i] = index.distance(currentIndex, world, xs[i], ys[i], zs[i]);
+        }
+    }
+
+    /**
+     * 分配结果数组（采集完成后、计算前在主线程调用）
+     */
+    void prepare() {
+        nearest = new int[size];
+        nearestDistance = new int[size];
+        current = new int[size];
+        currentDistance = new int[size];
+    }
+
+    /**
+     * 将 [from, to) 范围的计算结果写回指南针（主线程调用）
+     * 已移除的追踪器、已离线的猎人以及计算期间切换过目标的追踪器会被跳过
+     *
+     * @param active 当前有效的追踪器
+     */
+    void apply(Map<UUID, TrackerCompass> active, int from, int to) {
+        for (int i = from; i < to; i++) {
+            TrackerCompass tracker = trackers[i];
+            if (active.get(tracker.getHunterUUID()) != tracker
+                    || !Objects.equals(targets[i], tracker.getTargetRunnerUUID())) {
+                continue;
+            }
+
+            Player hunter = Bukkit.getPlayer(tracker.getHunterUUID());
+            if (hunter == null || !hunter.isOnline()) {
+                continue;
+            }
+
+            tracker.applyUpdate(hunter, hunterIndexes[i],
+                nearest[i], nearestDistance[i], current[i], currentDistance[i]);
+        }
+    }
+
+    UUID getHunterUUID(int i) {
+        return trackers[i].getHunterUUID();
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -39,9 +39,6 @@ public class Constants {
     /** 并行处理的最小数量阈值 */
     public static final int PARALLEL_PROCESSING_THRESHOLD = 10;
     
-    /** 侧边栏并行更新阈值 */
-    public static final int SIDEBAR_PARALLEL_THRESHOLD = 20;
-    
     // ==================== 游戏常量 ====================
     
     /** 最小玩家数 */
@@ -70,9 +67,6 @@ public class Constants {
     /** 默认自动更新间隔（秒） */
     public static final int DEFAULT_AUTO_UPDATE_INTERVAL = 10;
     
-    /** 跨维度距离（表示无法直接到达） */
-    public static final double CROSS_DIMENSION_DISTANCE = 999999.0;
-    
     // ==================== 数据库常量 ====================
     
     /** 默认数据库连接池最大连接数 */
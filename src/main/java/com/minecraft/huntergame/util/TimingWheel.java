@@ -0,0 +1,212 @@
+package com.minecraft.huntergame.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 哈希时间轮
+ * 定时任务按到期tick散列到固定数量的槽位，每次 {@link #tick()} 只检查当前槽位，
+ * 没有到期任务时每tick的开销为常数，与已注册的任务数量无关。
+ * 取消任务时立即从槽位中移除。只能在主线程使用
+ *
+ * @author YourName
+ * @version 1.0.0
+ */
+public class TimingWheel {
+
+    private final Logger logger;
+    private final Timeout[] slots;
+    private final int mask;
+
+    // 当前tick
+    private long currentTick;
+
+    // 已注册的任务数
+    private int size;
+
+    // 本tick到期的任务（复用）
+    private final List<Timeout> due;
+
+    /**
+     * @param slotCount 槽位数量（向上取整为2的幂）
+     * @param logger 任务异常日志
+     */
+    public TimingWheel(int slotCount, Logger logger) {
+        int count = Integer.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+        this.slots = new Timeout[count];
+        this.mask = count - 1;
+        this.logger = logger;
+        this.due = new ArrayList<>();
+    }
+
+    /**
+     * 注册单次任务
+     *
+     * @param delayTicks 延迟tick数（至少为1）
+     * @return 任务句柄
+     */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        return scheduleAtFixedRate(delayTicks, 0, task);
+    }
+
+    /**
+     * 注册周期任务
+     *
+     * @param delayTicks 首次执行的延迟tick数（至少为1）
+     * @param periodTicks 执行周期，0表示只执行一次
+     * @return 任务句柄
+     */
+    public Timeout scheduleAtFixedRate(long delayTicks, long periodTicks, Runnable task) {
+        Timeout timeout = new Timeout(this, task, Math.max(0, periodTicks));
+        timeout.deadline = currentTick + Math.max(1, delayTicks);
+        insert(timeout);
+        return timeout;
+    }
+
+    /**
+     * 推进一个tick并执行到期的任务
+     */
+    public void tick() {
+        currentTick++;
+        Timeout node = slots[(int) (currentTick & mask)];
+        if (node == null) {
+            return;
+        }
+
+        // 先摘下所有到期任务再执行，任务中可以安全地注册或取消其他任务
+        while (node != null) {
+            Timeout next = node.next;
+            if (node.deadline <= currentTick) {
+                unlink(node);
+                due.add(node);
+            }
+            node = next;
+        }
+
+        for (int i = 0; i < due.size(); i++) {
+            Timeout timeout = due.get(i);
+            if (timeout.cancelled) {
+                continue;
+            }
+            try {
+                timeout.task.run();
+            } catch (Exception ex) {
+                logger.log(Level.WARNING, "定时任务执行失败", ex);
+            }
+            if (timeout.period > 0 && !timeout.cancelled) {
+                timeout.deadline = currentTick + timeout.period;
+                insert(timeout);
+            } else {
+                timeout.expired = true;
+            }
+        }
+        due.clear();
+    }
+
+    private void insert(Timeout timeout) {
+        int index = (int) (timeout.deadline & mask);
+        Timeout head = slots[index];
+        timeout.slot = index;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[index] = timeout;
+        size++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.slot < 0) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        size--;
+    }
+
+    /**
+     * 取消所有任务
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            Timeout node = slots[i];
+            while (node != null) {
+                Timeout next = node.next;
+                node.cancelled = true;
+                node.prev = null;
+                node.next = null;
+                node.slot = -1;
+                node = next;
+            }
+            slots[i] = null;
+        }
+        size = 0;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 获取已注册（未到期且未取消）的任务数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long period;
+
+        private long deadline;
+        private int slot = -1;
+        private Timeout prev;
+        private Timeout next;
+        private boolean cancelled;
+        private boolean expired;
+
+        private Timeout(TimingWheel wheel, Runnable task, long period) {
+            this.wheel = wheel;
+            this.task = task;
+            this.period = period;
+        }
+
+        /**
+         * 取消任务（从时间轮中移除）
+         */
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            wheel.unlink(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * 单次任务是否已执行
+         */
+        public boolean isExpired() {
+            return expired;
+        }
+    }
+}